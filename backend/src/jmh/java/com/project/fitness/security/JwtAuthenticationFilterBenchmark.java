@@ -0,0 +1,66 @@
+package com.project.fitness.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * One authenticated request through {@link JwtAuthenticationFilter}: header extraction, cache lookup
+ * or signature check, authentication token and security context. {@code cached=false} disables the
+ * authentication cache, so every call pays for the full verification.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+  private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+  @Param({"true", "false"})
+  public boolean cached;
+
+  private JwtAuthenticationFilter filter;
+  private MockHttpServletRequest request;
+  private MockHttpServletResponse response;
+
+  @Setup
+  public void setUp() {
+    JwtUtils jwtUtils = JwtBenchmark.newJwtUtils();
+    filter = new JwtAuthenticationFilter(jwtUtils, new JwtAuthenticationCache(cached ? 10000 : 0),
+        new SimpleMeterRegistry());
+    request = new MockHttpServletRequest("GET", "/api/activities");
+    request.addHeader("Authorization", "Bearer " + jwtUtils.generateToken("3f6c1a52-8d4e-4b8a-9a1e-2c5d7e9f0b13", "USER"));
+    response = new MockHttpServletResponse();
+  }
+
+  @Benchmark
+  public Object authenticate() throws Exception {
+    // OncePerRequestFilter marks the request as filtered; clear it so each call runs the filter again
+    request.clearAttributes();
+    filter.doFilter(request, response, NO_OP_CHAIN);
+    return SecurityContextHolder.getContext().getAuthentication();
+  }
+
+  @TearDown
+  public void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+}
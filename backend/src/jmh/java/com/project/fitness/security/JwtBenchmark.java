@@ -0,0 +1,61 @@
+package com.project.fitness.security;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Token issue (login) and signature verification (every request that misses the authentication
+ * cache) with the default HS256 key.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+  private JwtUtils jwtUtils;
+  private String token;
+  private String tamperedToken;
+
+  @Setup
+  public void setUp() {
+    jwtUtils = newJwtUtils();
+    token = jwtUtils.generateToken("3f6c1a52-8d4e-4b8a-9a1e-2c5d7e9f0b13", "USER");
+    tamperedToken = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+  }
+
+  @Benchmark
+  public String generateToken() {
+    return jwtUtils.generateToken("3f6c1a52-8d4e-4b8a-9a1e-2c5d7e9f0b13", "USER");
+  }
+
+  @Benchmark
+  public boolean validateToken() {
+    return jwtUtils.validateJwtToken(token);
+  }
+
+  @Benchmark
+  public boolean rejectTamperedToken() {
+    return jwtUtils.validateJwtToken(tamperedToken);
+  }
+
+  static JwtUtils newJwtUtils() {
+    JwtUtils jwtUtils = new JwtUtils();
+    ReflectionTestUtils.setField(jwtUtils, "jwtSecret", "base64SecretKeyGoesHereMustBeLongEnoughForHS256");
+    ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+    jwtUtils.init();
+    return jwtUtils;
+  }
+}
@@ -0,0 +1,82 @@
+package com.project.fitness.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.project.fitness.dto.ActivityResponse;
+import com.project.fitness.model.ActivityType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Jackson serialization of the {@code GET /api/activities} body, with an ObjectMapper configured
+ * the way Spring Boot configures the one used by the message converters (JSR-310 dates as ISO
+ * strings). {@code cachedWriter} reuses a type-bound writer, the shape Spring MVC ends up with.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ActivityJsonBenchmark {
+
+  @Param({"20", "200"})
+  public int size;
+
+  private ObjectMapper objectMapper;
+  private ObjectWriter listWriter;
+  private List<ActivityResponse> activities;
+
+  @Setup
+  public void setUp() {
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    listWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+        .constructCollectionType(List.class, ActivityResponse.class));
+
+    String userId = UUID.randomUUID().toString();
+    LocalDateTime now = LocalDateTime.now();
+    activities = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      activities.add(new ActivityResponse(
+          UUID.randomUUID().toString(),
+          userId,
+          ActivityType.values()[i % ActivityType.values().length],
+          Map.of("avgHeartRate", 140 + i % 20, "steps", 6000 + i),
+          30 + i % 60,
+          250 + i,
+          now.minusDays(i),
+          now.minusDays(i),
+          5.0 + i % 10,
+          "MEDIUM",
+          "Evening session " + i,
+          now,
+          now));
+    }
+  }
+
+  @Benchmark
+  public byte[] objectMapper() throws Exception {
+    return objectMapper.writeValueAsBytes(activities);
+  }
+
+  @Benchmark
+  public byte[] cachedWriter() throws Exception {
+    return listWriter.writeValueAsBytes(activities);
+  }
+}
@@ -0,0 +1,169 @@
+package com.project.fitness.service;
+
+import com.project.fitness.dto.ActivityResponse;
+import com.project.fitness.dto.BodyMeasurementResponse;
+import com.project.fitness.dto.GoalResponse;
+import com.project.fitness.dto.MilestoneResponse;
+import com.project.fitness.model.Activity;
+import com.project.fitness.model.ActivityType;
+import com.project.fitness.model.BodyMeasurement;
+import com.project.fitness.model.FileUpload;
+import com.project.fitness.model.Goal;
+import com.project.fitness.model.GoalType;
+import com.project.fitness.model.Milestone;
+import com.project.fitness.model.User;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Entity-to-DTO mapping of a list endpoint's worth of rows, without the database: activities, goals
+ * with three milestones each, body measurements, and the list cleanup applied to recommendations.
+ * The services are built without repositories since the mappers never touch them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseMappingBenchmark {
+
+  @Param({"20", "200"})
+  public int size;
+
+  private ActivityService activityService;
+  private GoalService goalService;
+  private BodyMeasurementService measurementService;
+  private RecommendationService recommendationService;
+
+  private List<Activity> activities;
+  private List<Goal> goals;
+  private List<List<Milestone>> milestones;
+  private List<BodyMeasurement> measurements;
+  private List<String> recommendationLines;
+
+  @Setup
+  public void setUp() {
+    activityService = new ActivityService(null, null, null, null, null, null, null, false);
+    goalService = new GoalService(null, null, null);
+    measurementService = new BodyMeasurementService(null, null, null);
+    recommendationService = new RecommendationService(null, null, null);
+
+    User user = User.builder().id(UUID.randomUUID().toString()).email("bench@example.com").build();
+    FileUpload photo = FileUpload.builder().id(UUID.randomUUID().toString()).build();
+    LocalDateTime now = LocalDateTime.now();
+
+    activities = new ArrayList<>(size);
+    goals = new ArrayList<>(size);
+    milestones = new ArrayList<>(size);
+    measurements = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      activities.add(Activity.builder()
+          .id(UUID.randomUUID().toString())
+          .user(user)
+          .type(ActivityType.values()[i % ActivityType.values().length])
+          .additionalMetrics(Map.of("avgHeartRate", 140 + i % 20, "steps", 6000 + i))
+          .duration(30 + i % 60)
+          .caloriesBurned(250 + i)
+          .startTime(now.minusDays(i))
+          .date(now.minusDays(i))
+          .distance(5.0 + i % 10)
+          .intensity("MEDIUM")
+          .notes("Evening session " + i)
+          .createdAt(now)
+          .updatedAt(now)
+          .build());
+
+      Goal goal = Goal.builder()
+          .id(UUID.randomUUID().toString())
+          .user(user)
+          .title("Goal " + i)
+          .description("Run further every week")
+          .type(GoalType.values()[i % GoalType.values().length])
+          .targetValue(100.0)
+          .currentValue((double) (i % 120))
+          .unit("km")
+          .startDate(LocalDate.now().minusMonths(1))
+          .deadline(LocalDate.now().plusMonths(2))
+          .createdAt(now)
+          .updatedAt(now)
+          .build();
+      goals.add(goal);
+      List<Milestone> goalMilestones = new ArrayList<>(3);
+      for (int m = 1; m <= 3; m++) {
+        goalMilestones.add(Milestone.builder()
+            .id(UUID.randomUUID().toString())
+            .goal(goal)
+            .title("Milestone " + m)
+            .targetValue(25.0 * m)
+            .achieved(m == 1)
+            .createdAt(now)
+            .build());
+      }
+      milestones.add(goalMilestones);
+
+      measurements.add(BodyMeasurement.builder()
+          .id(UUID.randomUUID().toString())
+          .user(user)
+          .measurementDate(LocalDate.now().minusDays(i))
+          .weight(80.0 - i * 0.1)
+          .height(180.0)
+          .bodyFat(18.5)
+          .muscleMass(35.0)
+          .bmi(24.7)
+          .measurements(Map.of("chest", 100.0, "waist", 84.0, "hips", 98.0))
+          .progressPhoto(i % 4 == 0 ? photo : null)
+          .notes("Morning, before breakfast")
+          .createdAt(now)
+          .build());
+    }
+
+    recommendationLines = new ArrayList<>(Arrays.asList(
+        "  Increase your cadence on easy runs ", "", null, "Add one interval session per week",
+        "   ", "Stretch for ten minutes after each run", "Hydrate before long sessions  "));
+  }
+
+  @Benchmark
+  public List<ActivityResponse> mapActivities() {
+    return activities.stream().map(activityService::mapToResponse).toList();
+  }
+
+  @Benchmark
+  public List<GoalResponse> mapGoalsWithMilestones() {
+    List<GoalResponse> responses = new ArrayList<>(goals.size());
+    for (int i = 0; i < goals.size(); i++) {
+      List<MilestoneResponse> goalMilestones = milestones.get(i).stream()
+          .map(goalService::mapMilestoneToResponse)
+          .toList();
+      responses.add(goalService.mapToResponse(goals.get(i), goalMilestones));
+    }
+    return responses;
+  }
+
+  @Benchmark
+  public List<BodyMeasurementResponse> mapMeasurements() {
+    return measurements.stream().map(measurementService::mapToResponse).toList();
+  }
+
+  @Benchmark
+  public List<String> cleanRecommendationList() {
+    return recommendationService.cleanList(recommendationLines);
+  }
+}
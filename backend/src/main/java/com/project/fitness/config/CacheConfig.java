@@ -0,0 +1,57 @@
+package com.project.fitness.config;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+
+/**
+ * Spring Cache for the per-user list reads ({@code GET /api/activities}, {@code GET /api/goals}),
+ * keyed by user id and evicted by every write that changes the list. Single rows (User, Goal,
+ * Activity) are served from Hibernate's second-level cache instead.
+ *
+ * <p>The {@code *Version} caches hold the per-user data versions behind the list ETags (see
+ * {@link com.project.fitness.service.DataVersionService}); they are evicted together with the lists.
+ *
+ * <p>The backend is chosen with {@code spring.cache.type}: Caffeine in-process by default, Redis to
+ * share entries between instances, {@code simple} (a plain map) in tests. Redis entries are JSON
+ * with type hints restricted to the application's DTOs and JDK collections.
+ *
+ * <p>The cache advice wraps the transactional advice: a hit returns without opening a transaction
+ * (or borrowing a connection), and evictions run after the write has committed, so a concurrent
+ * read cannot put the pre-commit list back into the cache.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+  public static final String USER_ACTIVITIES = "userActivities";
+  public static final String USER_GOALS = "userGoals";
+  public static final String USER_ACTIVITIES_VERSION = "userActivitiesVersion";
+  public static final String USER_GOALS_VERSION = "userGoalsVersion";
+  public static final String USER_MEASUREMENTS_VERSION = "userMeasurementsVersion";
+
+  @Bean
+  public RedisCacheConfiguration redisCacheConfiguration(ObjectMapper objectMapper,
+      @Value("${spring.cache.redis.time-to-live:10m}") Duration timeToLive) {
+    ObjectMapper mapper = objectMapper.copy();
+    mapper.activateDefaultTyping(BasicPolymorphicTypeValidator.builder()
+            .allowIfSubType("com.project.fitness.")
+            .allowIfSubType("java.util.")
+            .build(),
+        ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+    return RedisCacheConfiguration.defaultCacheConfig()
+        .entryTtl(timeToLive)
+        .disableCachingNullValues()
+        .prefixCacheNameWith("fitness:")
+        .serializeValuesWith(SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer(mapper)));
+  }
+}
@@ -0,0 +1,164 @@
+package com.project.fitness.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Caps the number of API requests in flight relative to the JDBC pool size. With virtual threads the
+ * server accepts far more requests than there are connections; without a cap they would all queue
+ * inside Hikari and fail with connection timeouts. Requests that cannot get a permit within the
+ * acquire timeout are rejected with 503 instead.
+ *
+ * <p>An async request (e.g. a streamed export) keeps its permit until the async work completes, errors
+ * or times out, not just until the initial dispatch returns: the streaming thread still holds a
+ * connection.
+ *
+ * <p>Routes whose duration is set by the client's bandwidth (file downloads and uploads, chunk PUTs,
+ * exports) are not limited: a handful of slow clients would otherwise hold every permit and turn all
+ * other API calls into 503s.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+  private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+  // A null method matches any
+  private record Route(String method, String pattern) { }
+
+  private static final List<Route> TRANSFER_ROUTES = List.of(
+      new Route("GET", "/api/files/{id}"),
+      new Route("POST", "/api/files/upload"),
+      new Route("PUT", "/api/files/uploads/{id}"),
+      new Route(null, "/api/export/**"));
+
+  private static final AntPathMatcher PATHS = new AntPathMatcher();
+
+  private final boolean enabled;
+  private final Semaphore permits;
+  private final long acquireTimeoutMs;
+
+  public ConcurrencyLimitFilter(
+      @Value("${app.concurrency.limit-enabled:${spring.threads.virtual.enabled:false}}") boolean enabled,
+      @Value("${app.concurrency.max-in-flight:0}") int maxInFlight,
+      @Value("${app.concurrency.requests-per-connection:4}") int requestsPerConnection,
+      @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+      @Value("${app.concurrency.acquire-timeout-ms:2000}") long acquireTimeoutMs) {
+    int limit = maxInFlight > 0 ? maxInFlight : Math.max(1, poolSize * requestsPerConnection);
+    this.enabled = enabled;
+    this.permits = new Semaphore(limit, true);
+    this.acquireTimeoutMs = acquireTimeoutMs;
+    if (enabled) {
+      log.info("API concurrency limit: {} in-flight requests (pool size {})", limit, poolSize);
+    }
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String uri = request.getRequestURI();
+    return !enabled || !uri.startsWith("/api/") || isTransfer(request.getMethod(), uri);
+  }
+
+  private static boolean isTransfer(String method, String uri) {
+    for (Route route : TRANSFER_ROUTES) {
+      if ((route.method() == null || route.method().equals(method)) && PATHS.match(route.pattern(), uri)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      FilterChain filterChain
+  ) throws ServletException, IOException {
+
+    boolean acquired;
+    try {
+      acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+
+    if (!acquired) {
+      log.warn("Rejected {} {}: concurrency limit reached", request.getMethod(), request.getRequestURI());
+      response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+      response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+      response.getWriter().write("{\"error\":\"Server is busy, please retry\"}");
+      return;
+    }
+
+    Runnable release = releaseOnce();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      if (request.isAsyncStarted()) {
+        releaseOnAsyncEnd(request, release);
+      } else {
+        release.run();
+      }
+    }
+  }
+
+  // Completion after a timeout or error fires more than one listener callback
+  private Runnable releaseOnce() {
+    AtomicBoolean released = new AtomicBoolean();
+    return () -> {
+      if (released.compareAndSet(false, true)) {
+        permits.release();
+      }
+    };
+  }
+
+  private void releaseOnAsyncEnd(HttpServletRequest request, Runnable release) {
+    try {
+      request.getAsyncContext().addListener(new AsyncListener() {
+        @Override
+        public void onComplete(AsyncEvent event) {
+          release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+          release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+          release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+          event.getAsyncContext().addListener(this); // listeners are cleared for a new async cycle
+        }
+      });
+    } catch (IllegalStateException e) {
+      release.run(); // async cycle already over
+    }
+  }
+}
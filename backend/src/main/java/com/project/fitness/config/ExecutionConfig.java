@@ -0,0 +1,16 @@
+package com.project.fitness.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Async} and {@code @Scheduled}. The executors behind them are auto-configured by
+ * Spring Boot and switch to virtual threads, together with Tomcat's request executor, when
+ * {@code spring.threads.virtual.enabled=true}.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class ExecutionConfig {
+}
@@ -0,0 +1,60 @@
+package com.project.fitness.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.project.fitness.service.FieldSet;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.Set;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Writes only the requested properties for endpoints that take a {@code fields} request parameter.
+ * The controller has already validated the names with {@link FieldSet#parse}.
+ */
+@RestControllerAdvice
+public class FieldSetResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+  private static final String PARAMETER = "fields";
+
+  @Override
+  public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    Method method = returnType.getMethod();
+    return super.supports(returnType, converterType) && method != null
+        && Arrays.stream(method.getParameters()).anyMatch(FieldSetResponseAdvice::isFieldsParameter);
+  }
+
+  @Override
+  protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+      MethodParameter returnType, ServerHttpRequest request, ServerHttpResponse response) {
+    if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+      return;
+    }
+    Set<String> names = FieldSet.names(servletRequest.getServletRequest().getParameter(PARAMETER));
+    if (names.isEmpty()) {
+      return;
+    }
+    names.add("id");
+    bodyContainer.setFilters(new SimpleFilterProvider()
+        .addFilter(FieldSet.FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(names)));
+  }
+
+  private static boolean isFieldsParameter(Parameter parameter) {
+    RequestParam requestParam = parameter.getAnnotation(RequestParam.class);
+    if (requestParam == null) {
+      return false;
+    }
+    String name = requestParam.name().isEmpty() ? parameter.getName() : requestParam.name();
+    return PARAMETER.equals(name);
+  }
+}
@@ -0,0 +1,36 @@
+package com.project.fitness.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.project.fitness.dto.ActivityResponse;
+import com.project.fitness.dto.BodyMeasurementResponse;
+import com.project.fitness.dto.GoalResponse;
+import com.project.fitness.dto.RecommendationResponse;
+import com.project.fitness.service.FieldSet;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Puts the list response DTOs behind the {@link FieldSet} filter (as a mix-in, so other mappers
+ * are unaffected). The default filter writes every property; {@link FieldSetResponseAdvice}
+ * replaces it for requests with {@code ?fields=}.
+ */
+@Configuration
+public class JacksonConfig {
+
+  @JsonFilter(FieldSet.FILTER_ID)
+  interface FieldSetFiltered {
+  }
+
+  @Bean
+  public Jackson2ObjectMapperBuilderCustomizer fieldSetFilter() {
+    return builder -> builder
+        .mixIn(ActivityResponse.class, FieldSetFiltered.class)
+        .mixIn(GoalResponse.class, FieldSetFiltered.class)
+        .mixIn(BodyMeasurementResponse.class, FieldSetFiltered.class)
+        .mixIn(RecommendationResponse.class, FieldSetFiltered.class)
+        .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+  }
+}
@@ -0,0 +1,19 @@
+package com.project.fitness.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Keeps a read-only service method on the primary when a read replica is configured (see
+ * {@link ReplicaRoutingDataSource}). For reads whose result outlives the request: cached lists and
+ * lists served under a data-version ETag, where rows from a lagging replica would be kept until the
+ * next write.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadFromPrimary {
+}
@@ -0,0 +1,64 @@
+package com.project.fitness.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+/**
+ * Primary + read replica pools behind a {@link ReplicaRoutingDataSource}, active when
+ * {@code app.datasource.replica.url} is set; otherwise Spring Boot's single pool is used unchanged.
+ *
+ * <p>The primary pool keeps the {@code spring.datasource.*} and {@code spring.datasource.hikari.*}
+ * settings; the replica takes {@code app.datasource.replica.*} (username and password default to the
+ * primary's) and {@code app.datasource.replica.hikari.*}.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replica.url:}'.isEmpty()")
+public class ReplicaDataSourceConfig {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("primary");
+    return dataSource;
+  }
+
+  @Bean
+  @ConfigurationProperties("app.datasource.replica.hikari")
+  public HikariDataSource replicaDataSource(DataSourceProperties primary,
+      @Value("${app.datasource.replica.url}") String url,
+      @Value("${app.datasource.replica.username:}") String username,
+      @Value("${app.datasource.replica.password:}") String password) {
+    HikariDataSource dataSource = new HikariDataSource();
+    dataSource.setPoolName("replica");
+    dataSource.setJdbcUrl(url);
+    dataSource.setUsername(StringUtils.hasText(username) ? username : primary.determineUsername());
+    dataSource.setPassword(StringUtils.hasText(password) ? password : primary.determinePassword());
+    dataSource.setReadOnly(true);
+    return dataSource;
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+      @Qualifier("replicaDataSource") DataSource replica,
+      @Value("${app.datasource.replica.read-your-writes-window:5s}") Duration readYourWritesWindow,
+      MeterRegistry meterRegistry) {
+    ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, readYourWritesWindow,
+        meterRegistry);
+    routing.afterPropertiesSet();
+    return new LazyConnectionDataSourceProxy(routing);
+  }
+}
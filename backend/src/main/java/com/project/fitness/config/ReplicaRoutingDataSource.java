@@ -0,0 +1,126 @@
+package com.project.fitness.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Sends read-only service transactions to the replica pool and everything else to the primary.
+ *
+ * <p>A transaction goes to the replica only when it is read-only and was started by a service method
+ * ({@code @Transactional(readOnly = true)} in {@code com.project.fitness.service}). Spring Data also
+ * marks its own finder transactions read-only, but those run inside writes too (look-ups before an
+ * insert, login right after sign-up), so they stay on the primary.
+ *
+ * <p>Read-your-writes: when a writable transaction of a signed-in user commits, that user's reads stay
+ * on the primary for {@code window}, so a list fetched right after a change can't miss it because of
+ * replication lag. Writes with no user in the security context (background imports, sign-up) open no
+ * window. The window is tracked per instance.
+ *
+ * <p>Rows read from the replica may be stale for longer than that (background writes, lag beyond the
+ * window), so they must not outlive the request: methods marked {@link ReadFromPrimary} (cached and
+ * ETag-versioned lists) stay on the primary, and a replica transaction reads the Hibernate second-level
+ * cache without putting into it ({@link CacheMode#GET}).
+ *
+ * <p>Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the
+ * read-only flag is only set after the transaction manager has asked for a connection.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  enum Route { PRIMARY, REPLICA }
+
+  private static final String SERVICE_PACKAGE = "com.project.fitness.service.";
+
+  private final Cache<String, Boolean> recentWriters;
+  private final Map<String, Boolean> primaryReads = new ConcurrentHashMap<>();
+  private final Counter primaryCount;
+  private final Counter replicaCount;
+
+  public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration window,
+      MeterRegistry meterRegistry) {
+    setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+    setDefaultTargetDataSource(primary);
+    this.recentWriters = Caffeine.newBuilder()
+        .expireAfterWrite(window)
+        .maximumSize(100_000)
+        .build();
+    this.primaryCount = Counter.builder("datasource.routing")
+        .description("Connections handed out per target database")
+        .tag("target", "primary")
+        .register(meterRegistry);
+    this.replicaCount = Counter.builder("datasource.routing")
+        .description("Connections handed out per target database")
+        .tag("target", "replica")
+        .register(meterRegistry);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    String userId = currentUserId();
+    if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      String transaction = TransactionSynchronizationManager.getCurrentTransactionName();
+      if (transaction != null && transaction.startsWith(SERVICE_PACKAGE)
+          && !primaryReads.computeIfAbsent(transaction, ReplicaRoutingDataSource::readsFromPrimary)
+          && (userId == null || recentWriters.getIfPresent(userId) == null)) {
+        skipSecondLevelCachePuts();
+        replicaCount.increment();
+        return Route.REPLICA;
+      }
+    } else if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          recentWriters.put(userId, Boolean.TRUE);
+        }
+      });
+    }
+    primaryCount.increment();
+    return Route.PRIMARY;
+  }
+
+  // Transaction names are "<class>.<method>"; an annotated overload pins every method of that name
+  private static boolean readsFromPrimary(String transaction) {
+    int dot = transaction.lastIndexOf('.');
+    String method = transaction.substring(dot + 1);
+    try {
+      Class<?> type = ClassUtils.forName(transaction.substring(0, dot),
+          ReplicaRoutingDataSource.class.getClassLoader());
+      return Arrays.stream(type.getMethods())
+          .anyMatch(m -> m.getName().equals(method) && m.isAnnotationPresent(ReadFromPrimary.class));
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+  // The EntityManager is bound by then and lives only for this transaction (open-in-view is off)
+  private static void skipSecondLevelCachePuts() {
+    for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+      if (resource instanceof EntityManagerHolder holder) {
+        holder.getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.GET);
+      }
+    }
+  }
+
+  private static String currentUserId() {
+    // Set by JwtAuthenticationFilter; anonymous requests carry an AnonymousAuthenticationToken instead
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    return authentication instanceof UsernamePasswordAuthenticationToken
+        && authentication.getPrincipal() instanceof String userId ? userId : null;
+  }
+}
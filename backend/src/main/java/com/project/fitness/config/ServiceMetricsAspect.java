@@ -0,0 +1,47 @@
+package com.project.fitness.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the service beans as {@code app.service.invocations}, tagged with
+ * class, method and exception (mirroring Spring Data's {@code spring.data.repository.invocations} for
+ * repositories). Calls a service makes to its own methods bypass the proxy and are not timed
+ * separately. Runs outermost, so the time includes cache lookups and the transaction commit.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+  private final MeterRegistry meterRegistry;
+
+  public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Around("execution(public * com.project.fitness.service..*(..))")
+  public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String exception = "none";
+    try {
+      return joinPoint.proceed();
+    } catch (Throwable e) {
+      exception = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      sample.stop(Timer.builder("app.service.invocations")
+          .description("Service method execution time")
+          .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+          .tag("method", joinPoint.getSignature().getName())
+          .tag("exception", exception)
+          .register(meterRegistry));
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package com.project.fitness.config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the pg_trgm GIN indexes behind user search ({@code LOWER(column) LIKE '%term%'}), which
+ * Hibernate's schema update can't express. PostgreSQL only; on other databases (H2 in tests and local
+ * runs) search keeps scanning the users table.
+ *
+ * <p>Indexes are built {@code CONCURRENTLY} so startup does not block sign-ups on a large table.
+ * Creating the extension needs a suitably privileged role; without it a warning is logged and search
+ * still works, only without the index.
+ *
+ * <p>A {@code CREATE INDEX CONCURRENTLY} that fails (restart, deadlock, cancelled statement) leaves an
+ * INVALID index behind, which {@code IF NOT EXISTS} would then skip forever; such an index is dropped
+ * and built again on the next start.
+ */
+@Component
+public class UserSearchIndexInitializer {
+
+  private static final Logger log = LoggerFactory.getLogger(UserSearchIndexInitializer.class);
+
+  // Index name -> indexed expression
+  private static final Map<String, String> INDEXES = Map.of(
+      "idx_users_email_trgm", "lower(email)",
+      "idx_users_first_name_trgm", "lower(first_name)",
+      "idx_users_last_name_trgm", "lower(last_name)"
+  );
+
+  private final DataSource dataSource;
+  private final boolean enabled;
+
+  public UserSearchIndexInitializer(DataSource dataSource,
+      @Value("${app.users.search.trigram-index:true}") boolean enabled) {
+    this.dataSource = dataSource;
+    this.enabled = enabled;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  void createIndexes() {
+    if (!enabled) {
+      return;
+    }
+    try (Connection connection = dataSource.getConnection()) {
+      String database = connection.getMetaData().getDatabaseProductName();
+      if (!"PostgreSQL".equals(database)) {
+        log.debug("Skipping trigram user search indexes on {}", database);
+        return;
+      }
+      // CONCURRENTLY can't run inside a transaction block
+      connection.setAutoCommit(true);
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        for (Map.Entry<String, String> index : INDEXES.entrySet()) {
+          if (Boolean.FALSE.equals(isValid(connection, index.getKey()))) {
+            log.warn("Rebuilding invalid index {} left by an interrupted build", index.getKey());
+            statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index.getKey());
+          }
+          statement.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + index.getKey()
+              + " ON users USING gin (" + index.getValue() + " gin_trgm_ops)");
+        }
+      }
+      log.info("Trigram user search indexes are in place");
+    } catch (SQLException e) {
+      log.warn("Could not create trigram user search indexes, search will scan users: {}", e.getMessage());
+    }
+  }
+
+  // null when the index does not exist (in the search path)
+  private static Boolean isValid(Connection connection, String index) throws SQLException {
+    try (PreparedStatement query = connection.prepareStatement(
+        "SELECT indisvalid FROM pg_index WHERE indexrelid = to_regclass(?)")) {
+      query.setString(1, index);
+      try (ResultSet result = query.executeQuery()) {
+        return result.next() ? result.getBoolean(1) : null;
+      }
+    }
+  }
+}
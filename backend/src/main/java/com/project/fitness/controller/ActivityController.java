@@ -1,36 +1,109 @@
 package com.project.fitness.controller;
 
+import com.project.fitness.config.CacheConfig;
 import com.project.fitness.dto.ActivityRequest;
 import com.project.fitness.dto.ActivityResponse;
+import com.project.fitness.dto.ActivitySearchCriteria;
+import com.project.fitness.dto.ActivityStatsResponse;
+import com.project.fitness.dto.BulkActivityResponse;
+import com.project.fitness.dto.CursorPage;
+import com.project.fitness.model.ActivityType;
+import com.project.fitness.model.RollupPeriod;
+import com.project.fitness.service.ActivityIngestService;
+import com.project.fitness.service.ActivityRollupService;
 import com.project.fitness.service.ActivityService;
+import com.project.fitness.service.ActivityService.TrackResult;
+import com.project.fitness.service.DataVersionService;
+import com.project.fitness.service.FieldSet;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/activities")
 public class ActivityController {
+  private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+  private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
   private final ActivityService activityService;
+  private final ActivityRollupService rollupService;
+  private final ActivityIngestService ingestService;
+  private final DataVersionService dataVersions;
 
-  public ActivityController(ActivityService activityService) {
+  public ActivityController(ActivityService activityService, ActivityRollupService rollupService,
+      ActivityIngestService ingestService, DataVersionService dataVersions) {
     this.activityService = activityService;
+    this.rollupService = rollupService;
+    this.ingestService = ingestService;
+    this.dataVersions = dataVersions;
   }
 
+  /**
+   * Record an activity. With an {@code Idempotency-Key} header, or when the same workout (type,
+   * startTime, duration) is already stored, the existing activity is returned instead of a new row
+   * and {@code Idempotent-Replayed: true} is set.
+   */
   @PostMapping
   public ResponseEntity<ActivityResponse> trackActivity(
       @Valid @RequestBody ActivityRequest activityRequest,
+      @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
       Authentication authentication) {
     String userId = (String) authentication.getPrincipal();
     activityRequest.setUserId(userId);
-    return ResponseEntity.ok(activityService.trackActivity(activityRequest));
+    TrackResult result = activityService.trackActivity(activityRequest, idempotencyKey);
+    return ResponseEntity.ok()
+        .header(IDEMPOTENT_REPLAYED, String.valueOf(result.duplicate()))
+        .body(result.activity());
+  }
+
+  /**
+   * Bulk ingest: a JSON array or NDJSON stream of activities. Returns a result per item (CREATED,
+   * DUPLICATE, INVALID or FAILED) in submission order; valid items are stored even when others are
+   * rejected. An {@code Idempotency-Key} makes a replay of the same batch resolve item-for-item.
+   */
+  @PostMapping(value = "/bulk",
+      consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  public ResponseEntity<BulkActivityResponse> bulkTrackActivities(
+      HttpServletRequest request,
+      @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+      Authentication authentication) throws IOException {
+    String userId = (String) authentication.getPrincipal();
+    boolean ndjson = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+    BulkActivityResponse response = ndjson
+        ? ingestService.ingestNdjson(userId, request.getInputStream(), idempotencyKey)
+        : ingestService.ingestJson(userId, request.getInputStream(), idempotencyKey);
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * Aggregated totals per day or week (optionally one activity type), answered from the rollup table.
+   * Defaults: period=DAY, to=today, from=30 days / 12 weeks back.
+   */
+  @GetMapping("/stats")
+  public ResponseEntity<ActivityStatsResponse> getStats(
+      @RequestParam(required = false) RollupPeriod period,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam(required = false) ActivityType type,
+      Authentication authentication) {
+    String userId = (String) authentication.getPrincipal();
+    return ResponseEntity.ok(rollupService.getStats(userId, period, from, to, type));
   }
 
   @GetMapping("/{id}")
@@ -38,10 +111,37 @@ public class ActivityController {
     return ResponseEntity.ok(activityService.getActivityById(id));
   }
 
+  /**
+   * Lists are tagged with the user's data version (weak ETag, revalidated on every use); a matching
+   * {@code If-None-Match} gets 304 without loading the list. List endpoints take an optional
+   * {@code fields} parameter (e.g. {@code fields=type,duration,startTime}) to return only those
+   * properties; leaving out additionalMetrics also keeps that JSON column out of the query.
+   */
   @GetMapping
-  public ResponseEntity<List<ActivityResponse>> getUserActivities(Authentication authentication) {
+  public ResponseEntity<List<ActivityResponse>> getUserActivities(Authentication authentication,
+      @RequestParam(required = false) String fields,
+      WebRequest webRequest) {
+    FieldSet fieldSet = FieldSet.parse(fields, ActivityResponse.class);
     String userId = (authentication != null) ? (String) authentication.getPrincipal() : null;
-    return ResponseEntity.ok(activityService.getUserActivities(userId));
+    String etag = dataVersions.etag(CacheConfig.USER_ACTIVITIES_VERSION, userId);
+    if (webRequest.checkNotModified(etag)) {
+      return null;
+    }
+    return ResponseEntity.ok()
+        .eTag(etag)
+        .cacheControl(CacheControl.noCache().cachePrivate())
+        .body(activityService.getUserActivities(userId, fieldSet));
+  }
+
+  @GetMapping("/page")
+  public ResponseEntity<CursorPage<ActivityResponse>> getUserActivitiesPage(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(required = false) String fields,
+      Authentication authentication) {
+    String userId = (String) authentication.getPrincipal();
+    FieldSet fieldSet = FieldSet.parse(fields, ActivityResponse.class);
+    return ResponseEntity.ok(activityService.getUserActivitiesPage(userId, cursor, limit, fieldSet));
   }
 
   @GetMapping("/search")
@@ -49,8 +149,17 @@ public class ActivityController {
       @RequestParam(required = false) String type,
       @RequestParam(required = false) String dateFrom,
       @RequestParam(required = false) String dateTo,
+      @RequestParam(required = false) String intensity,
+      @RequestParam(required = false) Double minDistance,
+      @RequestParam(required = false) Double maxDistance,
+      @RequestParam(required = false) Integer minDuration,
+      @RequestParam(required = false) Integer maxDuration,
+      @RequestParam(required = false) String fields,
       Authentication authentication) {
     String userId = (String) authentication.getPrincipal();
-    return ResponseEntity.ok(activityService.searchActivities(userId, type, dateFrom, dateTo));
+    ActivitySearchCriteria criteria = new ActivitySearchCriteria(type, dateFrom, dateTo, intensity,
+        minDistance, maxDistance, minDuration, maxDuration);
+    FieldSet fieldSet = FieldSet.parse(fields, ActivityResponse.class);
+    return ResponseEntity.ok(activityService.searchActivities(userId, criteria, fieldSet));
   }
 }
\ No newline at end of file
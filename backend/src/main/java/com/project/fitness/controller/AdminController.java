@@ -0,0 +1,30 @@
+package com.project.fitness.controller;
+
+import com.project.fitness.service.ActivityRollupService;
+import java.util.Map;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// Maintenance operations; restricted to ADMIN in SecurityConfig
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+  private final ActivityRollupService rollupService;
+
+  public AdminController(ActivityRollupService rollupService) {
+    this.rollupService = rollupService;
+  }
+
+  @PostMapping("/rollups/rebuild")
+  public ResponseEntity<Map<String, Integer>> rebuildAllRollups() {
+    return ResponseEntity.ok(Map.of("users", rollupService.rebuildAll()));
+  }
+
+  @PostMapping("/rollups/rebuild/{userId}")
+  public ResponseEntity<Map<String, Integer>> rebuildUserRollups(@PathVariable String userId) {
+    return ResponseEntity.ok(Map.of("buckets", rollupService.rebuild(userId)));
+  }
+}
@@ -1,13 +1,19 @@
 package com.project.fitness.controller;
 
+import com.project.fitness.config.CacheConfig;
 import com.project.fitness.dto.BodyMeasurementRequest;
 import com.project.fitness.dto.BodyMeasurementResponse;
+import com.project.fitness.dto.CursorPage;
 import com.project.fitness.service.BodyMeasurementService;
+import com.project.fitness.service.DataVersionService;
+import com.project.fitness.service.FieldSet;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -17,9 +23,11 @@ import java.util.List;
 public class BodyMeasurementController {
 
   private final BodyMeasurementService measurementService;
+  private final DataVersionService dataVersions;
 
-  public BodyMeasurementController(BodyMeasurementService measurementService) {
+  public BodyMeasurementController(BodyMeasurementService measurementService, DataVersionService dataVersions) {
     this.measurementService = measurementService;
+    this.dataVersions = dataVersions;
   }
 
   @PostMapping
@@ -47,18 +55,44 @@ public class BodyMeasurementController {
     return ResponseEntity.ok(measurementService.getMeasurementById(id, userId));
   }
 
+  /**
+   * Lists are tagged with the user's data version (weak ETag, revalidated on every use); a matching
+   * {@code If-None-Match} gets 304 without loading the list. An optional {@code fields} parameter
+   * returns only those properties; leaving out measurements also keeps that JSON column out of the query.
+   */
   @GetMapping
   public ResponseEntity<List<BodyMeasurementResponse>> getUserMeasurements(
       Authentication authentication,
       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+      @RequestParam(required = false) String fields,
+      WebRequest webRequest) {
+    FieldSet fieldSet = FieldSet.parse(fields, BodyMeasurementResponse.class);
     String userId = (String) authentication.getPrincipal();
+    String etag = dataVersions.etag(CacheConfig.USER_MEASUREMENTS_VERSION, userId);
+    if (webRequest.checkNotModified(etag)) {
+      return null;
+    }
+    ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+        .eTag(etag)
+        .cacheControl(CacheControl.noCache().cachePrivate());
     
     if (startDate != null && endDate != null) {
-      return ResponseEntity.ok(measurementService.getMeasurementsByDateRange(userId, startDate, endDate));
+      return ok.body(measurementService.getMeasurementsByDateRange(userId, startDate, endDate, fieldSet));
     }
     
-    return ResponseEntity.ok(measurementService.getUserMeasurements(userId));
+    return ok.body(measurementService.getUserMeasurements(userId, fieldSet));
+  }
+
+  @GetMapping("/page")
+  public ResponseEntity<CursorPage<BodyMeasurementResponse>> getUserMeasurementsPage(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(required = false) String fields,
+      Authentication authentication) {
+    String userId = (String) authentication.getPrincipal();
+    FieldSet fieldSet = FieldSet.parse(fields, BodyMeasurementResponse.class);
+    return ResponseEntity.ok(measurementService.getUserMeasurementsPage(userId, cursor, limit, fieldSet));
   }
 
   @DeleteMapping("/{id}")
@@ -0,0 +1,71 @@
+package com.project.fitness.controller;
+
+import com.project.fitness.dto.FileUploadResponse;
+import com.project.fitness.dto.UploadSessionRequest;
+import com.project.fitness.dto.UploadSessionResponse;
+import com.project.fitness.service.ChunkedUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/files/uploads")
+public class ChunkedUploadController {
+
+  private final ChunkedUploadService chunkedUploadService;
+
+  public ChunkedUploadController(ChunkedUploadService chunkedUploadService) {
+    this.chunkedUploadService = chunkedUploadService;
+  }
+
+  @PostMapping
+  public ResponseEntity<UploadSessionResponse> createSession(
+      @Valid @RequestBody UploadSessionRequest request,
+      Authentication authentication) {
+    String userId = (String) authentication.getPrincipal();
+    return ResponseEntity.ok(chunkedUploadService.createSession(request, userId));
+  }
+
+  @GetMapping("/{id}")
+  public ResponseEntity<UploadSessionResponse> getSession(
+      @PathVariable String id,
+      Authentication authentication) {
+    String userId = (String) authentication.getPrincipal();
+    return ResponseEntity.ok(chunkedUploadService.getSession(id, userId));
+  }
+
+  /**
+   * Append a raw chunk (application/octet-stream body) at the given offset
+   */
+  @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+  public ResponseEntity<UploadSessionResponse> uploadChunk(
+      @PathVariable String id,
+      @RequestParam long offset,
+      HttpServletRequest request,
+      Authentication authentication) throws IOException {
+    String userId = (String) authentication.getPrincipal();
+    return ResponseEntity.ok(chunkedUploadService.appendChunk(id, userId, offset, request.getInputStream()));
+  }
+
+  @PostMapping("/{id}/complete")
+  public ResponseEntity<FileUploadResponse> complete(
+      @PathVariable String id,
+      Authentication authentication) {
+    String userId = (String) authentication.getPrincipal();
+    return ResponseEntity.ok(chunkedUploadService.complete(id, userId));
+  }
+
+  @DeleteMapping("/{id}")
+  public ResponseEntity<Void> abort(
+      @PathVariable String id,
+      Authentication authentication) {
+    String userId = (String) authentication.getPrincipal();
+    chunkedUploadService.abort(id, userId);
+    return ResponseEntity.noContent().build();
+  }
+}
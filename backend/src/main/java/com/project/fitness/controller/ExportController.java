@@ -0,0 +1,45 @@
+package com.project.fitness.controller;
+
+import com.project.fitness.service.ExportService;
+import com.project.fitness.service.ExportService.Format;
+import java.time.LocalDate;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+  private final ExportService exportService;
+
+  public ExportController(ExportService exportService) {
+    this.exportService = exportService;
+  }
+
+  /**
+   * Download the caller's full history of activities, measurements or goals as NDJSON (default) or
+   * CSV. The body is streamed, so the response starts immediately and has no Content-Length.
+   */
+  @GetMapping("/{resource}")
+  public ResponseEntity<StreamingResponseBody> export(
+      @PathVariable String resource,
+      @RequestParam(required = false) String format,
+      Authentication authentication) {
+    String userId = (String) authentication.getPrincipal();
+    Format exportFormat = Format.fromParam(format);
+    StreamingResponseBody body = exportService.export(userId, resource, exportFormat);
+    String fileName = resource + "-" + LocalDate.now() + "." + exportFormat.getExtension();
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+        .body(body);
+  }
+}
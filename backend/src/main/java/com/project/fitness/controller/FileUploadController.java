@@ -1,24 +1,49 @@
 package com.project.fitness.controller;
 
+import com.project.fitness.dto.CursorPage;
 import com.project.fitness.dto.FileUploadResponse;
+import com.project.fitness.dto.StoredFile;
 import com.project.fitness.service.FileUploadService;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import com.project.fitness.service.ImageVariant;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/files")
 public class FileUploadController {
 
+  // Stored files are immutable (UUID-named), so clients may cache them for a year
+  private static final String CACHE_CONTROL = "private, max-age=31536000, immutable";
+  // Original served in place of a variant that is still being generated; revalidate soon
+  private static final String CACHE_CONTROL_PENDING_VARIANT = "private, max-age=60";
+
+  // Tomcat's sendfile request attributes (NIO connector, non-TLS)
+  private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+  private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+  private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+  private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
   private final FileUploadService fileUploadService;
 
   public FileUploadController(FileUploadService fileUploadService) {
@@ -34,24 +59,65 @@ public class FileUploadController {
     return ResponseEntity.ok(response);
   }
 
+  /**
+   * Stream a stored file. Supports conditional requests (ETag / Last-Modified -> 304) and single
+   * byte ranges (206); the body is sent with sendfile when the connector supports it.
+   * {@code size=thumbnail|medium} serves a downscaled JPEG variant of an image when available.
+   */
   @GetMapping("/{id}")
-  public ResponseEntity<Resource> getFile(@PathVariable String id) {
-    try {
-      FileUploadResponse fileInfo = fileUploadService.getFileById(id);
-      Path filePath = Paths.get(fileInfo.getFileUrl().replace("/api/files/", ""));
-      Resource resource = new UrlResource(filePath.toUri());
-
-      if (resource.exists() || resource.isReadable()) {
-        return ResponseEntity.ok()
-            .contentType(MediaType.parseMediaType(fileInfo.getFileType()))
-            .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileInfo.getFileName() + "\"")
-            .body(resource);
-      } else {
-        throw new RuntimeException("Could not read file");
+  public void getFile(
+      @PathVariable String id,
+      @RequestParam(required = false) String size,
+      HttpServletRequest request,
+      HttpServletResponse response) throws IOException {
+    ImageVariant requested = ImageVariant.fromParam(size);
+    StoredFile file = fileUploadService.getStoredFile(id, requested);
+    String etag = file.getVariant() == null
+        ? "\"" + file.getId() + "\""
+        : "\"" + file.getId() + "-" + file.getVariant() + "\"";
+    long lastModified = file.getUploadedAt() != null
+        ? file.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+        : -1;
+
+    boolean pendingVariant = requested != null && file.getVariant() == null;
+    response.setHeader(HttpHeaders.CACHE_CONTROL, pendingVariant ? CACHE_CONTROL_PENDING_VARIANT : CACHE_CONTROL);
+    if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+      return; // 304 with validators already set
+    }
+
+    Path path = file.getPath();
+    long length = Files.size(path);
+    response.setContentType(file.getFileType());
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+        .filename(file.getFileName(), StandardCharsets.UTF_8).build().toString());
+
+    long start = 0;
+    long end = length - 1;
+    HttpRange range = requestedRange(request, etag);
+    if (range != null) {
+      try {
+        start = range.getRangeStart(length);
+        end = range.getRangeEnd(length);
+      } catch (IllegalArgumentException e) {
+        start = length; // unsatisfiable, handled below
+      }
+      if (start >= length || start > end) {
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+        return;
       }
-    } catch (Exception e) {
-      throw new RuntimeException("Error retrieving file: " + e.getMessage());
+      response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+      response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+    }
+
+    long count = length == 0 ? 0 : end - start + 1;
+    response.setContentLengthLong(count);
+    if (count == 0 || HttpMethod.HEAD.matches(request.getMethod())) {
+      return;
     }
+    fileUploadService.recordBytesServed(count);
+    transfer(path, start, count, request, response);
   }
 
   @GetMapping("/user/me")
@@ -61,6 +127,15 @@ public class FileUploadController {
     return ResponseEntity.ok(files);
   }
 
+  @GetMapping("/user/me/page")
+  public ResponseEntity<CursorPage<FileUploadResponse>> getMyFilesPage(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit,
+      Authentication authentication) {
+    String userId = (String) authentication.getPrincipal();
+    return ResponseEntity.ok(fileUploadService.getUserFilesPage(userId, cursor, limit));
+  }
+
   @DeleteMapping("/{id}")
   public ResponseEntity<Void> deleteFile(
       @PathVariable String id,
@@ -69,4 +144,47 @@ public class FileUploadController {
     fileUploadService.deleteFile(id, userId);
     return ResponseEntity.noContent().build();
   }
+
+  // Single ranges only; multi-range or malformed headers, or a stale If-Range, fall back to the full body
+  private HttpRange requestedRange(HttpServletRequest request, String etag) {
+    String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+    if (rangeHeader == null) {
+      return null;
+    }
+    String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    if (ifRange != null && !ifRange.equals(etag)) {
+      return null;
+    }
+    try {
+      List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+      return ranges.size() == 1 ? ranges.get(0) : null;
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private void transfer(Path path, long start, long count,
+      HttpServletRequest request, HttpServletResponse response) throws IOException {
+    if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+      // Tomcat writes the file straight from the page cache to the socket after the filter chain returns
+      request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+      request.setAttribute(SENDFILE_START, start);
+      request.setAttribute(SENDFILE_END, start + count);
+      return;
+    }
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+      long position = start;
+      long remaining = count;
+      while (remaining > 0) {
+        long written = channel.transferTo(position, remaining, out);
+        if (written <= 0) {
+          break;
+        }
+        position += written;
+        remaining -= written;
+      }
+    }
+  }
 }
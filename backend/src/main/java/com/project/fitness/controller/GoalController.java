@@ -1,14 +1,20 @@
 package com.project.fitness.controller;
 
+import com.project.fitness.config.CacheConfig;
+import com.project.fitness.dto.CursorPage;
 import com.project.fitness.dto.GoalRequest;
 import com.project.fitness.dto.GoalResponse;
 import com.project.fitness.dto.MilestoneRequest;
 import com.project.fitness.dto.MilestoneResponse;
+import com.project.fitness.service.DataVersionService;
+import com.project.fitness.service.FieldSet;
 import com.project.fitness.service.GoalService;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,9 +23,11 @@ import java.util.List;
 public class GoalController {
 
   private final GoalService goalService;
+  private final DataVersionService dataVersions;
 
-  public GoalController(GoalService goalService) {
+  public GoalController(GoalService goalService, DataVersionService dataVersions) {
     this.goalService = goalService;
+    this.dataVersions = dataVersions;
   }
 
   @PostMapping
@@ -47,10 +55,35 @@ public class GoalController {
     return ResponseEntity.ok(goalService.getGoalById(id, userId));
   }
 
+  /**
+   * Lists are tagged with the user's data version (weak ETag, revalidated on every use); a matching
+   * {@code If-None-Match} gets 304 without loading the list. An optional {@code fields} parameter
+   * returns only those properties; leaving out milestones also skips the milestone query.
+   */
   @GetMapping
-  public ResponseEntity<List<GoalResponse>> getUserGoals(Authentication authentication) {
+  public ResponseEntity<List<GoalResponse>> getUserGoals(Authentication authentication,
+      @RequestParam(required = false) String fields, WebRequest webRequest) {
+    FieldSet fieldSet = FieldSet.parse(fields, GoalResponse.class);
     String userId = (String) authentication.getPrincipal();
-    return ResponseEntity.ok(goalService.getUserGoals(userId));
+    String etag = dataVersions.etag(CacheConfig.USER_GOALS_VERSION, userId);
+    if (webRequest.checkNotModified(etag)) {
+      return null;
+    }
+    return ResponseEntity.ok()
+        .eTag(etag)
+        .cacheControl(CacheControl.noCache().cachePrivate())
+        .body(goalService.getUserGoals(userId, fieldSet));
+  }
+
+  @GetMapping("/page")
+  public ResponseEntity<CursorPage<GoalResponse>> getUserGoalsPage(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(required = false) String fields,
+      Authentication authentication) {
+    String userId = (String) authentication.getPrincipal();
+    FieldSet fieldSet = FieldSet.parse(fields, GoalResponse.class);
+    return ResponseEntity.ok(goalService.getUserGoalsPage(userId, cursor, limit, fieldSet));
   }
 
   @DeleteMapping("/{id}")
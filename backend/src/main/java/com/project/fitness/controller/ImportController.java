@@ -0,0 +1,56 @@
+package com.project.fitness.controller;
+
+import com.project.fitness.dto.ImportJobResponse;
+import com.project.fitness.model.ActivityType;
+import com.project.fitness.service.ImportService;
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@RequestMapping("/api/imports")
+public class ImportController {
+  private final ImportService importService;
+
+  public ImportController(ImportService importService) {
+    this.importService = importService;
+  }
+
+  /**
+   * Start importing workouts from a CSV or GPX file: either a multipart {@code file}, or the
+   * {@code fileId} of an upload made through /api/files (use the resumable API for large files).
+   * Returns 202 with the queued job; poll GET /api/imports/{id} for progress.
+   * {@code activityType} is used for records that do not state one.
+   */
+  @PostMapping
+  public ResponseEntity<ImportJobResponse> startImport(
+      @RequestParam(value = "file", required = false) MultipartFile file,
+      @RequestParam(required = false) String fileId,
+      @RequestParam(required = false) String format,
+      @RequestParam(required = false) ActivityType activityType,
+      Authentication authentication) {
+    String userId = (String) authentication.getPrincipal();
+    return ResponseEntity.accepted().body(importService.startImport(userId, file, fileId, format, activityType));
+  }
+
+  @GetMapping("/{id}")
+  public ResponseEntity<ImportJobResponse> getImport(
+      @PathVariable String id,
+      Authentication authentication) {
+    String userId = (String) authentication.getPrincipal();
+    return ResponseEntity.ok(importService.getJob(id, userId));
+  }
+
+  @GetMapping
+  public ResponseEntity<List<ImportJobResponse>> getMyImports(Authentication authentication) {
+    String userId = (String) authentication.getPrincipal();
+    return ResponseEntity.ok(importService.getUserJobs(userId));
+  }
+}
@@ -2,6 +2,7 @@ package com.project.fitness.controller;
 
 import com.project.fitness.dto.RecommendationRequest;
 import com.project.fitness.dto.RecommendationResponse;
+import com.project.fitness.service.FieldSet;
 import com.project.fitness.service.RecommendationService;
 import jakarta.validation.Valid;
 import java.util.List;
@@ -22,14 +23,19 @@ public class RecommendationController {
     return ResponseEntity.ok(recommendationService.generateRecommendation(request));
   }
 
+  /** Lists take an optional {@code fields} parameter; leaving out the three lists skips their JSON columns. */
   @GetMapping("/user/{userId}")
-  public ResponseEntity<List<RecommendationResponse>> getByUser(@PathVariable String userId) {
-    return ResponseEntity.ok(recommendationService.getUserRecommendations(userId));
+  public ResponseEntity<List<RecommendationResponse>> getByUser(@PathVariable String userId,
+      @RequestParam(required = false) String fields) {
+    FieldSet fieldSet = FieldSet.parse(fields, RecommendationResponse.class);
+    return ResponseEntity.ok(recommendationService.getUserRecommendations(userId, fieldSet));
   }
 
   @GetMapping("/activity/{activityId}")
-  public ResponseEntity<List<RecommendationResponse>> getByActivity(@PathVariable String activityId) {
-    return ResponseEntity.ok(recommendationService.getActivityRecommendations(activityId));
+  public ResponseEntity<List<RecommendationResponse>> getByActivity(@PathVariable String activityId,
+      @RequestParam(required = false) String fields) {
+    FieldSet fieldSet = FieldSet.parse(fields, RecommendationResponse.class);
+    return ResponseEntity.ok(recommendationService.getActivityRecommendations(activityId, fieldSet));
   }
 
   @GetMapping("/{id}")
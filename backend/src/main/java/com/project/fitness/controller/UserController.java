@@ -1,5 +1,6 @@
 package com.project.fitness.controller;
 
+import com.project.fitness.config.CacheConfig;
 import com.project.fitness.dto.ChangePasswordRequest;
 import com.project.fitness.dto.UpdateProfileRequest;
 import com.project.fitness.dto.UserResponse;
@@ -8,13 +9,15 @@ import com.project.fitness.exceptions.ResourceNotFoundException;
 import com.project.fitness.exceptions.UnauthorizedException;
 import com.project.fitness.model.User;
 import com.project.fitness.repository.UserRepository;
+import com.project.fitness.security.PasswordHashingService;
 import com.project.fitness.service.UserService;
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.stream.Collectors;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -31,13 +34,13 @@ public class UserController {
 
   private final UserRepository userRepository;
   private final UserService userService;
-  private final PasswordEncoder passwordEncoder;
+  private final PasswordHashingService passwordHashing;
 
   public UserController(UserRepository userRepository, UserService userService,
-      PasswordEncoder passwordEncoder) {
+      PasswordHashingService passwordHashing) {
     this.userRepository = userRepository;
     this.userService = userService;
-    this.passwordEncoder = passwordEncoder;
+    this.passwordHashing = passwordHashing;
   }
 
   /**
@@ -93,12 +96,12 @@ public class UserController {
         .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
 
     // Verify current password
-    if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
+    if (!passwordHashing.matches(request.getCurrentPassword(), user.getPassword())) {
       throw new UnauthorizedException("Current password is incorrect");
     }
 
     // Update password
-    user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+    user.setPassword(passwordHashing.encode(request.getNewPassword()));
     userRepository.save(user);
 
     return ResponseEntity.ok().build();
@@ -115,10 +118,10 @@ public class UserController {
   }
 
   /**
-   * Search users
+   * Search users. Returns a slice ({@code last} tells whether another page exists), without a total count
    */
   @GetMapping("/search")
-  public ResponseEntity<org.springframework.data.domain.Page<UserResponse>> searchUsers(
+  public ResponseEntity<org.springframework.data.domain.Slice<UserResponse>> searchUsers(
       @RequestParam String query,
       @RequestParam(defaultValue = "0") int page,
       @RequestParam(defaultValue = "10") int size) {
@@ -141,6 +144,11 @@ public class UserController {
    * Delete user (Admin only)
    */
   @DeleteMapping("/{userId}")
+  @Caching(evict = {
+      @CacheEvict(cacheNames = {CacheConfig.USER_ACTIVITIES, CacheConfig.USER_ACTIVITIES_VERSION}, key = "#userId"),
+      @CacheEvict(cacheNames = {CacheConfig.USER_GOALS, CacheConfig.USER_GOALS_VERSION}, key = "#userId"),
+      @CacheEvict(cacheNames = CacheConfig.USER_MEASUREMENTS_VERSION, key = "#userId")
+  })
   public ResponseEntity<Void> deleteUser(@PathVariable String userId) {
     if (!userRepository.existsById(userId)) {
       throw new RuntimeException("User not found");
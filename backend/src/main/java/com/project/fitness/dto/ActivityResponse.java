@@ -41,6 +41,14 @@ public class ActivityResponse {
     this.updatedAt = updatedAt;
   }
 
+  /** Summary row of the list projections: everything except the additionalMetrics JSON. */
+  public ActivityResponse(String id, String userId, ActivityType type, Integer duration,
+      Integer caloriesBurned, LocalDateTime startTime, LocalDateTime date, Double distance,
+      String intensity, String notes, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    this(id, userId, type, null, duration, caloriesBurned, startTime, date, distance, intensity,
+        notes, createdAt, updatedAt);
+  }
+
   public String getId() {
     return id;
   }
@@ -0,0 +1,19 @@
+package com.project.fitness.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivitySearchCriteria {
+  private String type;
+  private String dateFrom; // ISO-8601 date-time, inclusive
+  private String dateTo;   // ISO-8601 date-time, inclusive
+  private String intensity;
+  private Double minDistance;
+  private Double maxDistance;
+  private Integer minDuration;
+  private Integer maxDuration;
+}
@@ -0,0 +1,20 @@
+package com.project.fitness.dto;
+
+import com.project.fitness.model.ActivityType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityStatsBucket {
+  private LocalDate periodStart; // the day, or the Monday of the week
+  private ActivityType type;
+  private Long activityCount;
+  private Long totalDuration; // minutes
+  private Long totalCalories;
+  private Double totalDistance; // km
+}
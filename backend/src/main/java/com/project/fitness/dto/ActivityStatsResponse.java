@@ -0,0 +1,23 @@
+package com.project.fitness.dto;
+
+import com.project.fitness.model.RollupPeriod;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityStatsResponse {
+  private RollupPeriod period;
+  private LocalDate from;
+  private LocalDate to;
+  private Long totalActivities;
+  private Long totalDuration;
+  private Long totalCalories;
+  private Double totalDistance;
+  private List<ActivityStatsBucket> buckets; // ascending by periodStart, one per (bucket, type)
+}
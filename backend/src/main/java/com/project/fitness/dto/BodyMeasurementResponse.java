@@ -22,6 +22,25 @@ public class BodyMeasurementResponse {
   private Double bmi;
   private Map<String, Double> measurements;
   private String photoUrl;
+  private String photoThumbnailUrl;
   private String notes;
   private LocalDateTime createdAt;
+
+  /** Row of the list projections; the photo URLs are derived from the progress photo's id. */
+  public BodyMeasurementResponse(String id, String userId, LocalDate measurementDate, Double weight,
+      Double height, Double bodyFat, Double muscleMass, Double bmi, Map<String, Double> measurements,
+      String photoId, String notes, LocalDateTime createdAt) {
+    this(id, userId, measurementDate, weight, height, bodyFat, muscleMass, bmi, measurements,
+        photoId != null ? "/api/files/" + photoId : null,
+        photoId != null ? "/api/files/" + photoId + "?size=thumbnail" : null,
+        notes, createdAt);
+  }
+
+  /** Summary row of the list projections: without the measurements JSON. */
+  public BodyMeasurementResponse(String id, String userId, LocalDate measurementDate, Double weight,
+      Double height, Double bodyFat, Double muscleMass, Double bmi, String photoId, String notes,
+      LocalDateTime createdAt) {
+    this(id, userId, measurementDate, weight, height, bodyFat, muscleMass, bmi, null, photoId, notes,
+        createdAt);
+  }
 }
@@ -0,0 +1,23 @@
+package com.project.fitness.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkActivityItemResult {
+
+  public enum Status {
+    CREATED,
+    DUPLICATE, // already stored (id of the existing activity when known); nothing written
+    INVALID, // rejected by validation or unparseable; nothing written
+    FAILED   // its batch could not be written
+  }
+
+  private int index; // 0-based position among the submitted items (blank NDJSON lines are not counted)
+  private Status status;
+  private String id;
+  private String error;
+}
@@ -0,0 +1,18 @@
+package com.project.fitness.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkActivityResponse {
+  private int received;
+  private int created;
+  private int duplicates;
+  private int rejected;
+  private List<BulkActivityItemResult> items; // in submission order
+}
@@ -0,0 +1,15 @@
+package com.project.fitness.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+  private List<T> items;
+  private String nextCursor; // opaque; pass back as ?cursor= to fetch the next page, null on the last page
+  private boolean hasMore;
+}
@@ -29,4 +29,20 @@ public class GoalResponse {
   private List<MilestoneResponse> milestones;
   private LocalDateTime createdAt;
   private LocalDateTime updatedAt;
+
+  /** Row of the list projections; milestones are attached afterwards. */
+  public GoalResponse(String id, String userId, String title, String description, GoalType type,
+      Double targetValue, Double currentValue, String unit, LocalDate startDate, LocalDate deadline,
+      GoalStatus status, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    this(id, userId, title, description, type, targetValue, currentValue, unit, startDate, deadline,
+        status, progressOf(targetValue, currentValue), null, createdAt, updatedAt);
+  }
+
+  /** Percentage of the target reached, capped at 100. */
+  public static Double progressOf(Double targetValue, Double currentValue) {
+    if (targetValue == null || targetValue <= 0) {
+      return 0.0;
+    }
+    return Math.min((currentValue / targetValue) * 100, 100.0);
+  }
 }
@@ -0,0 +1,32 @@
+package com.project.fitness.dto;
+
+import com.project.fitness.model.ImportFormat;
+import com.project.fitness.model.ImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobResponse {
+  private String id;
+  private String fileId;
+  private String fileName;
+  private ImportFormat format;
+  private ImportStatus status;
+  private Long totalBytes;
+  private Long bytesRead;
+  private Double progressPercentage;
+  private Long recordsRead;
+  private Long created;
+  private Long duplicates;
+  private Long rejected;
+  private List<String> errors; // sample of rejected records
+  private LocalDateTime startedAt;
+  private LocalDateTime finishedAt;
+  private LocalDateTime createdAt;
+}
@@ -19,4 +19,10 @@ public class RecommendationResponse {
   private List<String> safety;
   private LocalDateTime createdAt;
   private LocalDateTime updatedAt;
+
+  /** Summary row of the list projections: without the improvements, suggestions and safety JSON. */
+  public RecommendationResponse(String id, String userId, String activityId, String type,
+      String recommendation, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    this(id, userId, activityId, type, recommendation, null, null, null, createdAt, updatedAt);
+  }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.project.fitness.dto;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Server-side view of an upload for streaming; never serialized to clients
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredFile {
+  private String id;
+  private String fileName;
+  private String fileType;
+  private Long fileSize;
+  private Path path;
+  private LocalDateTime uploadedAt;
+  private String variant; // null when the original is served
+}
@@ -0,0 +1,27 @@
+package com.project.fitness.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionRequest {
+  @NotBlank(message = "File name is required")
+  private String fileName;
+
+  @NotBlank(message = "File type is required")
+  private String fileType;
+
+  @NotNull(message = "Total size is required")
+  @Min(value = 1, message = "Total size must be at least 1 byte")
+  private Long totalSize;
+
+  @Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "Checksum must be a hex SHA-256 digest")
+  private String checksum;
+}
@@ -0,0 +1,19 @@
+package com.project.fitness.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionResponse {
+  private String id;
+  private String fileName;
+  private String fileType;
+  private Long totalSize;
+  private Long receivedBytes; // next chunk must start at this offset
+  private LocalDateTime createdAt;
+}
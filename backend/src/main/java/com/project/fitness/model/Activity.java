@@ -1,5 +1,6 @@
 package com.project.fitness.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -8,21 +9,42 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.type.SqlTypes;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(indexes = {
+    // Keyset pagination seek on (createdAt, id)
+    @Index(name = "idx_activity_user_created_at", columnList = "user_id, createdAt, id")
+}, uniqueConstraints = {
+    // Natural key of a workout: rejects replayed submissions. Its (user_id, start_time) prefix also
+    // serves per-user date-range searches and ordering by start time. Rows without a start time are
+    // not deduplicated (NULLs never collide). Older databases holding duplicates can't get it from the
+    // schema update; see ActivityDuplicateCleanup.
+    @UniqueConstraint(name = "uk_activity_natural_key",
+        columnNames = {"user_id", "startTime", "type", "duration"}),
+    @UniqueConstraint(name = "uk_activity_user_idempotency_key",
+        columnNames = {"user_id", "idempotencyKey"})
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -52,12 +74,29 @@ public class Activity {
   // Additional fields to match frontend
   private LocalDateTime date;
   private Double distance; // in km
-  private String intensity; // LOW, MEDIUM, HIGH
+  private String intensity; // LOW, MEDIUM, HIGH; stored through normalizeIntensity
   private String notes;
 
-  @CreationTimestamp
+  // Client-supplied Idempotency-Key of the request that created this row, if any
+  @Column(length = 128)
+  private String idempotencyKey;
+
+  // Stamped on insert unless the writer set it already (ActivityService.toEntity does, so the rollup
+  // buckets created before the insert and the row agree on the day)
   private LocalDateTime createdAt;
 
   @UpdateTimestamp
   private LocalDateTime updatedAt;
+
+  @PrePersist
+  void stampCreatedAt() {
+    if (createdAt == null) {
+      createdAt = LocalDateTime.now();
+    }
+  }
+
+  /** Stored form of an intensity: trimmed and upper case, so searches compare with plain equality. */
+  public static String normalizeIntensity(String intensity) {
+    return intensity == null || intensity.isBlank() ? null : intensity.trim().toUpperCase(Locale.ROOT);
+  }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.project.fitness.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated activity totals per user, activity type and day/week bucket. Maintained
+ * incrementally when activities are recorded; {@code ActivityRollupService.rebuild} recomputes it.
+ */
+@Entity
+@Table(name = "activity_rollups", uniqueConstraints = {
+    // One row per bucket; leading (user, period, periodStart) also serves the stats range scan
+    @UniqueConstraint(name = "uk_activity_rollup_bucket",
+        columnNames = {"user_id", "rollup_period", "period_start", "activity_type"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActivityRollup {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  private String id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "user_id", nullable = false)
+  private User user;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "activity_type", nullable = false)
+  private ActivityType activityType;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "rollup_period", nullable = false, length = 8)
+  private RollupPeriod period;
+
+  @Column(name = "period_start", nullable = false)
+  private LocalDate periodStart;
+
+  @Column(nullable = false)
+  @Builder.Default
+  private Long activityCount = 0L;
+
+  @Column(nullable = false)
+  @Builder.Default
+  private Long totalDuration = 0L; // minutes
+
+  @Column(nullable = false)
+  @Builder.Default
+  private Long totalCalories = 0L;
+
+  @Column(nullable = false)
+  @Builder.Default
+  private Double totalDistance = 0.0; // km
+
+  @UpdateTimestamp
+  private LocalDateTime updatedAt;
+}
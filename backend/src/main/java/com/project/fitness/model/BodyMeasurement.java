@@ -11,7 +11,9 @@ import java.time.LocalDateTime;
 import java.util.Map;
 
 @Entity
-@Table(name = "body_measurements")
+@Table(name = "body_measurements", indexes = {
+    @Index(name = "idx_measurement_user_date", columnList = "user_id, measurementDate, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
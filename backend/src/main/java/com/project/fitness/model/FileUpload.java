@@ -7,7 +7,11 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "file_uploads")
+@Table(name = "file_uploads", indexes = {
+    @Index(name = "idx_file_upload_user_uploaded_at", columnList = "user_id, uploadedAt, id"),
+    // Reference counting of shared content-addressed blobs
+    @Index(name = "idx_file_upload_path", columnList = "filePath")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -35,6 +39,9 @@ public class FileUpload {
   @Column(nullable = false)
   private Long fileSize;
 
+  @Column(length = 64)
+  private String contentHash; // SHA-256 (hex) of the stored bytes, null for legacy uploads
+
   @CreationTimestamp
   private LocalDateTime uploadedAt;
 }
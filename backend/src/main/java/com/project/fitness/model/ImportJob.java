@@ -0,0 +1,76 @@
+package com.project.fitness.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A background import of historical workouts from an uploaded CSV or GPX file, with progress counters.
+ */
+@Entity
+@Table(name = "import_jobs", indexes = {
+    @Index(name = "idx_import_job_user_created_at", columnList = "user_id, createdAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJob {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  private String id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "user_id", nullable = false)
+  private User user;
+
+  // Plain id rather than a relation, so deleting the upload later never conflicts with the job history
+  @Column(nullable = false)
+  private String fileId;
+
+  private String fileName;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private ImportFormat format;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  @Builder.Default
+  private ImportStatus status = ImportStatus.QUEUED;
+
+  private Long totalBytes;
+
+  @Builder.Default
+  private Long bytesRead = 0L;
+
+  @Builder.Default
+  private Long recordsRead = 0L;
+
+  @Builder.Default
+  private Long created = 0L;
+
+  @Builder.Default
+  private Long duplicates = 0L;
+
+  @Builder.Default
+  private Long rejected = 0L;
+
+  // First few per-record problems ("record 12: Duration is required"), newline separated
+  @Column(length = 2000)
+  private String errors;
+
+  private LocalDateTime startedAt;
+  private LocalDateTime finishedAt;
+
+  @CreationTimestamp
+  private LocalDateTime createdAt;
+
+  @UpdateTimestamp
+  private LocalDateTime updatedAt;
+}
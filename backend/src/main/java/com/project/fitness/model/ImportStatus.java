@@ -0,0 +1,8 @@
+package com.project.fitness.model;
+
+public enum ImportStatus {
+  QUEUED,
+  RUNNING,
+  COMPLETED,
+  FAILED
+}
@@ -0,0 +1,6 @@
+package com.project.fitness.model;
+
+public enum RollupPeriod {
+  DAY,
+  WEEK // ISO weeks, starting Monday
+}
@@ -0,0 +1,57 @@
+package com.project.fitness.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "upload_sessions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSession {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  private String id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "user_id", nullable = false)
+  private User user;
+
+  @Column(nullable = false)
+  private String fileName;
+
+  @Column(nullable = false)
+  private String fileType;
+
+  @Column(nullable = false)
+  private Long totalSize;
+
+  @Column(nullable = false)
+  @Builder.Default
+  private Long receivedBytes = 0L;
+
+  @Column(length = 64)
+  private String expectedChecksum; // optional SHA-256 (hex) supplied by the client
+
+  @Column(nullable = false)
+  private String tempPath;
+
+  private String fileId; // set once completed; the session is kept until it expires
+
+  // Backstop to the temp file lock: a stale copy of the session can never move the offset back
+  @Version
+  private Long version;
+
+  @CreationTimestamp
+  private LocalDateTime createdAt;
+
+  @UpdateTimestamp
+  private LocalDateTime updatedAt;
+}
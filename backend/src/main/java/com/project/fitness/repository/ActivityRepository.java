@@ -1,13 +1,102 @@
 package com.project.fitness.repository;
 
+import com.project.fitness.dto.ActivityResponse;
 import com.project.fitness.model.Activity;
+import com.project.fitness.model.ActivityType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ActivityRepository extends JpaRepository<Activity, String> {
+public interface ActivityRepository extends JpaRepository<Activity, String>,
+    JpaSpecificationExecutor<Activity> {
 
   // Property traversal: Activity.user.id
   List<Activity> findByUser_Id(String userId);
+
+  // Rows written before intensity was normalized on write (see Activity.normalizeIntensity)
+  @Modifying
+  @Query("UPDATE Activity a SET a.intensity = NULLIF(UPPER(TRIM(a.intensity)), '') "
+      + "WHERE a.intensity <> UPPER(TRIM(a.intensity)) OR a.intensity = ''")
+  int normalizeIntensities();
+
+  // List projections: rows go straight into ActivityResponse, no entities in the persistence context.
+  // The *Summaries variants leave out the additionalMetrics JSON (?fields= without it).
+  String RESPONSE = "SELECT new com.project.fitness.dto.ActivityResponse(a.id, a.user.id, a.type, "
+      + "a.additionalMetrics, a.duration, a.caloriesBurned, a.startTime, a.date, a.distance, a.intensity, "
+      + "a.notes, a.createdAt, a.updatedAt) FROM Activity a ";
+  String SUMMARY = "SELECT new com.project.fitness.dto.ActivityResponse(a.id, a.user.id, a.type, "
+      + "a.duration, a.caloriesBurned, a.startTime, a.date, a.distance, a.intensity, "
+      + "a.notes, a.createdAt, a.updatedAt) FROM Activity a ";
+  String BY_USER = "WHERE a.user.id = :userId";
+  // Keyset pagination: first page, then seek past (createdAt, id) of the previous page's last row
+  String FIRST_PAGE = "WHERE a.user.id = :userId ORDER BY a.createdAt DESC, a.id DESC";
+  String PAGE_AFTER = "WHERE a.user.id = :userId "
+      + "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) "
+      + "ORDER BY a.createdAt DESC, a.id DESC";
+
+  @Query(RESPONSE + BY_USER)
+  List<ActivityResponse> findResponsesByUserId(@Param("userId") String userId);
+
+  @Query(SUMMARY + BY_USER)
+  List<ActivityResponse> findSummariesByUserId(@Param("userId") String userId);
+
+  @Query(RESPONSE + FIRST_PAGE)
+  List<ActivityResponse> findResponsePage(@Param("userId") String userId, Limit limit);
+
+  @Query(SUMMARY + FIRST_PAGE)
+  List<ActivityResponse> findSummaryPage(@Param("userId") String userId, Limit limit);
+
+  @Query(RESPONSE + PAGE_AFTER)
+  List<ActivityResponse> findResponsePageAfter(@Param("userId") String userId,
+      @Param("createdAt") LocalDateTime createdAt, @Param("id") String id, Limit limit);
+
+  @Query(SUMMARY + PAGE_AFTER)
+  List<ActivityResponse> findSummaryPageAfter(@Param("userId") String userId,
+      @Param("createdAt") LocalDateTime createdAt, @Param("id") String id, Limit limit);
+
+  // Duplicate detection: lookups behind the idempotency-key and natural-key unique constraints
+  Optional<Activity> findByUser_IdAndIdempotencyKey(String userId, String idempotencyKey);
+
+  Optional<Activity> findByUser_IdAndTypeAndStartTimeAndDuration(String userId, ActivityType type,
+      LocalDateTime startTime, Integer duration);
+
+  // Batch dedup: key columns only, no entity hydration
+  @Query("SELECT a.id, a.idempotencyKey FROM Activity a "
+      + "WHERE a.user.id = :userId AND a.idempotencyKey IN :keys")
+  List<Object[]> findIdsByIdempotencyKeys(@Param("userId") String userId, @Param("keys") Collection<String> keys);
+
+  @Query("SELECT a.id, a.type, a.startTime, a.duration FROM Activity a "
+      + "WHERE a.user.id = :userId AND a.startTime IN :startTimes")
+  List<Object[]> findNaturalKeysByStartTimes(@Param("userId") String userId,
+      @Param("startTimes") Collection<LocalDateTime> startTimes);
+
+  // Natural keys held by more than one row: only possible in data from before uk_activity_natural_key
+  @Query("SELECT a.user.id, a.type, a.startTime, a.duration FROM Activity a "
+      + "WHERE a.type IS NOT NULL AND a.startTime IS NOT NULL AND a.duration IS NOT NULL "
+      + "GROUP BY a.user.id, a.type, a.startTime, a.duration HAVING COUNT(a) > 1")
+  List<Object[]> findDuplicateNaturalKeys();
+
+  List<Activity> findByUser_IdAndTypeAndStartTimeAndDurationOrderByCreatedAtAscIdAsc(String userId,
+      ActivityType type, LocalDateTime startTime, Integer duration);
+
+  // Export: server-side cursor (fetch size applies inside a transaction); read-only skips dirty-check snapshots
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT a FROM Activity a WHERE a.user.id = :userId ORDER BY a.createdAt, a.id")
+  Stream<Activity> streamByUserId(@Param("userId") String userId);
 }
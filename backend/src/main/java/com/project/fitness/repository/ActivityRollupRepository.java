@@ -0,0 +1,40 @@
+package com.project.fitness.repository;
+
+import com.project.fitness.model.ActivityRollup;
+import com.project.fitness.model.ActivityType;
+import com.project.fitness.model.RollupPeriod;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ActivityRollupRepository extends JpaRepository<ActivityRollup, String> {
+
+  List<ActivityRollup> findByUser_IdAndPeriodAndPeriodStartBetweenOrderByPeriodStartAsc(
+      String userId, RollupPeriod period, LocalDate from, LocalDate to);
+
+  List<ActivityRollup> findByUser_IdAndPeriodStartIn(String userId, Collection<LocalDate> periodStarts);
+
+  // In-place increment so concurrent writers to the same bucket never lose updates
+  @Modifying
+  @Query("UPDATE ActivityRollup r SET r.activityCount = r.activityCount + :count, "
+      + "r.totalDuration = r.totalDuration + :duration, "
+      + "r.totalCalories = r.totalCalories + :calories, "
+      + "r.totalDistance = r.totalDistance + :distance, "
+      + "r.updatedAt = CURRENT_TIMESTAMP "
+      + "WHERE r.user.id = :userId AND r.activityType = :type "
+      + "AND r.period = :period AND r.periodStart = :periodStart")
+  int increment(@Param("userId") String userId, @Param("type") ActivityType type,
+      @Param("period") RollupPeriod period, @Param("periodStart") LocalDate periodStart,
+      @Param("count") long count, @Param("duration") long duration,
+      @Param("calories") long calories, @Param("distance") double distance);
+
+  @Modifying
+  @Query("DELETE FROM ActivityRollup r WHERE r.user.id = :userId")
+  int deleteByUserId(@Param("userId") String userId);
+}
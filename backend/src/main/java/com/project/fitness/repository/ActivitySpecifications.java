@@ -0,0 +1,65 @@
+package com.project.fitness.repository;
+
+import com.project.fitness.model.Activity;
+import com.project.fitness.model.ActivityType;
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Composable predicates for {@link ActivityRepository} searches.
+ * Each factory returns {@code null} when its bound is absent so callers can chain them freely.
+ */
+public final class ActivitySpecifications {
+
+  private ActivitySpecifications() {
+  }
+
+  public static Specification<Activity> belongsTo(String userId) {
+    return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+  }
+
+  public static Specification<Activity> hasType(ActivityType type) {
+    return type == null ? null : (root, query, cb) -> cb.equal(root.get("type"), type);
+  }
+
+  public static Specification<Activity> startedOnOrAfter(LocalDateTime from) {
+    return from == null ? null
+        : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("startTime"), from);
+  }
+
+  public static Specification<Activity> startedOnOrBefore(LocalDateTime to) {
+    return to == null ? null
+        : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("startTime"), to);
+  }
+
+  // Plain equality on the stored (normalized) value; UPPER(column) would keep an index from being used
+  public static Specification<Activity> hasIntensity(String intensity) {
+    String normalized = Activity.normalizeIntensity(intensity);
+    return normalized == null ? null
+        : (root, query, cb) -> cb.equal(root.get("intensity"), normalized);
+  }
+
+  public static Specification<Activity> distanceBetween(Double min, Double max) {
+    return between("distance", min, max);
+  }
+
+  public static Specification<Activity> durationBetween(Integer min, Integer max) {
+    return between("duration", min, max);
+  }
+
+  private static <T extends Comparable<? super T>> Specification<Activity> between(
+      String attribute, T min, T max) {
+    if (min == null && max == null) {
+      return null;
+    }
+    return (root, query, cb) -> {
+      if (min == null) {
+        return cb.lessThanOrEqualTo(root.get(attribute), max);
+      }
+      if (max == null) {
+        return cb.greaterThanOrEqualTo(root.get(attribute), min);
+      }
+      return cb.between(root.get(attribute), min, max);
+    };
+  }
+}
@@ -1,15 +1,72 @@
 package com.project.fitness.repository;
 
+import com.project.fitness.dto.BodyMeasurementResponse;
 import com.project.fitness.model.BodyMeasurement;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BodyMeasurementRepository extends JpaRepository<BodyMeasurement, String> {
-  List<BodyMeasurement> findByUser_IdOrderByMeasurementDateDesc(String userId);
-  List<BodyMeasurement> findByUser_IdAndMeasurementDateBetween(
-      String userId, LocalDate startDate, LocalDate endDate);
+  // List projections straight into BodyMeasurementResponse; the *Summaries variants leave out the
+  // measurements JSON (?fields= without it)
+  String RESPONSE = "SELECT new com.project.fitness.dto.BodyMeasurementResponse(m.id, m.user.id, "
+      + "m.measurementDate, m.weight, m.height, m.bodyFat, m.muscleMass, m.bmi, m.measurements, "
+      + "m.progressPhoto.id, m.notes, m.createdAt) FROM BodyMeasurement m ";
+  String SUMMARY = "SELECT new com.project.fitness.dto.BodyMeasurementResponse(m.id, m.user.id, "
+      + "m.measurementDate, m.weight, m.height, m.bodyFat, m.muscleMass, m.bmi, "
+      + "m.progressPhoto.id, m.notes, m.createdAt) FROM BodyMeasurement m ";
+  String BY_USER = "WHERE m.user.id = :userId ORDER BY m.measurementDate DESC";
+  String IN_RANGE = "WHERE m.user.id = :userId AND m.measurementDate BETWEEN :startDate AND :endDate";
+  // Keyset pagination on (measurementDate, id)
+  String FIRST_PAGE = "WHERE m.user.id = :userId ORDER BY m.measurementDate DESC, m.id DESC";
+  String PAGE_AFTER = "WHERE m.user.id = :userId "
+      + "AND (m.measurementDate < :measurementDate "
+      + "OR (m.measurementDate = :measurementDate AND m.id < :id)) "
+      + "ORDER BY m.measurementDate DESC, m.id DESC";
+
+  @Query(RESPONSE + BY_USER)
+  List<BodyMeasurementResponse> findResponsesByUserId(@Param("userId") String userId);
+
+  @Query(SUMMARY + BY_USER)
+  List<BodyMeasurementResponse> findSummariesByUserId(@Param("userId") String userId);
+
+  @Query(RESPONSE + IN_RANGE)
+  List<BodyMeasurementResponse> findResponsesInRange(@Param("userId") String userId,
+      @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+  @Query(SUMMARY + IN_RANGE)
+  List<BodyMeasurementResponse> findSummariesInRange(@Param("userId") String userId,
+      @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+  @Query(RESPONSE + FIRST_PAGE)
+  List<BodyMeasurementResponse> findResponsePage(@Param("userId") String userId, Limit limit);
+
+  @Query(SUMMARY + FIRST_PAGE)
+  List<BodyMeasurementResponse> findSummaryPage(@Param("userId") String userId, Limit limit);
+
+  @Query(RESPONSE + PAGE_AFTER)
+  List<BodyMeasurementResponse> findResponsePageAfter(@Param("userId") String userId,
+      @Param("measurementDate") LocalDate measurementDate, @Param("id") String id, Limit limit);
+
+  @Query(SUMMARY + PAGE_AFTER)
+  List<BodyMeasurementResponse> findSummaryPageAfter(@Param("userId") String userId,
+      @Param("measurementDate") LocalDate measurementDate, @Param("id") String id, Limit limit);
+
+  // Export: server-side cursor (fetch size applies inside a transaction); read-only skips dirty-check snapshots
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT m FROM BodyMeasurement m WHERE m.user.id = :userId ORDER BY m.measurementDate, m.id")
+  Stream<BodyMeasurement> streamByUserId(@Param("userId") String userId);
 }
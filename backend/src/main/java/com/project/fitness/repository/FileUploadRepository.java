@@ -1,13 +1,27 @@
 package com.project.fitness.repository;
 
 import com.project.fitness.model.FileUpload;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface FileUploadRepository extends JpaRepository<FileUpload, String> {
   List<FileUpload> findByUser_Id(String userId);
   List<FileUpload> findByUser_IdAndFileType(String userId, String fileType);
+  boolean existsByFilePath(String filePath);
+
+  // Keyset pagination on (uploadedAt, id)
+  List<FileUpload> findByUser_IdOrderByUploadedAtDescIdDesc(String userId, Limit limit);
+
+  @Query("SELECT f FROM FileUpload f WHERE f.user.id = :userId "
+      + "AND (f.uploadedAt < :uploadedAt OR (f.uploadedAt = :uploadedAt AND f.id < :id)) "
+      + "ORDER BY f.uploadedAt DESC, f.id DESC")
+  List<FileUpload> findPageAfter(@Param("userId") String userId,
+      @Param("uploadedAt") LocalDateTime uploadedAt, @Param("id") String id, Limit limit);
 }
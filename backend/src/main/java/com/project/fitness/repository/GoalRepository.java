@@ -1,15 +1,60 @@
 package com.project.fitness.repository;
 
+import com.project.fitness.dto.GoalResponse;
 import com.project.fitness.model.Goal;
 import com.project.fitness.model.GoalStatus;
+import com.project.fitness.model.GoalType;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface GoalRepository extends JpaRepository<Goal, String> {
   List<Goal> findByUser_Id(String userId);
   List<Goal> findByUser_IdAndStatus(String userId, GoalStatus status);
-  List<Goal> findByUser_IdOrderByCreatedAtDesc(String userId);
+
+  // List projections straight into GoalResponse (milestones are attached by the service)
+  String RESPONSE = "SELECT new com.project.fitness.dto.GoalResponse(g.id, g.user.id, g.title, g.description, "
+      + "g.type, g.targetValue, g.currentValue, g.unit, g.startDate, g.deadline, g.status, g.createdAt, "
+      + "g.updatedAt) FROM Goal g ";
+
+  @Query(RESPONSE + "WHERE g.user.id = :userId ORDER BY g.createdAt DESC")
+  List<GoalResponse> findResponsesByUserId(@Param("userId") String userId);
+
+  // Keyset pagination on (createdAt, id)
+  @Query(RESPONSE + "WHERE g.user.id = :userId ORDER BY g.createdAt DESC, g.id DESC")
+  List<GoalResponse> findResponsePage(@Param("userId") String userId, Limit limit);
+
+  @Query(RESPONSE + "WHERE g.user.id = :userId "
+      + "AND (g.createdAt < :createdAt OR (g.createdAt = :createdAt AND g.id < :id)) "
+      + "ORDER BY g.createdAt DESC, g.id DESC")
+  List<GoalResponse> findResponsePageAfter(@Param("userId") String userId,
+      @Param("createdAt") LocalDateTime createdAt, @Param("id") String id, Limit limit);
+
+  // Goals an activity can advance; locked so concurrent activities of the same user add up
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT g FROM Goal g WHERE g.user.id = :userId AND g.status = :status AND g.type IN :types "
+      + "ORDER BY g.id")
+  List<Goal> findForProgressUpdate(@Param("userId") String userId, @Param("status") GoalStatus status,
+      @Param("types") Collection<GoalType> types);
+
+  // Export: server-side cursor (fetch size applies inside a transaction); read-only skips dirty-check snapshots
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT g FROM Goal g WHERE g.user.id = :userId ORDER BY g.createdAt, g.id")
+  Stream<Goal> streamByUserId(@Param("userId") String userId);
 }
@@ -0,0 +1,18 @@
+package com.project.fitness.repository;
+
+import com.project.fitness.model.ImportJob;
+import com.project.fitness.model.ImportStatus;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+  List<ImportJob> findByUser_IdOrderByCreatedAtDesc(String userId, Limit limit);
+
+  boolean existsByUser_IdAndStatusIn(String userId, Collection<ImportStatus> statuses);
+
+  List<ImportJob> findByStatusIn(Collection<ImportStatus> statuses);
+}
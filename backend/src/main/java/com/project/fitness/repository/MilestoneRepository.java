@@ -1,13 +1,24 @@
 package com.project.fitness.repository;
 
 import com.project.fitness.model.Milestone;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MilestoneRepository extends JpaRepository<Milestone, String> {
   List<Milestone> findByGoal_Id(String goalId);
   List<Milestone> findByGoal_IdOrderByTargetValueAsc(String goalId);
+
+  // Batched load for list endpoints: one IN (...) query instead of one query per goal
+  List<Milestone> findByGoal_IdInOrderByTargetValueAsc(Collection<String> goalIds);
+
+  List<Milestone> findByGoal_IdInAndAchievedFalseOrderByTargetValueAsc(Collection<String> goalIds);
+
+  @EntityGraph(attributePaths = "goal")
+  Optional<Milestone> findWithGoalById(String id);
 }
@@ -1,11 +1,40 @@
 package com.project.fitness.repository;
 
+import com.project.fitness.dto.RecommendationResponse;
+import com.project.fitness.model.Activity;
 import com.project.fitness.model.Recommendation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 
 public interface RecommendationRepository extends JpaRepository<Recommendation, String> {
-  // Property traversal: Recommendation.user.id / Recommendation.activity.id
-  List<Recommendation> findByUser_IdOrderByCreatedAtDesc(String userId);
-  List<Recommendation> findByActivity_IdOrderByCreatedAtDesc(String activityId);
-}
\ No newline at end of file
+  // List projections straight into RecommendationResponse; the *Summaries variants leave out the
+  // improvements/suggestions/safety JSON (?fields= without any of them)
+  String RESPONSE = "SELECT new com.project.fitness.dto.RecommendationResponse(r.id, r.user.id, r.activity.id, "
+      + "r.type, r.recommendation, r.improvements, r.suggestions, r.safety, r.createdAt, r.updatedAt) "
+      + "FROM Recommendation r ";
+  String SUMMARY = "SELECT new com.project.fitness.dto.RecommendationResponse(r.id, r.user.id, r.activity.id, "
+      + "r.type, r.recommendation, r.createdAt, r.updatedAt) FROM Recommendation r ";
+  String BY_USER = "WHERE r.user.id = :userId ORDER BY r.createdAt DESC";
+  String BY_ACTIVITY = "WHERE r.activity.id = :activityId ORDER BY r.createdAt DESC";
+
+  @Query(RESPONSE + BY_USER)
+  List<RecommendationResponse> findResponsesByUserId(@Param("userId") String userId);
+
+  @Query(SUMMARY + BY_USER)
+  List<RecommendationResponse> findSummariesByUserId(@Param("userId") String userId);
+
+  @Query(RESPONSE + BY_ACTIVITY)
+  List<RecommendationResponse> findResponsesByActivityId(@Param("activityId") String activityId);
+
+  @Query(SUMMARY + BY_ACTIVITY)
+  List<RecommendationResponse> findSummariesByActivityId(@Param("activityId") String activityId);
+
+  // Duplicate cleanup: move recommendations to the activity that is kept
+  @Modifying
+  @Query("UPDATE Recommendation r SET r.activity = :kept WHERE r.activity IN :duplicates")
+  int reassignActivity(@Param("duplicates") Collection<Activity> duplicates, @Param("kept") Activity kept);
+}
@@ -1,7 +1,14 @@
 package com.project.fitness.repository;
 
 import com.project.fitness.model.User;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -9,10 +16,17 @@ public interface UserRepository extends JpaRepository<User,String> {
 
   User findByEmail(String email);
 
-  @org.springframework.data.jpa.repository.Query("SELECT u FROM User u WHERE " +
-      "LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-      "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-      "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :query, '%'))")
-  org.springframework.data.domain.Page<User> searchUsers(@org.springframework.data.repository.query.Param("query") String query, org.springframework.data.domain.Pageable pageable);
-}
+  // Row lock that serialises per-user check-then-insert sequences, such as "one active import"
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT u FROM User u WHERE u.id = :id")
+  Optional<User> findForUpdate(@Param("id") String id);
 
+  // LIKE on LOWER(column) matches the pg_trgm expression indexes (see UserSearchIndexInitializer).
+  // A Slice fetches one extra row to detect the next page instead of running a COUNT.
+  @Query("SELECT u FROM User u WHERE "
+      + "LOWER(u.email) LIKE :pattern ESCAPE '!' OR "
+      + "LOWER(u.firstName) LIKE :pattern ESCAPE '!' OR "
+      + "LOWER(u.lastName) LIKE :pattern ESCAPE '!' "
+      + "ORDER BY u.email")
+  Slice<User> searchUsers(@Param("pattern") String pattern, Pageable pageable);
+}
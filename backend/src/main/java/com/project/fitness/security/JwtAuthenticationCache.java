@@ -0,0 +1,85 @@
+package com.project.fitness.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of already-verified tokens, keyed by the SHA-256 of the token so raw tokens are never
+ * held in memory. Entries expire together with the token they were built from.
+ */
+@Component
+public class JwtAuthenticationCache {
+
+  public record VerifiedToken(String userId, List<SimpleGrantedAuthority> authorities, long expiresAtMillis) {
+  }
+
+  private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+  private final int maxEntries;
+
+  public JwtAuthenticationCache(@Value("${jwt.cache.max-entries:10000}") int maxEntries) {
+    this.maxEntries = maxEntries;
+  }
+
+  public VerifiedToken get(String token) {
+    if (maxEntries <= 0) {
+      return null;
+    }
+    String key = hash(token);
+    VerifiedToken cached = entries.get(key);
+    if (cached == null) {
+      return null;
+    }
+    if (cached.expiresAtMillis() <= System.currentTimeMillis()) {
+      entries.remove(key, cached);
+      return null;
+    }
+    return cached;
+  }
+
+  public void put(String token, VerifiedToken verified) {
+    if (maxEntries <= 0) {
+      return;
+    }
+    if (entries.size() >= maxEntries) {
+      evict();
+    }
+    entries.put(hash(token), verified);
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  // Drop expired entries first; if the cache is still full, shed an arbitrary tenth of it
+  private void evict() {
+    long now = System.currentTimeMillis();
+    entries.values().removeIf(v -> v.expiresAtMillis() <= now);
+    if (entries.size() < maxEntries) {
+      return;
+    }
+    int excess = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+    Iterator<String> keys = entries.keySet().iterator();
+    while (excess-- > 0 && keys.hasNext()) {
+      keys.next();
+      keys.remove();
+    }
+  }
+
+  private static String hash(String token) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+}
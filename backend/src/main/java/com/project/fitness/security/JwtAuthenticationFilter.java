@@ -1,6 +1,7 @@
 package com.project.fitness.security;
 
 import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,6 +9,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -21,6 +23,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
   private final JwtUtils jwtUtils;
+  private final JwtAuthenticationCache authenticationCache;
+  private final MeterRegistry meterRegistry;
 
   @Override
   protected void doFilterInternal(
@@ -31,30 +35,55 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     String jwt = jwtUtils.getJwtFromHeader(request);
 
-    if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
+    if (jwt != null) {
+      long started = System.nanoTime();
+      JwtAuthenticationCache.VerifiedToken verified = authenticationCache.get(jwt);
+      String result = "cached";
+      if (verified == null) {
+        verified = verify(jwt);
+        result = verified != null ? "verified" : "rejected";
+      }
+      meterRegistry.timer("auth.jwt.verify", "result", result)
+          .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
 
-      Claims claims = jwtUtils.getAllClaims(jwt);
-      String userId = jwtUtils.getUserIdFromToken(jwt);
+      if (verified != null) {
+        UsernamePasswordAuthenticationToken authentication =
+            new UsernamePasswordAuthenticationToken(verified.userId(), null, verified.authorities());
 
-      Object rolesObj = claims.get("roles");
-      List<String> roles = rolesObj instanceof List<?> list
-          ? list.stream().map(String::valueOf).toList()
-          : Collections.emptyList();
+        authentication.setDetails(
+            new WebAuthenticationDetailsSource().buildDetails(request)
+        );
 
-      List<SimpleGrantedAuthority> authorities = roles.stream()
-          .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-          .toList();
-
-      UsernamePasswordAuthenticationToken authentication =
-          new UsernamePasswordAuthenticationToken(userId, null, authorities);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+      }
+    }
 
-      authentication.setDetails(
-          new WebAuthenticationDetailsSource().buildDetails(request)
-      );
+    filterChain.doFilter(request, response);
+  }
 
-      SecurityContextHolder.getContext().setAuthentication(authentication);
+  // Single signature check; the result is cached until the token expires
+  private JwtAuthenticationCache.VerifiedToken verify(String jwt) {
+    Claims claims = jwtUtils.parseVerifiedClaims(jwt);
+    if (claims == null) {
+      return null;
     }
 
-    filterChain.doFilter(request, response);
+    Object rolesObj = claims.get("roles");
+    List<String> roles = rolesObj instanceof List<?> list
+        ? list.stream().map(String::valueOf).toList()
+        : Collections.emptyList();
+
+    List<SimpleGrantedAuthority> authorities = roles.stream()
+        .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+        .toList();
+
+    if (claims.getExpiration() == null) {
+      // Never cache a token that does not expire
+      return new JwtAuthenticationCache.VerifiedToken(claims.getSubject(), authorities, Long.MAX_VALUE);
+    }
+    JwtAuthenticationCache.VerifiedToken verified = new JwtAuthenticationCache.VerifiedToken(
+        claims.getSubject(), authorities, claims.getExpiration().getTime());
+    authenticationCache.put(jwt, verified);
+    return verified;
   }
 }
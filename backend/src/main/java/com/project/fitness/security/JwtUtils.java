@@ -1,9 +1,12 @@
 package com.project.fitness.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.Date;
 import java.util.List;
@@ -19,6 +22,16 @@ public class JwtUtils {
   @Value("${jwt.expiration:86400000}")
   private int jwtExpirationMs;
 
+  // Derived once at startup; both are immutable and thread-safe
+  private SecretKey signingKey;
+  private JwtParser parser;
+
+  @PostConstruct
+  void init() {
+    signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    parser = Jwts.parser().verifyWith(signingKey).build();
+  }
+
   public String getJwtFromHeader(HttpServletRequest request) {
     String bearerToken = request.getHeader("Authorization");
     return (bearerToken != null && bearerToken.startsWith("Bearer ")) ? bearerToken.substring(7) : null;
@@ -30,28 +43,30 @@ public class JwtUtils {
         .claim("roles", List.of(role))
         .issuedAt(new Date())
         .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-        .signWith(key())
+        .signWith(signingKey)
         .compact();
   }
 
+  /**
+   * Verifies the signature and expiry once and returns the claims, or null if the token is not valid.
+   */
+  public Claims parseVerifiedClaims(String token) {
+    try {
+      return parser.parseSignedClaims(token).getPayload();
+    } catch (JwtException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
   public String getUserIdFromToken(String token) {
-    return Jwts.parser().verifyWith(key()).build().parseSignedClaims(token).getPayload().getSubject();
+    return parser.parseSignedClaims(token).getPayload().getSubject();
   }
 
   public Claims getAllClaims(String token) {
-    return Jwts.parser().verifyWith(key()).build().parseSignedClaims(token).getPayload();
+    return parser.parseSignedClaims(token).getPayload();
   }
 
   public boolean validateJwtToken(String token) {
-    try {
-      Jwts.parser().verifyWith(key()).build().parseSignedClaims(token);
-      return true;
-    } catch (Exception e) {
-      return false;
-    }
-  }
-
-  private SecretKey key() {
-    return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    return parseVerifiedClaims(token) != null;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,120 @@
+package com.project.fitness.security;
+
+import com.project.fitness.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs password hashing and verification (BCrypt, deliberately CPU-heavy) on a dedicated pool sized to
+ * the CPU count, so a burst of logins can't occupy every request thread and starve cheap traffic.
+ *
+ * <p>The queue is bounded; when it is full the request fails fast with 503 instead of piling up.
+ * Callers block until their hash is done. Metrics: {@code auth.password.hash} (timer, by operation),
+ * {@code auth.password.hash.queue} and {@code auth.password.hash.active} (gauges) and
+ * {@code auth.password.hash.rejected} (counter).
+ */
+@Service
+public class PasswordHashingService {
+
+  private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+  private final PasswordEncoder passwordEncoder;
+  private final ThreadPoolExecutor executor;
+  private final Timer encodeTimer;
+  private final Timer matchesTimer;
+  private final Counter rejected;
+
+  public PasswordHashingService(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+      @Value("${app.security.password-hashing.workers:0}") int workers,
+      @Value("${app.security.password-hashing.queue-capacity:100}") int queueCapacity) {
+    this.passwordEncoder = passwordEncoder;
+    int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        runnable -> {
+          Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+    this.executor.allowCoreThreadTimeOut(true);
+
+    this.encodeTimer = Timer.builder("auth.password.hash")
+        .description("Password hashing time on the hashing pool")
+        .tag("operation", "encode")
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+    this.matchesTimer = Timer.builder("auth.password.hash")
+        .description("Password hashing time on the hashing pool")
+        .tag("operation", "matches")
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+    this.rejected = Counter.builder("auth.password.hash.rejected")
+        .description("Hashing requests rejected because the queue was full")
+        .register(meterRegistry);
+    Gauge.builder("auth.password.hash.queue", executor, e -> e.getQueue().size())
+        .description("Hashing requests waiting for a worker")
+        .register(meterRegistry);
+    Gauge.builder("auth.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+        .description("Hashing requests being processed")
+        .register(meterRegistry);
+    log.info("Password hashing pool: {} workers, queue capacity {}", threads, queueCapacity);
+  }
+
+  public String encode(CharSequence rawPassword) {
+    return run(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+  }
+
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return run(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+  }
+
+  /** True when the stored hash was made with a weaker cost factor than the configured one. */
+  public boolean needsRehash(String encodedPassword) {
+    return encodedPassword != null && passwordEncoder.upgradeEncoding(encodedPassword);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+  }
+
+  private <T> T run(Timer timer, Callable<T> hashing) {
+    Future<T> result;
+    try {
+      result = executor.submit(() -> timer.recordCallable(hashing));
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw new ServiceUnavailableException("Too many sign-in attempts in progress, please retry");
+    }
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      result.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new ServiceUnavailableException("Interrupted while waiting for password hashing");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException("Password hashing failed", e.getCause());
+    }
+  }
+}
@@ -1,6 +1,8 @@
 package com.project.fitness.security;
 
+import jakarta.servlet.DispatcherType;
 import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -47,6 +49,10 @@ public class SecurityConfig {
         )
         .authorizeHttpRequests(auth -> auth
 
+            // 🔓 Async re-dispatch of an already authorized request (streamed exports); the JWT
+            // filter runs once per request, so the stateless context is not re-established there
+            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
             // 🔓 Swagger / OpenAPI (PUBLIC)
             .requestMatchers(
                 "/swagger-ui/**",
@@ -66,12 +72,17 @@ public class SecurityConfig {
             // 🔓 OAuth2 endpoints
             .requestMatchers("/oauth2/**", "/login/oauth2/**").permitAll()
 
+            // 🔐 Maintenance APIs (ADMIN only)
+            .requestMatchers("/api/admin/**").hasRole("ADMIN")
+
             // 🔐 Protected APIs - User endpoints
             .requestMatchers(
                 "/api/activities/**",
                 "/api/goals/**",
                 "/api/measurements/**",
                 "/api/files/**",
+                "/api/export/**",
+                "/api/imports/**",
                 "/api/users/search",
                 "/api/users/profile",
                 "/api/users/change-password",
@@ -104,8 +115,9 @@ public class SecurityConfig {
         List.of("GET", "POST", "PUT", "DELETE", "OPTIONS")
     );
     configuration.setAllowedHeaders(
-        List.of("Authorization", "Content-Type")
+        List.of("Authorization", "Content-Type", "Idempotency-Key")
     );
+    configuration.setExposedHeaders(List.of("Idempotent-Replayed"));
     configuration.setAllowCredentials(true);
 
     UrlBasedCorsConfigurationSource source =
@@ -114,8 +126,9 @@ public class SecurityConfig {
     return source;
   }
 
+  // Raising the strength rehashes existing passwords on their next successful login
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt-strength:10}") int strength) {
+    return new BCryptPasswordEncoder(strength);
   }
 }
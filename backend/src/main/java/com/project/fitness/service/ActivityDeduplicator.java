@@ -0,0 +1,127 @@
+package com.project.fitness.service;
+
+import com.project.fitness.dto.ActivityRequest;
+import com.project.fitness.model.Activity;
+import com.project.fitness.model.ActivityType;
+import com.project.fitness.repository.ActivityRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Identifies repeated submissions of the same workout, either by the client's Idempotency-Key or by
+ * the natural key (user, type, startTime, duration). Both are backed by unique constraints on
+ * {@code Activity}; this class adds a bounded in-memory map of recently seen keys so retries are
+ * answered without touching the database, and lookups for resolving a constraint violation.
+ */
+@Component
+public class ActivityDeduplicator {
+
+  public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 128;
+
+  private final ActivityRepository activityRepo;
+  private final Map<String, String> recent; // dedup key -> activity id, LRU
+
+  public ActivityDeduplicator(ActivityRepository activityRepo,
+      @Value("${app.activities.dedup.cache-size:10000}") int cacheSize) {
+    this.activityRepo = activityRepo;
+    this.recent = new LinkedHashMap<>(256, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+        return size() > cacheSize;
+      }
+    };
+  }
+
+  /** Dedup keys for one item; the natural key is only defined when startTime, type and duration are set. */
+  public List<String> keysFor(String userId, String idempotencyKey, ActivityRequest request) {
+    List<String> keys = new ArrayList<>(2);
+    if (idempotencyKey != null) {
+      keys.add("idem|" + userId + "|" + idempotencyKey);
+    }
+    String natural = naturalKey(userId, request.getType(), request.getStartTime(), request.getDuration());
+    if (natural != null) {
+      keys.add(natural);
+    }
+    return keys;
+  }
+
+  public static String naturalKey(String userId, ActivityType type, LocalDateTime startTime, Integer duration) {
+    if (type == null || startTime == null || duration == null) {
+      return null;
+    }
+    return "nat|" + userId + "|" + type + "|" + startTime + "|" + duration;
+  }
+
+  /** Activity id recorded for any of the keys, if seen recently. */
+  public Optional<String> recentId(Collection<String> keys) {
+    synchronized (recent) {
+      for (String key : keys) {
+        String id = recent.get(key);
+        if (id != null) {
+          return Optional.of(id);
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  public void remember(Collection<String> keys, String activityId) {
+    synchronized (recent) {
+      for (String key : keys) {
+        recent.put(key, activityId);
+      }
+    }
+  }
+
+  public void forget(Collection<String> keys) {
+    synchronized (recent) {
+      keys.forEach(recent::remove);
+    }
+  }
+
+  /** The stored activity a rejected insert collided with. */
+  public Optional<Activity> findExisting(String userId, String idempotencyKey, ActivityRequest request) {
+    if (idempotencyKey != null) {
+      Optional<Activity> byKey = activityRepo.findByUser_IdAndIdempotencyKey(userId, idempotencyKey);
+      if (byKey.isPresent()) {
+        return byKey;
+      }
+    }
+    if (naturalKey(userId, request.getType(), request.getStartTime(), request.getDuration()) == null) {
+      return Optional.empty();
+    }
+    return activityRepo.findByUser_IdAndTypeAndStartTimeAndDuration(
+        userId, request.getType(), request.getStartTime(), request.getDuration());
+  }
+
+  /**
+   * Already stored activities among a batch, keyed like {@link #keysFor}: one query by idempotency
+   * key and one by start time, instead of a lookup per item.
+   */
+  public Map<String, String> findExistingIds(String userId, Collection<String> idempotencyKeys,
+      Collection<LocalDateTime> startTimes) {
+    Map<String, String> existing = new HashMap<>();
+    if (!idempotencyKeys.isEmpty()) {
+      for (Object[] row : activityRepo.findIdsByIdempotencyKeys(userId, idempotencyKeys)) {
+        existing.put("idem|" + userId + "|" + row[1], (String) row[0]);
+      }
+    }
+    if (!startTimes.isEmpty()) {
+      for (Object[] row : activityRepo.findNaturalKeysByStartTimes(userId, startTimes)) {
+        String natural = naturalKey(userId, (ActivityType) row[1], (LocalDateTime) row[2], (Integer) row[3]);
+        if (natural != null) {
+          existing.put(natural, (String) row[0]);
+        }
+      }
+    }
+    return existing;
+  }
+}
@@ -0,0 +1,146 @@
+package com.project.fitness.service;
+
+import com.project.fitness.config.CacheConfig;
+import com.project.fitness.model.Activity;
+import com.project.fitness.model.ActivityType;
+import com.project.fitness.repository.ActivityRepository;
+import com.project.fitness.repository.RecommendationRepository;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Migration for databases that predate {@code uk_activity_natural_key}. Hibernate's schema update
+ * cannot add the constraint while duplicate workouts exist and only logs the failure, which would
+ * leave deduplication to the in-memory cache of {@link ActivityDeduplicator}.
+ *
+ * <p>At startup the constraint is looked up. If it is missing and
+ * {@code app.activities.dedup.cleanup-on-startup} is set, the oldest row of each duplicate group is
+ * kept (recommendations move over to it), the others are deleted, the affected users' rollups are
+ * rebuilt and the constraint is added. Otherwise a warning says so.
+ */
+@Service
+public class ActivityDuplicateCleanup {
+
+  private static final Logger log = LoggerFactory.getLogger(ActivityDuplicateCleanup.class);
+
+  static final String CONSTRAINT = "uk_activity_natural_key";
+  private static final String ADD_CONSTRAINT = "ALTER TABLE activity ADD CONSTRAINT " + CONSTRAINT
+      + " UNIQUE (user_id, start_time, type, duration)";
+
+  private final DataSource dataSource;
+  private final ActivityRepository activityRepo;
+  private final RecommendationRepository recommendationRepo;
+  private final ActivityRollupService rollupService;
+  private final CacheManager cacheManager;
+  private final TransactionTemplate transaction;
+  private final boolean cleanupOnStartup;
+
+  public ActivityDuplicateCleanup(DataSource dataSource, ActivityRepository activityRepo,
+      RecommendationRepository recommendationRepo, ActivityRollupService rollupService,
+      CacheManager cacheManager, PlatformTransactionManager transactionManager,
+      @Value("${app.activities.dedup.cleanup-on-startup:false}") boolean cleanupOnStartup) {
+    this.dataSource = dataSource;
+    this.activityRepo = activityRepo;
+    this.recommendationRepo = recommendationRepo;
+    this.rollupService = rollupService;
+    this.cacheManager = cacheManager;
+    this.transaction = new TransactionTemplate(transactionManager);
+    this.cleanupOnStartup = cleanupOnStartup;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  void checkOnStartup() {
+    if (constraintExists()) {
+      return;
+    }
+    if (!cleanupOnStartup) {
+      log.warn("Unique constraint {} is missing, so repeated workouts are only caught in memory. Existing "
+          + "duplicates probably kept the schema update from adding it; set "
+          + "app.activities.dedup.cleanup-on-startup=true to remove them and add it", CONSTRAINT);
+      return;
+    }
+    int removed = removeDuplicates();
+    addConstraint();
+    log.info("Removed {} duplicate activities and added {}", removed, CONSTRAINT);
+  }
+
+  /** Deletes all but the oldest activity of each natural key; returns the number deleted. */
+  public int removeDuplicates() {
+    Set<String> userIds = new LinkedHashSet<>();
+    int removed = Objects.requireNonNull(transaction.execute(status -> {
+      int count = 0;
+      for (Object[] key : activityRepo.findDuplicateNaturalKeys()) {
+        String userId = (String) key[0];
+        List<Activity> group = activityRepo.findByUser_IdAndTypeAndStartTimeAndDurationOrderByCreatedAtAscIdAsc(
+            userId, (ActivityType) key[1], (LocalDateTime) key[2], (Integer) key[3]);
+        List<Activity> duplicates = group.subList(1, group.size());
+        recommendationRepo.reassignActivity(duplicates, group.get(0));
+        activityRepo.deleteAllInBatch(duplicates);
+        userIds.add(userId);
+        count += duplicates.size();
+      }
+      return count;
+    }));
+    // Deleted rows were counted in the rollups and cached lists
+    for (String userId : userIds) {
+      rollupService.rebuild(userId);
+      for (String name : List.of(CacheConfig.USER_ACTIVITIES, CacheConfig.USER_ACTIVITIES_VERSION)) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+          cache.evict(userId);
+        }
+      }
+    }
+    return removed;
+  }
+
+  boolean constraintExists() {
+    try (Connection connection = dataSource.getConnection()) {
+      DatabaseMetaData metaData = connection.getMetaData();
+      // Unquoted identifiers are stored lower case by some databases and upper case by others
+      for (String table : List.of("activity", "ACTIVITY")) {
+        try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), null, table, true, false)) {
+          while (indexes.next()) {
+            String name = indexes.getString("INDEX_NAME");
+            // H2 names the backing index after the constraint with a suffix
+            if (name != null && name.toLowerCase(Locale.ROOT).startsWith(CONSTRAINT)) {
+              return true;
+            }
+          }
+        }
+      }
+      return false;
+    } catch (SQLException e) {
+      throw new IllegalStateException("Could not inspect indexes of the activity table", e);
+    }
+  }
+
+  void addConstraint() {
+    try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+      connection.setAutoCommit(true);
+      statement.execute(ADD_CONSTRAINT);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Could not add " + CONSTRAINT + ": " + e.getMessage(), e);
+    }
+  }
+}
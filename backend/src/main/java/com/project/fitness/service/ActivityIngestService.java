@@ -0,0 +1,321 @@
+package com.project.fitness.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.project.fitness.config.CacheConfig;
+import com.project.fitness.dto.ActivityRequest;
+import com.project.fitness.dto.BulkActivityItemResult;
+import com.project.fitness.dto.BulkActivityItemResult.Status;
+import com.project.fitness.dto.BulkActivityResponse;
+import com.project.fitness.exceptions.BadRequestException;
+import com.project.fitness.exceptions.ResourceNotFoundException;
+import com.project.fitness.model.Activity;
+import com.project.fitness.model.User;
+import com.project.fitness.repository.UserRepository;
+import com.project.fitness.service.ActivityService.TrackResult;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bulk activity ingestion (wearable backlogs, imports). The user is resolved once, items are
+ * validated individually, and valid ones are persisted in chunks: one transaction per chunk, written
+ * with Hibernate JDBC batching ({@code hibernate.jdbc.batch_size}) and cleared from the persistence
+ * context afterwards, so the managed entities never exceed one chunk. The parsed requests themselves
+ * are held in memory for the whole call, bounded by {@code app.activities.bulk.max-items}. A failing
+ * chunk does not affect the others.
+ *
+ * <p>Items repeating a stored workout (see {@link ActivityDeduplicator}) or an earlier item of the same
+ * request are reported as DUPLICATE instead of being inserted again.
+ */
+@Service
+public class ActivityIngestService {
+
+  private static final Logger log = LoggerFactory.getLogger(ActivityIngestService.class);
+
+  private final UserRepository userRepo;
+  private final ActivityService activityService;
+  private final ActivityDeduplicator deduplicator;
+  private final ActivityRollupService rollupService;
+  private final EntityManager entityManager;
+  private final TransactionTemplate transaction;
+  private final ApplicationEventPublisher events;
+  private final Validator validator;
+  private final ObjectReader activityReader;
+  private final int maxItems;
+  private final int chunkSize;
+
+  public ActivityIngestService(UserRepository userRepo, ActivityService activityService,
+      ActivityDeduplicator deduplicator, ActivityRollupService rollupService,
+      EntityManager entityManager, PlatformTransactionManager transactionManager, Validator validator,
+      ObjectMapper objectMapper, ApplicationEventPublisher events,
+      @Value("${app.activities.bulk.max-items:10000}") int maxItems,
+      @Value("${app.activities.bulk.chunk-size:500}") int chunkSize) {
+    this.userRepo = userRepo;
+    this.activityService = activityService;
+    this.deduplicator = deduplicator;
+    this.rollupService = rollupService;
+    this.entityManager = entityManager;
+    this.transaction = new TransactionTemplate(transactionManager);
+    this.events = events;
+    this.validator = validator;
+    this.activityReader = objectMapper.readerFor(ActivityRequest.class);
+    this.maxItems = maxItems;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Reads a JSON array into memory (at most max-items elements) before anything is written, so
+   * malformed JSON anywhere rejects the whole request.
+   */
+  @CacheEvict(cacheNames = {CacheConfig.USER_ACTIVITIES, CacheConfig.USER_ACTIVITIES_VERSION}, key = "#userId")
+  public BulkActivityResponse ingestJson(String userId, InputStream body, String idempotencyKey) {
+    List<ActivityRequest> requests = new ArrayList<>();
+    try (MappingIterator<ActivityRequest> items = activityReader.readValues(body)) {
+      while (items.hasNextValue()) {
+        if (requests.size() == maxItems) {
+          throw tooMany();
+        }
+        requests.add(items.nextValue());
+      }
+    } catch (JsonProcessingException e) {
+      throw new BadRequestException("Malformed JSON at element " + requests.size() + ": "
+          + e.getOriginalMessage());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return ingest(userId, requests, null, idempotencyKey);
+  }
+
+  /** Reads NDJSON (one activity per line). A malformed line only marks that item INVALID. */
+  @CacheEvict(cacheNames = {CacheConfig.USER_ACTIVITIES, CacheConfig.USER_ACTIVITIES_VERSION}, key = "#userId")
+  public BulkActivityResponse ingestNdjson(String userId, InputStream body, String idempotencyKey) {
+    List<ActivityRequest> requests = new ArrayList<>();
+    List<String> parseErrors = new ArrayList<>();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank()) {
+          continue;
+        }
+        if (requests.size() == maxItems) {
+          throw tooMany();
+        }
+        try {
+          requests.add(activityReader.readValue(line));
+          parseErrors.add(null);
+        } catch (JsonProcessingException e) {
+          requests.add(null);
+          parseErrors.add("Malformed JSON: " + e.getOriginalMessage());
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return ingest(userId, requests, parseErrors, idempotencyKey);
+  }
+
+  @CacheEvict(cacheNames = {CacheConfig.USER_ACTIVITIES, CacheConfig.USER_ACTIVITIES_VERSION}, key = "#userId")
+  public BulkActivityResponse ingest(String userId, List<ActivityRequest> requests, String idempotencyKey) {
+    return ingest(userId, requests, null, idempotencyKey);
+  }
+
+  private BulkActivityResponse ingest(String userId, List<ActivityRequest> requests, List<String> parseErrors,
+      String idempotencyKey) {
+    if (requests.size() > maxItems) {
+      throw tooMany();
+    }
+    if (idempotencyKey != null
+        && idempotencyKey.length() + 1 + String.valueOf(maxItems).length() > ActivityDeduplicator.MAX_IDEMPOTENCY_KEY_LENGTH) {
+      throw new BadRequestException("Idempotency-Key is too long");
+    }
+    if (!userRepo.existsById(userId)) {
+      throw new ResourceNotFoundException("User not found");
+    }
+
+    List<BulkActivityItemResult> results = new ArrayList<>(requests.size());
+    List<Integer> pending = new ArrayList<>(chunkSize);
+    Map<String, Integer> seenInRequest = new HashMap<>();
+    for (int i = 0; i < requests.size(); i++) {
+      String error = parseErrors != null ? parseErrors.get(i) : null;
+      if (error == null) {
+        error = validate(requests.get(i));
+      }
+      if (error != null) {
+        results.add(new BulkActivityItemResult(i, Status.INVALID, null, error));
+        continue;
+      }
+      ActivityRequest request = requests.get(i);
+      String natural = ActivityDeduplicator.naturalKey(userId, request.getType(), request.getStartTime(),
+          request.getDuration());
+      Integer first = natural != null ? seenInRequest.putIfAbsent(natural, i) : null;
+      if (first != null) {
+        results.add(new BulkActivityItemResult(i, Status.DUPLICATE, null, "Same workout as item " + first));
+        continue;
+      }
+      results.add(null); // filled in when its chunk is written
+      pending.add(i);
+      if (pending.size() == chunkSize) {
+        writeChunk(userId, requests, pending, results, idempotencyKey);
+        pending.clear();
+      }
+    }
+    if (!pending.isEmpty()) {
+      writeChunk(userId, requests, pending, results, idempotencyKey);
+    }
+
+    int created = 0;
+    int duplicates = 0;
+    for (BulkActivityItemResult result : results) {
+      if (result.getStatus() == Status.CREATED) {
+        created++;
+      } else if (result.getStatus() == Status.DUPLICATE) {
+        duplicates++;
+      }
+    }
+    return new BulkActivityResponse(requests.size(), created, duplicates,
+        requests.size() - created - duplicates, results);
+  }
+
+  private void writeChunk(String userId, List<ActivityRequest> requests, List<Integer> chunk,
+      List<BulkActivityItemResult> results, String idempotencyKey) {
+    // Drop items already stored: recent keys from memory, the rest with one lookup per chunk
+    Map<Integer, List<String>> keysByIndex = new HashMap<>();
+    List<String> itemKeys = new ArrayList<>();
+    List<LocalDateTime> startTimes = new ArrayList<>();
+    for (int index : chunk) {
+      ActivityRequest request = requests.get(index);
+      String itemKey = itemKey(idempotencyKey, index);
+      keysByIndex.put(index, deduplicator.keysFor(userId, itemKey, request));
+      if (itemKey != null) {
+        itemKeys.add(itemKey);
+      }
+      if (request.getStartTime() != null) {
+        startTimes.add(request.getStartTime());
+      }
+    }
+    List<Integer> indexes = new ArrayList<>(chunk.size());
+    List<Integer> unresolved = new ArrayList<>(chunk.size());
+    for (int index : chunk) {
+      Optional<String> recentId = deduplicator.recentId(keysByIndex.get(index));
+      if (recentId.isPresent()) {
+        results.set(index, new BulkActivityItemResult(index, Status.DUPLICATE, recentId.get(), null));
+      } else {
+        unresolved.add(index);
+      }
+    }
+    Map<String, String> stored = unresolved.isEmpty() ? Map.of()
+        : deduplicator.findExistingIds(userId, itemKeys, startTimes);
+    for (int index : unresolved) {
+      String existingId = keysByIndex.get(index).stream().map(stored::get).filter(Objects::nonNull)
+          .findFirst().orElse(null);
+      if (existingId != null) {
+        deduplicator.remember(keysByIndex.get(index), existingId);
+        results.set(index, new BulkActivityItemResult(index, Status.DUPLICATE, existingId, null));
+      } else {
+        indexes.add(index);
+      }
+    }
+    if (indexes.isEmpty()) {
+      return;
+    }
+
+    User owner = User.builder().id(userId).build();
+    LocalDateTime recordedAt = LocalDateTime.now();
+    rollupService.createMissingBuckets(indexes.stream()
+        .map(index -> ActivityService.toEntity(requests.get(index), owner, null, recordedAt))
+        .toList());
+    try {
+      List<Activity> saved = transaction.execute(status -> {
+        User user = userRepo.getReferenceById(userId); // proxy, no SELECT
+        List<Activity> activities = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+          Activity activity = ActivityService.toEntity(requests.get(index), user, itemKey(idempotencyKey, index),
+              recordedAt);
+          entityManager.persist(activity);
+          activities.add(activity);
+        }
+        rollupService.record(activities);
+        events.publishEvent(new ActivityRecordedEvent(userId, activities));
+        entityManager.flush(); // JDBC batches of hibernate.jdbc.batch_size
+        entityManager.clear();
+        return activities;
+      });
+      for (int i = 0; i < indexes.size(); i++) {
+        int index = indexes.get(i);
+        deduplicator.remember(keysByIndex.get(index), saved.get(i).getId());
+        results.set(index, new BulkActivityItemResult(index, Status.CREATED, saved.get(i).getId(), null));
+      }
+    } catch (DataIntegrityViolationException e) {
+      // A concurrent writer stored some of these since the lookup: fall back to one idempotent insert per item
+      for (int index : indexes) {
+        results.set(index, writeOne(userId, requests.get(index), index, itemKey(idempotencyKey, index)));
+      }
+    } catch (RuntimeException e) {
+      log.warn("Bulk activity chunk of {} items failed: {}", indexes.size(), e.getMessage());
+      for (int index : indexes) {
+        results.set(index, new BulkActivityItemResult(index, Status.FAILED, null,
+            "Could not be stored; retry this item"));
+      }
+    }
+  }
+
+  private BulkActivityItemResult writeOne(String userId, ActivityRequest request, int index, String itemKey) {
+    try {
+      request.setUserId(userId);
+      TrackResult result = activityService.trackActivity(request, itemKey);
+      return new BulkActivityItemResult(index, result.duplicate() ? Status.DUPLICATE : Status.CREATED,
+          result.activity().getId(), null);
+    } catch (RuntimeException e) {
+      return new BulkActivityItemResult(index, Status.FAILED, null, "Could not be stored; retry this item");
+    }
+  }
+
+  // Each item of a keyed batch gets its own key, so a replayed batch maps item-for-item
+  private static String itemKey(String idempotencyKey, int index) {
+    return idempotencyKey != null ? idempotencyKey + "#" + index : null;
+  }
+
+  private String validate(ActivityRequest request) {
+    if (request == null) {
+      return "Item is null";
+    }
+    var violations = validator.validate(request);
+    if (violations.isEmpty()) {
+      return null;
+    }
+    return violations.stream()
+        .map(ConstraintViolation::getMessage)
+        .sorted()
+        .collect(Collectors.joining("; "));
+  }
+
+  private BadRequestException tooMany() {
+    return new BadRequestException("Too many activities in one request (max " + maxItems + ")");
+  }
+}
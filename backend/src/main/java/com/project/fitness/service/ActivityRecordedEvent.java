@@ -0,0 +1,12 @@
+package com.project.fitness.service;
+
+import com.project.fitness.model.Activity;
+import java.util.List;
+
+/**
+ * Published inside the insert transaction once new activities of one user are saved (a single
+ * tracked activity or a bulk chunk). Listeners run in that transaction, so their writes commit or
+ * roll back with the activities. Replayed duplicates are not published.
+ */
+public record ActivityRecordedEvent(String userId, List<Activity> activities) {
+}
@@ -0,0 +1,254 @@
+package com.project.fitness.service;
+
+import com.project.fitness.dto.ActivityStatsBucket;
+import com.project.fitness.dto.ActivityStatsResponse;
+import com.project.fitness.exceptions.BadRequestException;
+import com.project.fitness.exceptions.ServiceUnavailableException;
+import com.project.fitness.model.Activity;
+import com.project.fitness.model.ActivityRollup;
+import com.project.fitness.model.ActivityType;
+import com.project.fitness.model.RollupPeriod;
+import com.project.fitness.model.User;
+import com.project.fitness.repository.ActivityRepository;
+import com.project.fitness.repository.ActivityRollupRepository;
+import com.project.fitness.repository.UserRepository;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maintains {@link ActivityRollup} buckets and answers stats queries from them, so dashboards cost
+ * O(buckets in range) instead of O(activities).
+ */
+@Service
+public class ActivityRollupService {
+
+  private static final Logger log = LoggerFactory.getLogger(ActivityRollupService.class);
+
+  private static final int MAX_DAYS = 366;
+  private static final int MAX_WEEKS = 260;
+
+  private final ActivityRollupRepository rollupRepo;
+  private final ActivityRepository activityRepo;
+  private final UserRepository userRepo;
+  private final TransactionTemplate transaction;
+  private final boolean rebuildOnStartup;
+
+  public ActivityRollupService(ActivityRollupRepository rollupRepo, ActivityRepository activityRepo,
+      UserRepository userRepo, PlatformTransactionManager transactionManager,
+      @Value("${app.rollups.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+    this.rollupRepo = rollupRepo;
+    this.rebuildOnStartup = rebuildOnStartup;
+    this.activityRepo = activityRepo;
+    this.userRepo = userRepo;
+    this.transaction = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Adds a newly saved activity to its day and week buckets, in the caller's transaction. The buckets
+   * must exist already (see {@link #createMissingBuckets}).
+   */
+  @Transactional
+  public void record(Activity activity) {
+    record(List.of(activity));
+  }
+
+  /** Batch variant: activities falling into the same bucket are summed first, one UPDATE per bucket. */
+  @Transactional
+  public void record(Collection<Activity> activities) {
+    for (ActivityRollup delta : aggregate(activities).values()) {
+      apply(delta);
+    }
+  }
+
+  /**
+   * Creates the day and week buckets these (possibly not yet saved) activities fall into, each in
+   * its own short transaction. Call it before opening the transaction that saves the activities:
+   * creating a bucket from inside that transaction needs a second pooled connection while the first
+   * is held, and enough concurrent writers doing so exhaust the pool waiting on each other.
+   */
+  public void createMissingBuckets(Collection<Activity> activities) {
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      throw new IllegalStateException("createMissingBuckets must be called outside a transaction");
+    }
+    Map<String, ActivityRollup> buckets = aggregate(activities);
+    Map<String, List<ActivityRollup>> byUser = buckets.values().stream()
+        .collect(Collectors.groupingBy(bucket -> bucket.getUser().getId()));
+    byUser.forEach((userId, wanted) -> {
+      Set<LocalDate> starts = wanted.stream().map(ActivityRollup::getPeriodStart).collect(Collectors.toSet());
+      Set<String> existing = rollupRepo.findByUser_IdAndPeriodStartIn(userId, starts).stream()
+          .map(ActivityRollupService::key)
+          .collect(Collectors.toSet());
+      wanted.stream().filter(bucket -> !existing.contains(key(bucket))).forEach(this::createBucket);
+    });
+  }
+
+  @Transactional(readOnly = true)
+  public ActivityStatsResponse getStats(String userId, RollupPeriod period, LocalDate from, LocalDate to,
+      ActivityType type) {
+    RollupPeriod resolved = period != null ? period : RollupPeriod.DAY;
+    LocalDate end = to != null ? to : LocalDate.now();
+    LocalDate start = from != null ? from
+        : resolved == RollupPeriod.DAY ? end.minusDays(29) : end.minusWeeks(11);
+    start = bucketStart(start, resolved);
+    if (start.isAfter(end)) {
+      throw new BadRequestException("from must not be after to");
+    }
+    long span = resolved == RollupPeriod.DAY
+        ? ChronoUnit.DAYS.between(start, end) + 1
+        : ChronoUnit.WEEKS.between(start, end) + 1;
+    if (span > (resolved == RollupPeriod.DAY ? MAX_DAYS : MAX_WEEKS)) {
+      throw new BadRequestException("Range too large for period " + resolved
+          + " (max " + (resolved == RollupPeriod.DAY ? MAX_DAYS + " days" : MAX_WEEKS + " weeks") + ")");
+    }
+
+    List<ActivityStatsBucket> buckets = rollupRepo
+        .findByUser_IdAndPeriodAndPeriodStartBetweenOrderByPeriodStartAsc(userId, resolved, start, end)
+        .stream()
+        .filter(r -> r.getActivityCount() > 0)
+        .filter(r -> type == null || r.getActivityType() == type)
+        .map(r -> new ActivityStatsBucket(r.getPeriodStart(), r.getActivityType(), r.getActivityCount(),
+            r.getTotalDuration(), r.getTotalCalories(), r.getTotalDistance()))
+        .toList();
+
+    long count = 0;
+    long duration = 0;
+    long calories = 0;
+    double distance = 0;
+    for (ActivityStatsBucket bucket : buckets) {
+      count += bucket.getActivityCount();
+      duration += bucket.getTotalDuration();
+      calories += bucket.getTotalCalories();
+      distance += bucket.getTotalDistance();
+    }
+    return new ActivityStatsResponse(resolved, start, end, count, duration, calories, distance, buckets);
+  }
+
+  /** Recomputes one user's rollups from their activities (backfill, or repair after drift). */
+  public int rebuild(String userId) {
+    return Objects.requireNonNull(transaction.execute(status -> {
+      rollupRepo.deleteByUserId(userId);
+      Map<String, ActivityRollup> buckets = aggregate(activityRepo.findByUser_Id(userId));
+      rollupRepo.saveAll(buckets.values());
+      return buckets.size();
+    }));
+  }
+
+  /** Rebuilds every user, one transaction per user. Returns the number of users processed. */
+  public int rebuildAll() {
+    List<String> userIds = userRepo.findAll().stream().map(User::getId).toList();
+    for (String userId : userIds) {
+      rebuild(userId);
+    }
+    log.info("Rebuilt activity rollups for {} users", userIds.size());
+    return userIds.size();
+  }
+
+  // One-off backfill for databases that predate rollups
+  @EventListener(ApplicationReadyEvent.class)
+  void rebuildOnStartup() {
+    if (rebuildOnStartup) {
+      rebuildAll();
+    }
+  }
+
+  // Never creates the bucket here: that would need a second connection inside the caller's
+  // transaction. Missing means a concurrent rebuild replaced it; the caller rolls back and retries.
+  private void apply(ActivityRollup delta) {
+    if (increment(delta) == 0) {
+      throw new ServiceUnavailableException("Activity statistics are being rebuilt, please retry");
+    }
+  }
+
+  // Empty row in its own short transaction, so a concurrent creator winning the unique-key race
+  // only fails that insert
+  private void createBucket(ActivityRollup bucket) {
+    try {
+      transaction.executeWithoutResult(status -> rollupRepo.saveAndFlush(ActivityRollup.builder()
+          .user(userRepo.getReferenceById(bucket.getUser().getId()))
+          .activityType(bucket.getActivityType())
+          .period(bucket.getPeriod())
+          .periodStart(bucket.getPeriodStart())
+          .build()));
+    } catch (DataIntegrityViolationException e) {
+      // Another writer created it first
+    }
+  }
+
+  private int increment(ActivityRollup delta) {
+    return rollupRepo.increment(delta.getUser().getId(), delta.getActivityType(), delta.getPeriod(),
+        delta.getPeriodStart(), delta.getActivityCount(), delta.getTotalDuration(),
+        delta.getTotalCalories(), delta.getTotalDistance());
+  }
+
+  private Map<String, ActivityRollup> aggregate(Collection<Activity> activities) {
+    Map<String, ActivityRollup> buckets = new LinkedHashMap<>();
+    for (Activity activity : activities) {
+      if (activity.getType() == null) {
+        continue;
+      }
+      LocalDate day = occurredOn(activity);
+      for (RollupPeriod period : RollupPeriod.values()) {
+        LocalDate periodStart = bucketStart(day, period);
+        String key = key(activity.getUser().getId(), activity.getType(), period, periodStart);
+        ActivityRollup bucket = buckets.computeIfAbsent(key, k -> ActivityRollup.builder()
+            .user(activity.getUser())
+            .activityType(activity.getType())
+            .period(period)
+            .periodStart(periodStart)
+            .build());
+        bucket.setActivityCount(bucket.getActivityCount() + 1);
+        bucket.setTotalDuration(bucket.getTotalDuration() + nullToZero(activity.getDuration()));
+        bucket.setTotalCalories(bucket.getTotalCalories() + nullToZero(activity.getCaloriesBurned()));
+        bucket.setTotalDistance(bucket.getTotalDistance()
+            + (activity.getDistance() != null ? activity.getDistance() : 0.0));
+      }
+    }
+    return buckets;
+  }
+
+  private static String key(String userId, ActivityType type, RollupPeriod period, LocalDate periodStart) {
+    return userId + "|" + type + "|" + period + "|" + periodStart;
+  }
+
+  private static String key(ActivityRollup bucket) {
+    return key(bucket.getUser().getId(), bucket.getActivityType(), bucket.getPeriod(), bucket.getPeriodStart());
+  }
+
+  // When the activity happened: startTime, else the frontend's date, else when it was recorded
+  private static LocalDate occurredOn(Activity activity) {
+    LocalDateTime when = activity.getStartTime() != null ? activity.getStartTime()
+        : activity.getDate() != null ? activity.getDate()
+        : activity.getCreatedAt() != null ? activity.getCreatedAt()
+        : LocalDateTime.now();
+    return when.toLocalDate();
+  }
+
+  private static LocalDate bucketStart(LocalDate day, RollupPeriod period) {
+    return period == RollupPeriod.WEEK ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : day;
+  }
+
+  private static long nullToZero(Integer value) {
+    return value != null ? value : 0;
+  }
+}
@@ -1,30 +1,139 @@
 package com.project.fitness.service;
 
+import com.project.fitness.config.CacheConfig;
+import com.project.fitness.config.ReadFromPrimary;
 import com.project.fitness.dto.ActivityRequest;
 import com.project.fitness.dto.ActivityResponse;
+import com.project.fitness.dto.ActivitySearchCriteria;
+import com.project.fitness.dto.CursorPage;
+import com.project.fitness.exceptions.BadRequestException;
 import com.project.fitness.model.Activity; // Fixes symbol error
+import com.project.fitness.model.ActivityType;
 import com.project.fitness.model.User;
 import com.project.fitness.repository.ActivityRepository;
+import com.project.fitness.repository.ActivitySpecifications;
 import com.project.fitness.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class ActivityService {
+  private static final Logger log = LoggerFactory.getLogger(ActivityService.class);
+  private static final String ADDITIONAL_METRICS = "additionalMetrics";
+
   private final ActivityRepository activityRepo;
   private final UserRepository userRepo;
+  private final ActivityRollupService rollupService;
+  private final ActivityDeduplicator deduplicator;
+  private final TransactionTemplate transaction;
+  private final EntityManager entityManager;
+  private final ApplicationEventPublisher events;
+  private final boolean normalizeIntensitiesOnStartup;
+
+  /** Outcome of an idempotent insert; {@code duplicate} means an existing activity was returned. */
+  public record TrackResult(ActivityResponse activity, boolean duplicate) {
+  }
 
-  public ActivityService(ActivityRepository activityRepo, UserRepository userRepo) {
+  public ActivityService(ActivityRepository activityRepo, UserRepository userRepo,
+      ActivityRollupService rollupService, ActivityDeduplicator deduplicator,
+      PlatformTransactionManager transactionManager, EntityManager entityManager,
+      ApplicationEventPublisher events,
+      @Value("${app.activities.intensity.normalize-on-startup:false}") boolean normalizeIntensitiesOnStartup) {
     this.activityRepo = activityRepo;
     this.userRepo = userRepo;
+    this.rollupService = rollupService;
+    this.deduplicator = deduplicator;
+    this.transaction = new TransactionTemplate(transactionManager);
+    this.entityManager = entityManager;
+    this.events = events;
+    this.normalizeIntensitiesOnStartup = normalizeIntensitiesOnStartup;
+  }
+
+  // Searches match intensity exactly; a one-off switch brings rows from before normalization on write in line
+  @EventListener(ApplicationReadyEvent.class)
+  void normalizeStoredIntensities() {
+    if (!normalizeIntensitiesOnStartup) {
+      return;
+    }
+    Integer updated = transaction.execute(status -> activityRepo.normalizeIntensities());
+    if (updated != null && updated > 0) {
+      log.info("Normalized the intensity of {} activities", updated);
+    }
   }
 
+  @CacheEvict(cacheNames = {CacheConfig.USER_ACTIVITIES, CacheConfig.USER_ACTIVITIES_VERSION}, key = "#request.userId")
   public ActivityResponse trackActivity(ActivityRequest request) {
-    User user = userRepo.findById(request.getUserId())
+    return trackActivity(request, null).activity();
+  }
+
+  /**
+   * Stores an activity unless it repeats one already stored: same Idempotency-Key, or same
+   * (type, startTime, duration) for the user. Recent keys are answered from memory; otherwise the
+   * insert is attempted and a unique-constraint violation resolves to the existing row, so there is
+   * no read-before-write on the normal path. Not {@code @Transactional}: missing rollup buckets are
+   * created before the insert transaction opens, so it never waits on a second pooled connection.
+   */
+  @CacheEvict(cacheNames = {CacheConfig.USER_ACTIVITIES, CacheConfig.USER_ACTIVITIES_VERSION}, key = "#request.userId")
+  public TrackResult trackActivity(ActivityRequest request, String idempotencyKey) {
+    if (idempotencyKey != null && idempotencyKey.length() > ActivityDeduplicator.MAX_IDEMPOTENCY_KEY_LENGTH) {
+      throw new BadRequestException("Idempotency-Key must be at most "
+          + ActivityDeduplicator.MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+    }
+    String userId = request.getUserId();
+    List<String> keys = deduplicator.keysFor(userId, idempotencyKey, request);
+    Activity recent = deduplicator.recentId(keys).flatMap(activityRepo::findById).orElse(null);
+    if (recent != null) {
+      return new TrackResult(mapToResponse(recent), true);
+    }
+
+    User user = userRepo.findById(userId)
         .orElseThrow(() -> new RuntimeException("User not found"));
+    LocalDateTime recordedAt = LocalDateTime.now();
+    rollupService.createMissingBuckets(List.of(toEntity(request, user, idempotencyKey, recordedAt)));
+    try {
+      // Own transaction: the activity row, its rollup increments and goal progress commit together,
+      // and a constraint violation rolls back cleanly before the duplicate is looked up
+      Activity saved = transaction.execute(status -> {
+        Activity activity = activityRepo.saveAndFlush(toEntity(request, user, idempotencyKey, recordedAt));
+        rollupService.record(activity);
+        events.publishEvent(new ActivityRecordedEvent(userId, List.of(activity)));
+        return activity;
+      });
+      deduplicator.remember(keys, saved.getId());
+      return new TrackResult(mapToResponse(saved), false);
+    } catch (DataIntegrityViolationException e) {
+      Activity existing = deduplicator.findExisting(userId, idempotencyKey, request).orElseThrow(() -> e);
+      deduplicator.remember(keys, existing.getId());
+      return new TrackResult(mapToResponse(existing), true);
+    }
+  }
 
-    Activity activity = Activity.builder()
+  // recordedAt becomes createdAt, the rollup day of an activity with neither startTime nor date: pass the
+  // same value to the entity given to createMissingBuckets and to the one saved
+  static Activity toEntity(ActivityRequest request, User user, String idempotencyKey, LocalDateTime recordedAt) {
+    return Activity.builder()
         .user(user)
         .type(request.getType())
         .duration(request.getDuration())
@@ -32,58 +141,107 @@ public class ActivityService {
         .startTime(request.getStartTime())
         .date(request.getDate())
         .distance(request.getDistance())
-        .intensity(request.getIntensity())
+        .intensity(Activity.normalizeIntensity(request.getIntensity()))
         .notes(request.getNotes())
         .additionalMetrics(request.getAdditionalMetrics())
+        .idempotencyKey(idempotencyKey)
+        .createdAt(recordedAt)
         .build();
-
-    Activity saved = activityRepo.save(activity);
-    return mapToResponse(saved);
   }
 
+  @Transactional(readOnly = true)
   public ActivityResponse getActivityById(String id) {
     Activity activity = activityRepo.findById(id)
         .orElseThrow(() -> new RuntimeException("Activity not found: " + id));
     return mapToResponse(activity);
   }
 
-  public List<ActivityResponse> getUserActivities(String userId) {
-    return activityRepo.findByUser_Id(userId).stream()
-        .map(this::mapToResponse)
-        .collect(Collectors.toList());
+  /**
+   * The user's activities as projected rows. The full list is cached; a {@code fields} selection
+   * without additionalMetrics skips that JSON column and the cache.
+   */
+  @Transactional(readOnly = true)
+  @ReadFromPrimary
+  @Cacheable(cacheNames = CacheConfig.USER_ACTIVITIES, key = "#userId",
+      condition = "#fields.includes('additionalMetrics')")
+  public List<ActivityResponse> getUserActivities(String userId, FieldSet fields) {
+    return fields.includes(ADDITIONAL_METRICS)
+        ? activityRepo.findResponsesByUserId(userId)
+        : activityRepo.findSummariesByUserId(userId);
+  }
+
+  @Transactional(readOnly = true)
+  public CursorPage<ActivityResponse> getUserActivitiesPage(String userId, String cursor, Integer limit,
+      FieldSet fields) {
+    PageCursor after = PageCursor.decode(cursor);
+    int size = PageCursor.clampLimit(limit);
+    Limit fetch = Limit.of(size + 1);
+    boolean full = fields.includes(ADDITIONAL_METRICS);
+    List<ActivityResponse> rows;
+    if (after == null) {
+      rows = full ? activityRepo.findResponsePage(userId, fetch) : activityRepo.findSummaryPage(userId, fetch);
+    } else {
+      rows = full
+          ? activityRepo.findResponsePageAfter(userId, after.keyAsDateTime(), after.id(), fetch)
+          : activityRepo.findSummaryPageAfter(userId, after.keyAsDateTime(), after.id(), fetch);
+    }
+    return PageCursor.toPage(rows, size, a -> new PageCursor(a.getCreatedAt().toString(), a.getId()), a -> a);
   }
 
-  public List<ActivityResponse> searchActivities(String userId, String type, String dateFrom, String dateTo) {
-    List<Activity> activities = activityRepo.findByUser_Id(userId);
+  @Transactional(readOnly = true)
+  public List<ActivityResponse> searchActivities(String userId, ActivitySearchCriteria criteria,
+      FieldSet fields) {
+    Specification<Activity> spec = Specification.where(ActivitySpecifications.belongsTo(userId))
+        .and(ActivitySpecifications.hasType(parseType(criteria.getType())))
+        .and(ActivitySpecifications.startedOnOrAfter(parseDateTime(criteria.getDateFrom(), "dateFrom")))
+        .and(ActivitySpecifications.startedOnOrBefore(parseDateTime(criteria.getDateTo(), "dateTo")))
+        .and(ActivitySpecifications.hasIntensity(blankToNull(criteria.getIntensity())))
+        .and(ActivitySpecifications.distanceBetween(criteria.getMinDistance(), criteria.getMaxDistance()))
+        .and(ActivitySpecifications.durationBetween(criteria.getMinDuration(), criteria.getMaxDuration()));
 
-    // Filter by type
-    if (type != null && !type.isEmpty()) {
-      activities = activities.stream()
-          .filter(a -> a.getType().name().equalsIgnoreCase(type))
-          .collect(Collectors.toList());
+    // Same projection as the list queries, built with the criteria API so the specifications apply
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<ActivityResponse> query = cb.createQuery(ActivityResponse.class);
+    Root<Activity> a = query.from(Activity.class);
+    List<Selection<?>> columns = new ArrayList<>(List.of(a.get("id"), a.get("user").get("id"), a.get("type")));
+    if (fields.includes(ADDITIONAL_METRICS)) {
+      columns.add(a.get(ADDITIONAL_METRICS));
     }
+    columns.addAll(List.of(a.get("duration"), a.get("caloriesBurned"), a.get("startTime"), a.get("date"),
+        a.get("distance"), a.get("intensity"), a.get("notes"), a.get("createdAt"), a.get("updatedAt")));
+    query.select(cb.construct(ActivityResponse.class, columns.toArray(Selection[]::new)))
+        .where(spec.toPredicate(a, query, cb))
+        .orderBy(cb.desc(a.get("startTime")));
+    return entityManager.createQuery(query).getResultList();
+  }
 
-    // Filter by date range
-    if (dateFrom != null && !dateFrom.isEmpty()) {
-      activities = activities.stream()
-          .filter(a -> a.getStartTime() != null && 
-              !a.getStartTime().isBefore(java.time.LocalDateTime.parse(dateFrom)))
-          .collect(Collectors.toList());
+  private ActivityType parseType(String type) {
+    if (type == null || type.isBlank()) {
+      return null;
+    }
+    try {
+      return ActivityType.valueOf(type.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("Unknown activity type: " + type);
     }
+  }
 
-    if (dateTo != null && !dateTo.isEmpty()) {
-      activities = activities.stream()
-          .filter(a -> a.getStartTime() != null && 
-              !a.getStartTime().isAfter(java.time.LocalDateTime.parse(dateTo)))
-          .collect(Collectors.toList());
+  private LocalDateTime parseDateTime(String value, String field) {
+    if (value == null || value.isBlank()) {
+      return null;
     }
+    try {
+      return LocalDateTime.parse(value.trim());
+    } catch (DateTimeParseException e) {
+      throw new BadRequestException("Invalid " + field + ", expected ISO date-time: " + value);
+    }
+  }
 
-    return activities.stream()
-        .map(this::mapToResponse)
-        .collect(Collectors.toList());
+  private String blankToNull(String value) {
+    return value == null || value.isBlank() ? null : value.trim();
   }
 
-  private ActivityResponse mapToResponse(Activity activity) {
+  ActivityResponse mapToResponse(Activity activity) {
     return new ActivityResponse(
         activity.getId(),
         activity.getUser().getId(),
@@ -1,7 +1,10 @@
 package com.project.fitness.service;
 
+import com.project.fitness.config.CacheConfig;
+import com.project.fitness.config.ReadFromPrimary;
 import com.project.fitness.dto.BodyMeasurementRequest;
 import com.project.fitness.dto.BodyMeasurementResponse;
+import com.project.fitness.dto.CursorPage;
 import com.project.fitness.exceptions.BadRequestException;
 import com.project.fitness.exceptions.ResourceNotFoundException;
 import com.project.fitness.model.BodyMeasurement;
@@ -10,14 +13,17 @@ import com.project.fitness.model.User;
 import com.project.fitness.repository.BodyMeasurementRepository;
 import com.project.fitness.repository.FileUploadRepository;
 import com.project.fitness.repository.UserRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class BodyMeasurementService {
+  private static final String MEASUREMENTS = "measurements";
 
   private final BodyMeasurementRepository measurementRepository;
   private final UserRepository userRepository;
@@ -31,6 +37,8 @@ public class BodyMeasurementService {
     this.fileUploadRepository = fileUploadRepository;
   }
 
+  @Transactional
+  @CacheEvict(cacheNames = CacheConfig.USER_MEASUREMENTS_VERSION, key = "#userId")
   public BodyMeasurementResponse createMeasurement(BodyMeasurementRequest request, String userId) {
     User user = userRepository.findById(userId)
         .orElseThrow(() -> new ResourceNotFoundException("User not found"));
@@ -65,6 +73,8 @@ public class BodyMeasurementService {
     return mapToResponse(saved);
   }
 
+  @Transactional
+  @CacheEvict(cacheNames = CacheConfig.USER_MEASUREMENTS_VERSION, key = "#userId")
   public BodyMeasurementResponse updateMeasurement(String id, BodyMeasurementRequest request, String userId) {
     BodyMeasurement measurement = measurementRepository.findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Measurement not found"));
@@ -100,6 +110,7 @@ public class BodyMeasurementService {
     return mapToResponse(updated);
   }
 
+  @Transactional(readOnly = true)
   public BodyMeasurementResponse getMeasurementById(String id, String userId) {
     BodyMeasurement measurement = measurementRepository.findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Measurement not found"));
@@ -111,18 +122,47 @@ public class BodyMeasurementService {
     return mapToResponse(measurement);
   }
 
-  public List<BodyMeasurementResponse> getUserMeasurements(String userId) {
-    return measurementRepository.findByUser_IdOrderByMeasurementDateDesc(userId).stream()
-        .map(this::mapToResponse)
-        .collect(Collectors.toList());
+  // List reads are projected rows; a fields selection without measurements skips that JSON column
+  @Transactional(readOnly = true)
+  @ReadFromPrimary
+  public List<BodyMeasurementResponse> getUserMeasurements(String userId, FieldSet fields) {
+    return fields.includes(MEASUREMENTS)
+        ? measurementRepository.findResponsesByUserId(userId)
+        : measurementRepository.findSummariesByUserId(userId);
   }
 
-  public List<BodyMeasurementResponse> getMeasurementsByDateRange(String userId, LocalDate startDate, LocalDate endDate) {
-    return measurementRepository.findByUser_IdAndMeasurementDateBetween(userId, startDate, endDate).stream()
-        .map(this::mapToResponse)
-        .collect(Collectors.toList());
+  @Transactional(readOnly = true)
+  public CursorPage<BodyMeasurementResponse> getUserMeasurementsPage(String userId, String cursor, Integer limit,
+      FieldSet fields) {
+    PageCursor after = PageCursor.decode(cursor);
+    int size = PageCursor.clampLimit(limit);
+    Limit fetch = Limit.of(size + 1);
+    boolean full = fields.includes(MEASUREMENTS);
+    List<BodyMeasurementResponse> rows;
+    if (after == null) {
+      rows = full
+          ? measurementRepository.findResponsePage(userId, fetch)
+          : measurementRepository.findSummaryPage(userId, fetch);
+    } else {
+      rows = full
+          ? measurementRepository.findResponsePageAfter(userId, after.keyAsDate(), after.id(), fetch)
+          : measurementRepository.findSummaryPageAfter(userId, after.keyAsDate(), after.id(), fetch);
+    }
+    return PageCursor.toPage(rows, size,
+        m -> new PageCursor(m.getMeasurementDate().toString(), m.getId()), m -> m);
+  }
+
+  @Transactional(readOnly = true)
+  @ReadFromPrimary
+  public List<BodyMeasurementResponse> getMeasurementsByDateRange(String userId, LocalDate startDate,
+      LocalDate endDate, FieldSet fields) {
+    return fields.includes(MEASUREMENTS)
+        ? measurementRepository.findResponsesInRange(userId, startDate, endDate)
+        : measurementRepository.findSummariesInRange(userId, startDate, endDate);
   }
 
+  @Transactional
+  @CacheEvict(cacheNames = CacheConfig.USER_MEASUREMENTS_VERSION, key = "#userId")
   public void deleteMeasurement(String id, String userId) {
     BodyMeasurement measurement = measurementRepository.findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Measurement not found"));
@@ -134,12 +174,7 @@ public class BodyMeasurementService {
     measurementRepository.delete(measurement);
   }
 
-  private BodyMeasurementResponse mapToResponse(BodyMeasurement measurement) {
-    String photoUrl = null;
-    if (measurement.getProgressPhoto() != null) {
-      photoUrl = "/api/files/" + measurement.getProgressPhoto().getId();
-    }
-
+  BodyMeasurementResponse mapToResponse(BodyMeasurement measurement) {
     return new BodyMeasurementResponse(
         measurement.getId(),
         measurement.getUser().getId(),
@@ -150,7 +185,7 @@ public class BodyMeasurementService {
         measurement.getMuscleMass(),
         measurement.getBmi(),
         measurement.getMeasurements(),
-        photoUrl,
+        measurement.getProgressPhoto() != null ? measurement.getProgressPhoto().getId() : null,
         measurement.getNotes(),
         measurement.getCreatedAt()
     );
@@ -0,0 +1,299 @@
+package com.project.fitness.service;
+
+import com.project.fitness.dto.FileUploadResponse;
+import com.project.fitness.dto.UploadSessionRequest;
+import com.project.fitness.dto.UploadSessionResponse;
+import com.project.fitness.exceptions.BadRequestException;
+import com.project.fitness.exceptions.ConflictException;
+import com.project.fitness.exceptions.ResourceNotFoundException;
+import com.project.fitness.model.UploadSession;
+import com.project.fitness.model.User;
+import com.project.fitness.repository.UploadSessionRepository;
+import com.project.fitness.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+/**
+ * Resumable uploads: init a session, PUT raw chunks at the current offset (appended to a temp file
+ * with NIO, never buffered in heap or by the multipart resolver), then complete, which verifies size
+ * and checksum and moves the temp file into storage.
+ *
+ * <p>Every request that touches the temp file holds an exclusive {@link FileChannel#tryLock() file
+ * lock} on it and re-reads the session under that lock, so two requests for the same session never
+ * write, truncate or move the file at the same time; the loser gets 409 and re-reads the offset. A
+ * completed session is kept (with its {@code fileId}) until it expires, so a repeated complete is
+ * answered with 409 as well.
+ */
+@Service
+public class ChunkedUploadService {
+
+  private static final Logger log = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+  private final UploadSessionRepository sessionRepository;
+  private final UserRepository userRepository;
+  private final FileUploadService fileUploadService;
+  private final FileStorageService fileStorageService;
+  private final long maxFileSize;
+  private final long maxChunkSize;
+  private final Duration sessionTtl;
+
+  public ChunkedUploadService(UploadSessionRepository sessionRepository,
+                              UserRepository userRepository,
+                              FileUploadService fileUploadService,
+                              FileStorageService fileStorageService,
+                              @Value("${file.upload.max-size:1GB}") DataSize maxFileSize,
+                              @Value("${file.upload.max-chunk-size:16MB}") DataSize maxChunkSize,
+                              @Value("${file.upload.session-ttl:24h}") Duration sessionTtl) {
+    this.sessionRepository = sessionRepository;
+    this.userRepository = userRepository;
+    this.fileUploadService = fileUploadService;
+    this.fileStorageService = fileStorageService;
+    this.maxFileSize = maxFileSize.toBytes();
+    this.maxChunkSize = maxChunkSize.toBytes();
+    this.sessionTtl = sessionTtl;
+  }
+
+  public UploadSessionResponse createSession(UploadSessionRequest request, String userId) {
+    if (request.getTotalSize() > maxFileSize) {
+      throw new BadRequestException("File exceeds the maximum upload size of " + maxFileSize + " bytes");
+    }
+    User user = userRepository.findById(userId)
+        .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+    try {
+      Path temp = Files.createTempFile(fileStorageService.tempDirectory(), "chunked-", ".part");
+      UploadSession session = UploadSession.builder()
+          .user(user)
+          .fileName(request.getFileName())
+          .fileType(request.getFileType())
+          .totalSize(request.getTotalSize())
+          .expectedChecksum(request.getChecksum() != null ? request.getChecksum().toLowerCase() : null)
+          .tempPath(temp.toString())
+          .build();
+      return mapToResponse(sessionRepository.save(session));
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to create upload session: " + e.getMessage());
+    }
+  }
+
+  public UploadSessionResponse getSession(String sessionId, String userId) {
+    return mapToResponse(findOwnedSession(sessionId, userId));
+  }
+
+  /**
+   * Appends one chunk. {@code offset} must equal the bytes received so far; a client that lost track
+   * (e.g. after a dropped connection) asks {@link #getSession} for the offset to resume from.
+   */
+  public UploadSessionResponse appendChunk(String sessionId, String userId, long offset, InputStream body) {
+    UploadSession session = findOwnedSession(sessionId, userId);
+    checkOffset(session, offset);
+
+    Path temp = Paths.get(session.getTempPath());
+    try (FileChannel channel = openLocked(temp);
+         ReadableByteChannel source = Channels.newChannel(body)) {
+      // Re-read under the lock: another chunk may have been committed since the check above
+      UploadSession current = reload(session);
+      checkOffset(current, offset);
+      channel.truncate(offset); // bytes past the committed offset are left over from a failed chunk
+
+      long allowed = Math.min(maxChunkSize, current.getTotalSize() - offset);
+      long written = transferChunk(source, channel, offset, allowed);
+      if (written > allowed) {
+        channel.truncate(offset); // oversized chunk: drop it, the client may retry at the same offset
+        throw new BadRequestException("Chunk exceeds the allowed " + allowed + " bytes at this offset");
+      }
+
+      current.setReceivedBytes(offset + written);
+      return mapToResponse(sessionRepository.save(current));
+    } catch (ObjectOptimisticLockingFailureException e) {
+      throw new ConflictException("Upload session was modified concurrently, re-read the offset");
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to write chunk: " + e.getMessage());
+    }
+  }
+
+  public FileUploadResponse complete(String sessionId, String userId) {
+    UploadSession session = findOwnedSession(sessionId, userId);
+    checkNotCompleted(session);
+
+    Path temp = Paths.get(session.getTempPath());
+    try (FileChannel channel = openLocked(temp)) {
+      UploadSession current = reload(session);
+      checkNotCompleted(current);
+      if (!current.getReceivedBytes().equals(current.getTotalSize())) {
+        throw new BadRequestException("Upload incomplete: received " + current.getReceivedBytes()
+            + " of " + current.getTotalSize() + " bytes");
+      }
+
+      String contentHash = sha256(channel);
+      if (current.getExpectedChecksum() != null && !current.getExpectedChecksum().equals(contentHash)) {
+        discard(current);
+        throw new BadRequestException("Checksum mismatch, upload discarded");
+      }
+
+      // Moved while still locked; the session stays behind as a record of the result
+      FileUploadResponse response = fileUploadService.uploadFromTemp(
+          temp, contentHash, current.getFileName(), current.getFileType(), userId);
+      current.setFileId(response.getId());
+      sessionRepository.save(current);
+      return response;
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to complete upload: " + e.getMessage());
+    }
+  }
+
+  public void abort(String sessionId, String userId) {
+    UploadSession session = findOwnedSession(sessionId, userId);
+    checkNotCompleted(session);
+    try (FileChannel channel = openLocked(Paths.get(session.getTempPath()))) {
+      discard(reload(session));
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to abort upload: " + e.getMessage());
+    }
+  }
+
+  // Under the session's file lock like every other request; a session whose lock is held is in use
+  // and left for the next run
+  @Scheduled(fixedDelayString = "${file.upload.cleanup-interval:PT1H}")
+  public void purgeExpiredSessions() {
+    LocalDateTime cutoff = LocalDateTime.now().minus(sessionTtl);
+    for (UploadSession session : sessionRepository.findByUpdatedAtBefore(cutoff)) {
+      if (session.getFileId() != null) {
+        log.info("Discarding expired upload session {}", session.getId());
+        sessionRepository.delete(session); // completed: the temp file was moved into storage
+        continue;
+      }
+      try (FileChannel channel = openLocked(Paths.get(session.getTempPath()))) {
+        UploadSession current = reload(session);
+        if (current.getFileId() == null && current.getUpdatedAt().isBefore(cutoff)) {
+          log.info("Discarding expired upload session {}", current.getId());
+          discard(current);
+        }
+      } catch (ConflictException e) {
+        log.debug("Skipping upload session {}: {}", session.getId(), e.getMessage());
+      } catch (IOException e) {
+        log.warn("Could not purge upload session {}: {}", session.getId(), e.getMessage());
+      }
+    }
+  }
+
+  // Reads at most limit + 1 bytes so an oversized chunk is detected without consuming the whole body
+  private long transferChunk(ReadableByteChannel source, FileChannel target, long offset, long limit)
+      throws IOException {
+    long total = 0;
+    while (total <= limit) {
+      long transferred = target.transferFrom(source, offset + total, limit + 1 - total);
+      if (transferred <= 0) {
+        break;
+      }
+      total += transferred;
+    }
+    return total;
+  }
+
+  private String sha256(FileChannel channel) throws IOException {
+    MessageDigest digest = FileStorageService.sha256();
+    ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    long position = 0;
+    int read;
+    while ((read = channel.read(buffer, position)) != -1) {
+      position += read;
+      buffer.flip();
+      digest.update(buffer);
+      buffer.clear();
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  // Opens the temp file holding its exclusive lock (released when the channel closes). Another
+  // request of this session holding it, or the file already moved into storage, is a conflict.
+  private FileChannel openLocked(Path temp) throws IOException {
+    FileChannel channel;
+    try {
+      channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    } catch (NoSuchFileException e) {
+      throw new ConflictException("Upload already completed or aborted");
+    }
+    FileLock lock;
+    try {
+      lock = channel.tryLock();
+    } catch (OverlappingFileLockException e) {
+      lock = null;
+    }
+    if (lock == null) {
+      channel.close();
+      throw new ConflictException("Another request is in progress for this upload, re-read the offset");
+    }
+    return channel;
+  }
+
+  private UploadSession reload(UploadSession session) {
+    return sessionRepository.findById(session.getId())
+        .orElseThrow(() -> new ConflictException("Upload already completed or aborted"));
+  }
+
+  private void checkOffset(UploadSession session, long offset) {
+    checkNotCompleted(session);
+    if (offset != session.getReceivedBytes()) {
+      throw new ConflictException("Expected offset " + session.getReceivedBytes() + " but got " + offset);
+    }
+  }
+
+  private void checkNotCompleted(UploadSession session) {
+    if (session.getFileId() != null) {
+      throw new ConflictException("Upload already completed as file " + session.getFileId());
+    }
+  }
+
+  private void discard(UploadSession session) {
+    try {
+      Files.deleteIfExists(Paths.get(session.getTempPath()));
+    } catch (IOException e) {
+      log.warn("Could not delete temp file {}: {}", session.getTempPath(), e.getMessage());
+    }
+    sessionRepository.delete(session);
+  }
+
+  private UploadSession findOwnedSession(String sessionId, String userId) {
+    UploadSession session = sessionRepository.findById(sessionId)
+        .orElseThrow(() -> new ResourceNotFoundException("Upload session not found"));
+    if (!session.getUser().getId().equals(userId)) {
+      throw new BadRequestException("Unauthorized");
+    }
+    return session;
+  }
+
+  private UploadSessionResponse mapToResponse(UploadSession session) {
+    return new UploadSessionResponse(
+        session.getId(),
+        session.getFileName(),
+        session.getFileType(),
+        session.getTotalSize(),
+        session.getReceivedBytes(),
+        session.getCreatedAt()
+    );
+  }
+}
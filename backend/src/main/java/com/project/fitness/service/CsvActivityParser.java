@@ -0,0 +1,213 @@
+package com.project.fitness.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.fitness.dto.ActivityRequest;
+import com.project.fitness.model.ActivityType;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Incremental CSV reader for activity imports: one record at a time from a {@link BufferedReader}, quoted
+ * fields (RFC 4180, including embedded newlines) supported. Columns are matched by header name,
+ * case- and punctuation-insensitively, so this app's own export and common tracker exports both load;
+ * unrecognised columns end up in {@code additionalMetrics}.
+ */
+final class CsvActivityParser {
+
+  private static final Set<String> IGNORED = Set.of("id", "userid", "createdat", "updatedat");
+
+  private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<>() {
+  };
+
+  private final ObjectMapper objectMapper;
+  private final ActivityType defaultType;
+
+  CsvActivityParser(ObjectMapper objectMapper, ActivityType defaultType) {
+    this.objectMapper = objectMapper;
+    this.defaultType = defaultType;
+  }
+
+  void parse(BufferedReader reader, Consumer<ImportRecord> sink) throws IOException {
+    List<String> header = readRecord(reader);
+    if (header == null) {
+      return;
+    }
+    List<String> keys = header.stream().map(CsvActivityParser::normalize).toList();
+    long number = 0;
+    List<String> fields;
+    while ((fields = readRecord(reader)) != null) {
+      if (fields.size() == 1 && fields.get(0).isBlank()) {
+        continue;
+      }
+      number++;
+      try {
+        sink.accept(ImportRecord.of(number, toRequest(keys, header, fields)));
+      } catch (IllegalArgumentException e) {
+        sink.accept(ImportRecord.rejected(number, e.getMessage()));
+      }
+    }
+  }
+
+  private ActivityRequest toRequest(List<String> keys, List<String> header, List<String> fields) {
+    ActivityRequest request = new ActivityRequest();
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    for (int i = 0; i < keys.size() && i < fields.size(); i++) {
+      String value = unescapeFormula(fields.get(i).trim());
+      if (value.isEmpty() || IGNORED.contains(keys.get(i))) {
+        continue;
+      }
+      switch (keys.get(i)) {
+        case "type", "activitytype", "activity", "sport" -> request.setType(mapType(value));
+        case "starttime", "start", "startdate", "datetime" -> request.setStartTime(parseDateTime(value));
+        case "date" -> request.setDate(parseDateTime(value));
+        case "duration", "durationminutes", "minutes" -> request.setDuration((int) Math.round(number(value)));
+        case "durationseconds", "seconds", "elapsedtime" -> request.setDuration(
+            (int) Math.max(1, Math.round(number(value) / 60)));
+        case "caloriesburned", "calories", "kcal" -> request.setCaloriesBurned((int) Math.round(number(value)));
+        case "distance", "distancekm", "km" -> request.setDistance(number(value));
+        case "distancemiles", "miles" -> request.setDistance(number(value) * 1.609344);
+        case "distancem", "distancemeters", "meters" -> request.setDistance(number(value) / 1000);
+        case "intensity" -> request.setIntensity(value.toUpperCase(Locale.ROOT));
+        case "notes", "name", "title", "description" -> request.setNotes(value);
+        case "additionalmetrics" -> metrics.putAll(jsonObject(value));
+        default -> metrics.put(header.get(i).trim(), numberOrText(value));
+      }
+    }
+    if (request.getType() == null) {
+      request.setType(defaultType);
+    }
+    if (request.getCaloriesBurned() == null) {
+      request.setCaloriesBurned(0); // most trackers' CSVs have no calories column
+    }
+    request.setAdditionalMetrics(metrics.isEmpty() ? null : metrics);
+    return request;
+  }
+
+  /** Maps tracker vocabularies (run, ride, hike, strength...) onto {@link ActivityType}. */
+  static ActivityType mapType(String raw) {
+    String type = raw.trim().toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_');
+    try {
+      return ActivityType.valueOf(type);
+    } catch (IllegalArgumentException e) {
+      return switch (type) {
+        case "RUN", "TRAIL_RUN", "TRAIL_RUNNING", "JOG", "JOGGING" -> ActivityType.RUNNING;
+        case "WALK", "HIKE", "HIKING" -> ActivityType.WALKING;
+        case "RIDE", "BIKE", "BIKING", "CYCLE", "VIRTUAL_RIDE", "MOUNTAIN_BIKING" -> ActivityType.CYCLING;
+        case "SWIM", "OPEN_WATER_SWIMMING", "POOL_SWIM" -> ActivityType.SWIMMING;
+        case "STRENGTH", "STRENGTH_TRAINING", "WEIGHTS", "WEIGHTLIFTING" -> ActivityType.WEIGHT_TRAINING;
+        default -> ActivityType.OTHER;
+      };
+    }
+  }
+
+  /** ISO local or offset date-times, "yyyy-MM-dd HH:mm[:ss]", or a bare date (start of day). */
+  static LocalDateTime parseDateTime(String value) {
+    String text = value.trim().replace(' ', 'T');
+    try {
+      return LocalDateTime.parse(text);
+    } catch (DateTimeParseException ignored) {
+      // try the other shapes
+    }
+    try {
+      return OffsetDateTime.parse(text).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    } catch (DateTimeParseException ignored) {
+      // try a bare date
+    }
+    try {
+      return LocalDate.parse(text).atStartOfDay();
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid date/time: " + value);
+    }
+  }
+
+  private static double number(String value) {
+    try {
+      return Double.parseDouble(value.replace(',', '.'));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid number: " + value);
+    }
+  }
+
+  private static Object numberOrText(String value) {
+    try {
+      return Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      return value;
+    }
+  }
+
+  private Map<String, Object> jsonObject(String value) {
+    try {
+      return objectMapper.readValue(value, JSON_OBJECT);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Invalid additionalMetrics JSON");
+    }
+  }
+
+  // Reverses the export's spreadsheet-formula guard ('=..., '+..., '-..., '@...)
+  private static String unescapeFormula(String value) {
+    return value.length() > 1 && value.charAt(0) == '\'' && "=+-@".indexOf(value.charAt(1)) >= 0
+        ? value.substring(1)
+        : value;
+  }
+
+  private static String normalize(String header) {
+    return header.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+  }
+
+  // One logical record; null at end of input. Line breaks inside quotes belong to the field.
+  private static List<String> readRecord(BufferedReader reader) throws IOException {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    boolean any = false;
+    int c;
+    while ((c = reader.read()) != -1) {
+      any = true;
+      if (quoted) {
+        if (c == '"') {
+          reader.mark(1);
+          int next = reader.read();
+          if (next == '"') {
+            field.append('"');
+          } else {
+            quoted = false;
+            if (next != -1) {
+              reader.reset();
+            }
+          }
+        } else {
+          field.append((char) c);
+        }
+      } else if (c == '"' && field.isEmpty()) {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if (c == '\n') {
+        break;
+      } else if (c != '\r') {
+        field.append((char) c);
+      }
+    }
+    if (!any) {
+      return null;
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+}
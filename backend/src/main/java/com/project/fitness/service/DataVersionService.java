@@ -0,0 +1,38 @@
+package com.project.fitness.service;
+
+import java.util.UUID;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+/**
+ * Per-user version of a data set (activities, goals, measurements), served as a weak ETag by the
+ * list endpoints so that an unchanged list is answered with 304 before any query runs.
+ *
+ * <p>The version is a random token held in one of the {@code *Version} caches of
+ * {@link com.project.fitness.config.CacheConfig}. Every write that changes the data set evicts it
+ * (next to the cached list), and the next read mints a new one. Tokens are never reused, so a tag
+ * from before an eviction, an expiry or a restart can't match by accident.
+ *
+ * <p>With the in-process cache a write only bumps the version on the instance that served it, so this
+ * assumes a single instance (as the list caches do); with {@code CACHE_TYPE=redis} all instances share
+ * the versions.
+ */
+@Service
+public class DataVersionService {
+
+  private final CacheManager cacheManager;
+
+  public DataVersionService(CacheManager cacheManager) {
+    this.cacheManager = cacheManager;
+  }
+
+  /** Current weak ETag of the user's data in {@code versionCache}; read it before loading the data. */
+  public String etag(String versionCache, String userId) {
+    Cache versions = cacheManager.getCache(versionCache);
+    if (versions == null) {
+      throw new IllegalStateException("Unknown version cache: " + versionCache);
+    }
+    return "W/\"" + versions.get(userId, () -> UUID.randomUUID().toString()) + "\"";
+  }
+}
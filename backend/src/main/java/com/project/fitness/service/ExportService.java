@@ -0,0 +1,232 @@
+package com.project.fitness.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.fitness.exceptions.BadRequestException;
+import com.project.fitness.model.Activity;
+import com.project.fitness.model.BodyMeasurement;
+import com.project.fitness.model.Goal;
+import com.project.fitness.repository.ActivityRepository;
+import com.project.fitness.repository.BodyMeasurementRepository;
+import com.project.fitness.repository.GoalRepository;
+import jakarta.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Streams a user's full history as NDJSON or CSV. Rows come from a JPA {@link Stream} (a JDBC cursor
+ * with a fetch size, inside a read-only transaction) and each entity is detached once written, so
+ * memory stays constant however long the history is.
+ */
+@Service
+public class ExportService {
+
+  public enum Format {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    Format(String contentType, String extension) {
+      this.contentType = contentType;
+      this.extension = extension;
+    }
+
+    public String getContentType() {
+      return contentType;
+    }
+
+    public String getExtension() {
+      return extension;
+    }
+
+    public static Format fromParam(String format) {
+      if (format == null || format.isBlank()) {
+        return NDJSON;
+      }
+      try {
+        return valueOf(format.trim().toUpperCase());
+      } catch (IllegalArgumentException e) {
+        throw new BadRequestException("Unknown export format: " + format + " (expected ndjson or csv)");
+      }
+    }
+  }
+
+  private record Column<T>(String name, Function<T, Object> value) {
+  }
+
+  private static final int FLUSH_EVERY = 500;
+
+  private static final List<Column<Activity>> ACTIVITY_COLUMNS = List.of(
+      new Column<>("id", Activity::getId),
+      new Column<>("type", Activity::getType),
+      new Column<>("startTime", Activity::getStartTime),
+      new Column<>("date", Activity::getDate),
+      new Column<>("duration", Activity::getDuration),
+      new Column<>("caloriesBurned", Activity::getCaloriesBurned),
+      new Column<>("distance", Activity::getDistance),
+      new Column<>("intensity", Activity::getIntensity),
+      new Column<>("notes", Activity::getNotes),
+      new Column<>("additionalMetrics", Activity::getAdditionalMetrics),
+      new Column<>("createdAt", Activity::getCreatedAt));
+
+  private static final List<Column<BodyMeasurement>> MEASUREMENT_COLUMNS = List.of(
+      new Column<>("id", BodyMeasurement::getId),
+      new Column<>("measurementDate", BodyMeasurement::getMeasurementDate),
+      new Column<>("weight", BodyMeasurement::getWeight),
+      new Column<>("height", BodyMeasurement::getHeight),
+      new Column<>("bodyFat", BodyMeasurement::getBodyFat),
+      new Column<>("muscleMass", BodyMeasurement::getMuscleMass),
+      new Column<>("bmi", BodyMeasurement::getBmi),
+      new Column<>("measurements", BodyMeasurement::getMeasurements),
+      // Lazy proxy: reading the id does not load the upload row
+      new Column<>("photoId", m -> m.getProgressPhoto() != null ? m.getProgressPhoto().getId() : null),
+      new Column<>("notes", BodyMeasurement::getNotes),
+      new Column<>("createdAt", BodyMeasurement::getCreatedAt));
+
+  private static final List<Column<Goal>> GOAL_COLUMNS = List.of(
+      new Column<>("id", Goal::getId),
+      new Column<>("title", Goal::getTitle),
+      new Column<>("description", Goal::getDescription),
+      new Column<>("type", Goal::getType),
+      new Column<>("targetValue", Goal::getTargetValue),
+      new Column<>("currentValue", Goal::getCurrentValue),
+      new Column<>("unit", Goal::getUnit),
+      new Column<>("startDate", Goal::getStartDate),
+      new Column<>("deadline", Goal::getDeadline),
+      new Column<>("status", Goal::getStatus),
+      new Column<>("createdAt", Goal::getCreatedAt),
+      new Column<>("updatedAt", Goal::getUpdatedAt));
+
+  private final ActivityRepository activityRepo;
+  private final BodyMeasurementRepository measurementRepo;
+  private final GoalRepository goalRepo;
+  private final EntityManager entityManager;
+  private final TransactionTemplate readOnlyTransaction;
+  private final ObjectMapper objectMapper;
+
+  public ExportService(ActivityRepository activityRepo, BodyMeasurementRepository measurementRepo,
+      GoalRepository goalRepo, EntityManager entityManager, PlatformTransactionManager transactionManager,
+      ObjectMapper objectMapper) {
+    this.activityRepo = activityRepo;
+    this.measurementRepo = measurementRepo;
+    this.goalRepo = goalRepo;
+    this.entityManager = entityManager;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.objectMapper = objectMapper;
+  }
+
+  /** The body runs later on the async request executor; the resource name is validated up front. */
+  public StreamingResponseBody export(String userId, String resource, Format format) {
+    return switch (resource) {
+      case "activities" -> out -> write(out, format, ACTIVITY_COLUMNS, () -> activityRepo.streamByUserId(userId));
+      case "measurements" -> out -> write(out, format, MEASUREMENT_COLUMNS,
+          () -> measurementRepo.streamByUserId(userId));
+      case "goals" -> out -> write(out, format, GOAL_COLUMNS, () -> goalRepo.streamByUserId(userId));
+      default -> throw new BadRequestException("Unknown export: " + resource
+          + " (expected activities, measurements or goals)");
+    };
+  }
+
+  private <T> void write(OutputStream out, Format format, List<Column<T>> columns, Supplier<Stream<T>> rows) {
+    readOnlyTransaction.executeWithoutResult(status -> {
+      try (Stream<T> stream = rows.get()) {
+        if (format == Format.CSV) {
+          writeCsv(out, columns, stream.iterator());
+        } else {
+          writeNdjson(out, columns, stream.iterator());
+        }
+      } catch (IOException e) {
+        // Usually the client went away; ends the transaction and the cursor
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+  private <T> void writeNdjson(OutputStream out, List<Column<T>> columns, Iterator<T> rows) throws IOException {
+    try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+      json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      json.setRootValueSeparator(null); // lines are separated explicitly below
+      int count = 0;
+      while (rows.hasNext()) {
+        T row = rows.next();
+        json.writeStartObject();
+        for (Column<T> column : columns) {
+          json.writeFieldName(column.name());
+          json.writeObject(column.value().apply(row));
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+        entityManager.detach(row);
+        if (++count % FLUSH_EVERY == 0) {
+          json.flush();
+        }
+      }
+    }
+  }
+
+  private <T> void writeCsv(OutputStream out, List<Column<T>> columns, Iterator<T> rows) throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    for (int i = 0; i < columns.size(); i++) {
+      writer.write(i == 0 ? "" : ",");
+      writer.write(columns.get(i).name());
+    }
+    writer.write("\r\n");
+    int count = 0;
+    while (rows.hasNext()) {
+      T row = rows.next();
+      for (int i = 0; i < columns.size(); i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        writer.write(csvField(columns.get(i).value().apply(row)));
+      }
+      writer.write("\r\n");
+      entityManager.detach(row);
+      if (++count % FLUSH_EVERY == 0) {
+        writer.flush();
+      }
+    }
+    writer.flush();
+  }
+
+  // RFC 4180 quoting; maps (JSON columns) are embedded as JSON. Text starting with a formula
+  // character is prefixed with ' so spreadsheets do not evaluate it.
+  private String csvField(Object value) throws IOException {
+    if (value == null) {
+      return "";
+    }
+    if (value instanceof Number || value instanceof Enum<?>) {
+      return value.toString();
+    }
+    String text = value instanceof Map<?, ?> map ? objectMapper.writeValueAsString(map)
+        : value instanceof LocalDateTime dateTime ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime)
+        : value.toString();
+    if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+      text = "'" + text;
+    }
+    if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+      return '"' + text.replace("\"", "\"\"") + '"';
+    }
+    return text;
+  }
+}
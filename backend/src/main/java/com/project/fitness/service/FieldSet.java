@@ -0,0 +1,77 @@
+package com.project.fitness.service;
+
+import com.project.fitness.exceptions.BadRequestException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldset from a {@code ?fields=} parameter: comma-separated property names of a list
+ * response. Only those properties (and always {@code id}) are written, and the list queries leave
+ * out the heavy columns (JSON metrics, recommendation lists, milestones) nobody asked for.
+ * No parameter means every field.
+ */
+public final class FieldSet {
+
+  /** Jackson filter id the response DTOs are serialized through (see {@code JacksonConfig}). */
+  public static final String FILTER_ID = "fieldSet";
+
+  public static final FieldSet ALL = new FieldSet(null);
+
+  private static final ClassValue<Set<String>> PROPERTIES = new ClassValue<>() {
+    @Override
+    protected Set<String> computeValue(Class<?> type) {
+      return Arrays.stream(type.getDeclaredFields())
+          .filter(f -> !Modifier.isStatic(f.getModifiers()))
+          .map(Field::getName)
+          .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+  };
+
+  private final Set<String> names;
+
+  private FieldSet(Set<String> names) {
+    this.names = names;
+  }
+
+  /** Parses {@code fields} against the properties of {@code responseType}; unknown names are rejected. */
+  public static FieldSet parse(String fields, Class<?> responseType) {
+    Set<String> names = names(fields);
+    if (names.isEmpty()) {
+      return ALL;
+    }
+    Set<String> known = PROPERTIES.get(responseType);
+    for (String name : names) {
+      if (!known.contains(name)) {
+        throw new BadRequestException("Unknown field '" + name + "', expected any of " + known);
+      }
+    }
+    names.add("id");
+    return new FieldSet(Collections.unmodifiableSet(names));
+  }
+
+  /** The names listed in a raw {@code fields} parameter, without validation. */
+  public static Set<String> names(String fields) {
+    Set<String> names = new LinkedHashSet<>();
+    if (fields != null) {
+      for (String name : fields.split(",")) {
+        if (!name.isBlank()) {
+          names.add(name.trim());
+        }
+      }
+    }
+    return names;
+  }
+
+  public boolean includes(String field) {
+    return names == null || names.contains(field);
+  }
+
+  public boolean includesAny(String... fields) {
+    return names == null || Arrays.stream(fields).anyMatch(names::contains);
+  }
+}
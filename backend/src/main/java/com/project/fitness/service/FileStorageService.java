@@ -0,0 +1,200 @@
+package com.project.fitness.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Physical storage for uploaded files.
+ *
+ * <p>In {@code content-addressed} mode (the default) every blob is stored once under its SHA-256
+ * digest in sharded directories ({@code blobs/ab/cd/abcd...}); {@code FileUpload} rows carrying the
+ * same digest share it, and the blob is only deleted when the last row referencing it goes. In
+ * {@code unique} mode each upload gets its own UUID-named file as before.
+ *
+ * <p>Placing/referencing and releasing a digest are serialized with striped in-process locks so a
+ * concurrent delete can never remove a blob that a new row is about to reference. If the reference
+ * (the row insert) fails, the blob is removed again unless another row already uses it.
+ */
+@Service
+public class FileStorageService {
+
+  public static final String MODE_CONTENT_ADDRESSED = "content-addressed";
+
+  public record StoredBlob(Path path, String contentHash, long size) {
+  }
+
+  private static final int LOCK_STRIPES = 64;
+
+  private final Path root;
+  private final boolean contentAddressed;
+  private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+  public FileStorageService(
+      @Value("${file.upload-dir:./uploads}") String uploadDir,
+      @Value("${file.storage.mode:" + MODE_CONTENT_ADDRESSED + "}") String mode) {
+    this.root = Paths.get(uploadDir);
+    this.contentAddressed = MODE_CONTENT_ADDRESSED.equalsIgnoreCase(mode);
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      locks[i] = new ReentrantLock();
+    }
+  }
+
+  /**
+   * Copies the stream to a temp file while hashing it (single pass), places the blob and runs
+   * {@code reference} (typically the row insert) while the digest is locked. Should it throw, the blob
+   * is deleted if {@code unreferenced} reports that no other row points at it.
+   */
+  public <T> T store(InputStream in, String extension, Function<StoredBlob, T> reference,
+      Predicate<Path> unreferenced) throws IOException {
+    Path temp = newTempFile();
+    try {
+      MessageDigest digest = sha256();
+      long size;
+      try (DigestInputStream hashing = new DigestInputStream(in, digest)) {
+        size = Files.copy(hashing, temp, StandardCopyOption.REPLACE_EXISTING);
+      }
+      return place(temp, HexFormat.of().formatHex(digest.digest()), size, extension, reference, unreferenced);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Places an already-written temp file (under {@link #tempDirectory()}) whose digest is known.
+   * The temp file is moved, not copied.
+   */
+  public <T> T storeFile(Path temp, String contentHash, String extension,
+      Function<StoredBlob, T> reference, Predicate<Path> unreferenced) throws IOException {
+    try {
+      return place(temp, contentHash, Files.size(temp), extension, reference, unreferenced);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Deletes the blob (and its image variants) if {@code unreferenced} reports that no row points at it any more. Files without
+   * a digest (uploads from before content addressing) are never shared and are deleted directly.
+   */
+  public void release(Path path, String contentHash, BooleanSupplier unreferenced) {
+    if (contentHash == null) {
+      deleteWithVariants(path);
+      return;
+    }
+    ReentrantLock lock = lockFor(contentHash);
+    lock.lock();
+    try {
+      if (unreferenced.getAsBoolean()) {
+        deleteWithVariants(path);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public Path tempDirectory() throws IOException {
+    return Files.createDirectories(root.resolve("tmp"));
+  }
+
+  public static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  private <T> T place(Path temp, String contentHash, long size, String extension,
+      Function<StoredBlob, T> reference, Predicate<Path> unreferenced) throws IOException {
+    if (!contentAddressed) {
+      Path target = Files.createDirectories(root).resolve(UUID.randomUUID() + extension);
+      move(temp, target);
+      return reference(new StoredBlob(target, contentHash, size), reference, path -> true);
+    }
+
+    Path target = blobPath(contentHash);
+    ReentrantLock lock = lockFor(contentHash);
+    lock.lock();
+    try {
+      if (!Files.exists(target)) {
+        Files.createDirectories(target.getParent());
+        move(temp, target);
+      }
+      return reference(new StoredBlob(target, contentHash, size), reference, unreferenced);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // A failed insert must not leave an orphaned blob; runs under the digest lock in content-addressed mode
+  private static <T> T reference(StoredBlob blob, Function<StoredBlob, T> reference,
+      Predicate<Path> unreferenced) {
+    try {
+      return reference.apply(blob);
+    } catch (RuntimeException e) {
+      try {
+        if (unreferenced.test(blob.path())) {
+          deleteWithVariants(blob.path());
+        }
+      } catch (RuntimeException cleanup) {
+        e.addSuppressed(cleanup);
+      }
+      throw e;
+    }
+  }
+
+  private Path blobPath(String contentHash) {
+    return root.resolve("blobs")
+        .resolve(contentHash.substring(0, 2))
+        .resolve(contentHash.substring(2, 4))
+        .resolve(contentHash);
+  }
+
+  private Path newTempFile() throws IOException {
+    return Files.createTempFile(tempDirectory(), "upload-", ".part");
+  }
+
+  private ReentrantLock lockFor(String contentHash) {
+    return locks[Math.floorMod(contentHash.hashCode(), LOCK_STRIPES)];
+  }
+
+  private static void move(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private static void deleteWithVariants(Path path) {
+    delete(path);
+    for (ImageVariant variant : ImageVariant.values()) {
+      delete(variant.resolve(path));
+    }
+  }
+
+  private static void delete(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to delete file: " + e.getMessage(), e);
+    }
+  }
+}
@@ -1,37 +1,64 @@
 package com.project.fitness.service;
 
+import com.project.fitness.dto.CursorPage;
 import com.project.fitness.dto.FileUploadResponse;
+import com.project.fitness.dto.StoredFile;
 import com.project.fitness.exceptions.BadRequestException;
 import com.project.fitness.exceptions.ResourceNotFoundException;
 import com.project.fitness.model.FileUpload;
 import com.project.fitness.model.User;
 import com.project.fitness.repository.FileUploadRepository;
 import com.project.fitness.repository.UserRepository;
-import org.springframework.beans.factory.annotation.Value;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
+/**
+ * Uploads and their metadata rows. Reads run in read-only transactions; uploads and deletes do not
+ * open one, because they do file I/O and a surrounding transaction would hold a pooled connection
+ * for the whole copy. Each of them issues a single auto-committed insert or delete instead.
+ *
+ * <p>Shared content-addressed blobs are reference-counted by their rows: {@link #deleteFile} removes the
+ * row, then deletes the blob if no row uses its path any more. That check and a concurrent upload of
+ * the same content are only serialized by {@link FileStorageService}'s in-process locks, so this is
+ * safe with a single instance writing to the upload directory. Several instances sharing it would need
+ * a shared lock (e.g. a row lock per digest) instead.
+ */
 @Service
 public class FileUploadService {
 
   private final FileUploadRepository fileUploadRepository;
   private final UserRepository userRepository;
-
-  @Value("${file.upload-dir:./uploads}")
-  private String uploadDir;
-
-  public FileUploadService(FileUploadRepository fileUploadRepository, UserRepository userRepository) {
+  private final FileStorageService fileStorageService;
+  private final ImageVariantService imageVariantService;
+  private final MeterRegistry meterRegistry;
+  private final DistributionSummary bytesServed;
+
+  public FileUploadService(FileUploadRepository fileUploadRepository, UserRepository userRepository,
+                           FileStorageService fileStorageService, ImageVariantService imageVariantService,
+                           MeterRegistry meterRegistry) {
     this.fileUploadRepository = fileUploadRepository;
     this.userRepository = userRepository;
+    this.fileStorageService = fileStorageService;
+    this.imageVariantService = imageVariantService;
+    this.meterRegistry = meterRegistry;
+    this.bytesServed = DistributionSummary.builder("storage.read.bytes")
+        .description("Bytes of stored files sent to clients")
+        .baseUnit("bytes")
+        .register(meterRegistry);
   }
 
   public FileUploadResponse uploadFile(MultipartFile file, String userId) {
@@ -42,34 +69,22 @@ public class FileUploadService {
     User user = userRepository.findById(userId)
         .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-    try {
-      // Create upload directory if it doesn't exist
-      Path uploadPath = Paths.get(uploadDir);
-      if (!Files.exists(uploadPath)) {
-        Files.createDirectories(uploadPath);
-      }
-
-      // Generate unique filename
-      String originalFilename = file.getOriginalFilename();
-      String extension = originalFilename != null && originalFilename.contains(".")
-          ? originalFilename.substring(originalFilename.lastIndexOf("."))
-          : "";
-      String uniqueFilename = UUID.randomUUID() + extension;
-
-      // Save file
-      Path filePath = uploadPath.resolve(uniqueFilename);
-      Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-      // Save metadata to database
-      FileUpload fileUpload = FileUpload.builder()
-          .user(user)
-          .fileName(originalFilename)
-          .filePath(filePath.toString())
-          .fileType(file.getContentType())
-          .fileSize(file.getSize())
-          .build();
-
-      FileUpload saved = fileUploadRepository.save(fileUpload);
+    String originalFilename = file.getOriginalFilename();
+
+    Timer.Sample write = Timer.start(meterRegistry);
+    try (InputStream in = file.getInputStream()) {
+      // Hashed while copying; identical content is stored once and shared between rows
+      FileUpload saved = fileStorageService.store(in, extensionOf(originalFilename), blob ->
+          fileUploadRepository.save(FileUpload.builder()
+              .user(user)
+              .fileName(originalFilename)
+              .filePath(blob.path().toString())
+              .fileType(file.getContentType())
+              .fileSize(blob.size())
+              .contentHash(blob.contentHash())
+              .build()), this::isUnreferenced);
+      recordWrite(write, "multipart", saved.getFileSize());
+      imageVariantService.generateAsync(Paths.get(saved.getFilePath()), saved.getFileType());
       return mapToResponse(saved);
 
     } catch (IOException e) {
@@ -77,18 +92,101 @@ public class FileUploadService {
     }
   }
 
+  /**
+   * Registers a fully received temp file (e.g. an assembled chunked upload) whose digest is already known.
+   * The temp file is moved into storage, not copied.
+   */
+  public FileUploadResponse uploadFromTemp(Path temp, String contentHash, String fileName, String fileType,
+                                           String userId) {
+    User user = userRepository.findById(userId)
+        .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+    Timer.Sample write = Timer.start(meterRegistry);
+    try {
+      FileUpload saved = fileStorageService.storeFile(temp, contentHash, extensionOf(fileName), blob ->
+          fileUploadRepository.save(FileUpload.builder()
+              .user(user)
+              .fileName(fileName)
+              .filePath(blob.path().toString())
+              .fileType(fileType)
+              .fileSize(blob.size())
+              .contentHash(blob.contentHash())
+              .build()), this::isUnreferenced);
+      recordWrite(write, "chunked", saved.getFileSize());
+      imageVariantService.generateAsync(Paths.get(saved.getFilePath()), saved.getFileType());
+      return mapToResponse(saved);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to store file: " + e.getMessage());
+    }
+  }
+
+  @Transactional(readOnly = true)
   public FileUploadResponse getFileById(String fileId) {
     FileUpload fileUpload = fileUploadRepository.findById(fileId)
         .orElseThrow(() -> new ResourceNotFoundException("File not found"));
     return mapToResponse(fileUpload);
   }
 
+  /**
+   * Resolves the file to stream. When a {@code variant} is requested but has not been generated yet
+   * (still queued, or an upload from before variants existed) the original is returned and generation
+   * is queued, so {@link StoredFile#getVariant()} is null.
+   */
+  public StoredFile getStoredFile(String fileId, ImageVariant variant) {
+    FileUpload fileUpload = fileUploadRepository.findById(fileId)
+        .orElseThrow(() -> new ResourceNotFoundException("File not found"));
+    Path path = Paths.get(fileUpload.getFilePath());
+    if (!Files.isReadable(path)) {
+      throw new ResourceNotFoundException("File content not found");
+    }
+    if (variant != null) {
+      Path variantPath = variant.resolve(path);
+      if (Files.isReadable(variantPath)) {
+        return new StoredFile(fileUpload.getId(), fileUpload.getFileName(), "image/jpeg",
+            null, variantPath, fileUpload.getUploadedAt(), variant.getKey());
+      }
+      imageVariantService.generateAsync(path, fileUpload.getFileType());
+    }
+    return new StoredFile(
+        fileUpload.getId(),
+        fileUpload.getFileName(),
+        fileUpload.getFileType(),
+        fileUpload.getFileSize(),
+        path,
+        fileUpload.getUploadedAt(),
+        null
+    );
+  }
+
+  /** The original of one of the user's own uploads (for server-side processing such as imports). */
+  public StoredFile getOwnedStoredFile(String fileId, String userId) {
+    FileUpload fileUpload = fileUploadRepository.findById(fileId)
+        .orElseThrow(() -> new ResourceNotFoundException("File not found"));
+    if (!fileUpload.getUser().getId().equals(userId)) {
+      throw new BadRequestException("Unauthorized to access this file");
+    }
+    return getStoredFile(fileId, null);
+  }
+
+  @Transactional(readOnly = true)
   public List<FileUploadResponse> getUserFiles(String userId) {
     return fileUploadRepository.findByUser_Id(userId).stream()
         .map(this::mapToResponse)
         .collect(Collectors.toList());
   }
 
+  @Transactional(readOnly = true)
+  public CursorPage<FileUploadResponse> getUserFilesPage(String userId, String cursor, Integer limit) {
+    PageCursor after = PageCursor.decode(cursor);
+    int size = PageCursor.clampLimit(limit);
+    Limit fetch = Limit.of(size + 1);
+    List<FileUpload> rows = after == null
+        ? fileUploadRepository.findByUser_IdOrderByUploadedAtDescIdDesc(userId, fetch)
+        : fileUploadRepository.findPageAfter(userId, after.keyAsDateTime(), after.id(), fetch);
+    return PageCursor.toPage(rows, size,
+        f -> new PageCursor(f.getUploadedAt().toString(), f.getId()), this::mapToResponse);
+  }
+
   public void deleteFile(String fileId, String userId) {
     FileUpload fileUpload = fileUploadRepository.findById(fileId)
         .orElseThrow(() -> new ResourceNotFoundException("File not found"));
@@ -97,18 +195,47 @@ public class FileUploadService {
       throw new BadRequestException("Unauthorized to delete this file");
     }
 
+    // Delete from database, then the physical file once no other upload shares it
+    fileUploadRepository.delete(fileUpload);
     try {
-      // Delete physical file
-      Path filePath = Paths.get(fileUpload.getFilePath());
-      Files.deleteIfExists(filePath);
+      Path path = Paths.get(fileUpload.getFilePath());
+      fileStorageService.release(path, fileUpload.getContentHash(), () -> isUnreferenced(path));
+    } catch (UncheckedIOException e) {
+      throw new RuntimeException(e.getMessage());
+    }
+  }
 
-      // Delete from database
-      fileUploadRepository.delete(fileUpload);
-    } catch (IOException e) {
-      throw new RuntimeException("Failed to delete file: " + e.getMessage());
+  private boolean isUnreferenced(Path path) {
+    return !fileUploadRepository.existsByFilePath(path.toString());
+  }
+
+  /** Counts bytes streamed to a client from {@link #getStoredFile}. */
+  public void recordBytesServed(long bytes) {
+    bytesServed.record(bytes);
+  }
+
+  // Time to place the blob and insert its row (hash + copy or move), and the stored size
+  private void recordWrite(Timer.Sample sample, String source, Long size) {
+    sample.stop(Timer.builder("storage.write")
+        .description("Time to store an uploaded file")
+        .tag("source", source)
+        .register(meterRegistry));
+    if (size != null) {
+      DistributionSummary.builder("storage.write.bytes")
+          .description("Size of stored uploads")
+          .baseUnit("bytes")
+          .tag("source", source)
+          .register(meterRegistry)
+          .record(size);
     }
   }
 
+  private String extensionOf(String fileName) {
+    return fileName != null && fileName.contains(".")
+        ? fileName.substring(fileName.lastIndexOf("."))
+        : "";
+  }
+
   private FileUploadResponse mapToResponse(FileUpload fileUpload) {
     return new FileUploadResponse(
         fileUpload.getId(),
@@ -0,0 +1,181 @@
+package com.project.fitness.service;
+
+import com.project.fitness.config.CacheConfig;
+import com.project.fitness.model.Activity;
+import com.project.fitness.model.ActivityType;
+import com.project.fitness.model.Goal;
+import com.project.fitness.model.GoalStatus;
+import com.project.fitness.model.GoalType;
+import com.project.fitness.model.Milestone;
+import com.project.fitness.repository.GoalRepository;
+import com.project.fitness.repository.MilestoneRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Advances goals as activities are recorded, so {@code currentValue}, milestones and status are
+ * maintained at write time instead of being sent by the client.
+ *
+ * <p>An activity counts towards an ACTIVE goal when its type fits the goal type (see
+ * {@link #TRACKED}) and it falls between the goal's start date and deadline. What it adds depends
+ * on the goal's unit: distance for km/m/mi, duration for minutes/hours, calories for kcal, one per
+ * activity for sessions. Goals in other units (kg, %, ...) and body-composition or custom goal types
+ * are left to the client. Milestones whose target is reached are marked achieved, and a goal that
+ * reaches its target becomes COMPLETED.
+ */
+@Service
+public class GoalProgressService {
+
+  private static final double METERS_PER_KM = 1000.0;
+  private static final double KM_PER_MILE = 1.609344;
+  private static final double MINUTES_PER_HOUR = 60.0;
+
+  /** Activity types that advance each goal type; goal types not listed are never updated. */
+  static final Map<GoalType, Set<ActivityType>> TRACKED = new EnumMap<>(Map.of(
+      GoalType.ENDURANCE, EnumSet.of(ActivityType.RUNNING, ActivityType.WALKING, ActivityType.CYCLING,
+          ActivityType.SWIMMING, ActivityType.CARDIO, ActivityType.HIIT),
+      GoalType.STRENGTH, EnumSet.of(ActivityType.WEIGHT_TRAINING, ActivityType.HIIT),
+      GoalType.FLEXIBILITY, EnumSet.of(ActivityType.YOGA, ActivityType.STRETCHING),
+      GoalType.HABIT_BUILDING, EnumSet.allOf(ActivityType.class)));
+
+  private static final Map<String, ToDoubleFunction<Activity>> UNITS = Map.ofEntries(
+      Map.entry("km", a -> orZero(a.getDistance())),
+      Map.entry("kilometers", a -> orZero(a.getDistance())),
+      Map.entry("m", a -> orZero(a.getDistance()) * METERS_PER_KM),
+      Map.entry("meters", a -> orZero(a.getDistance()) * METERS_PER_KM),
+      Map.entry("mi", a -> orZero(a.getDistance()) / KM_PER_MILE),
+      Map.entry("miles", a -> orZero(a.getDistance()) / KM_PER_MILE),
+      Map.entry("min", a -> orZero(a.getDuration())),
+      Map.entry("minutes", a -> orZero(a.getDuration())),
+      Map.entry("h", a -> orZero(a.getDuration()) / MINUTES_PER_HOUR),
+      Map.entry("hours", a -> orZero(a.getDuration()) / MINUTES_PER_HOUR),
+      Map.entry("kcal", a -> orZero(a.getCaloriesBurned())),
+      Map.entry("calories", a -> orZero(a.getCaloriesBurned())),
+      Map.entry("sessions", a -> 1),
+      Map.entry("workouts", a -> 1),
+      Map.entry("count", a -> 1));
+
+  private final GoalRepository goalRepository;
+  private final MilestoneRepository milestoneRepository;
+  private final CacheManager cacheManager;
+
+  public GoalProgressService(GoalRepository goalRepository, MilestoneRepository milestoneRepository,
+      CacheManager cacheManager) {
+    this.goalRepository = goalRepository;
+    this.milestoneRepository = milestoneRepository;
+    this.cacheManager = cacheManager;
+  }
+
+  @EventListener
+  @Transactional
+  public void onActivityRecorded(ActivityRecordedEvent event) {
+    Set<GoalType> types = EnumSet.noneOf(GoalType.class);
+    for (Activity activity : event.activities()) {
+      TRACKED.forEach((goalType, activityTypes) -> {
+        if (activityTypes.contains(activity.getType())) {
+          types.add(goalType);
+        }
+      });
+    }
+    if (types.isEmpty()) {
+      return;
+    }
+
+    List<Goal> advanced = goalRepository.findForProgressUpdate(event.userId(), GoalStatus.ACTIVE, types).stream()
+        .filter(goal -> advance(goal, event.activities()))
+        .toList();
+    if (advanced.isEmpty()) {
+      return;
+    }
+
+    Map<String, Goal> goalsById = new HashMap<>();
+    advanced.forEach(goal -> goalsById.put(goal.getId(), goal));
+    LocalDateTime now = LocalDateTime.now();
+    for (Milestone milestone : milestoneRepository.findByGoal_IdInAndAchievedFalseOrderByTargetValueAsc(
+        goalsById.keySet())) {
+      Goal goal = goalsById.get(milestone.getGoal().getId());
+      if (goal.getCurrentValue() >= milestone.getTargetValue()) {
+        milestone.setAchieved(true);
+        milestone.setAchievedAt(now);
+      }
+    }
+    evictGoalListsAfterCommit(event.userId());
+  }
+
+  // Adds the matching activities to the goal; false when they add nothing
+  private boolean advance(Goal goal, List<Activity> activities) {
+    ToDoubleFunction<Activity> contribution = UNITS.get(normalize(goal.getUnit()));
+    if (contribution == null) {
+      return false;
+    }
+    Set<ActivityType> activityTypes = TRACKED.get(goal.getType());
+    double added = 0;
+    for (Activity activity : activities) {
+      if (activityTypes.contains(activity.getType()) && withinPeriod(goal, activity)) {
+        added += contribution.applyAsDouble(activity);
+      }
+    }
+    if (added <= 0) {
+      return false;
+    }
+    goal.setCurrentValue(orZero(goal.getCurrentValue()) + added);
+    if (goal.getTargetValue() != null && goal.getTargetValue() > 0
+        && goal.getCurrentValue() >= goal.getTargetValue()) {
+      goal.setStatus(GoalStatus.COMPLETED);
+    }
+    return true;
+  }
+
+  private static boolean withinPeriod(Goal goal, Activity activity) {
+    LocalDateTime at = activity.getStartTime() != null ? activity.getStartTime()
+        : activity.getDate() != null ? activity.getDate() : LocalDateTime.now();
+    LocalDate day = at.toLocalDate();
+    return (goal.getStartDate() == null || !day.isBefore(goal.getStartDate()))
+        && (goal.getDeadline() == null || !day.isAfter(goal.getDeadline()));
+  }
+
+  // Evicting before commit would let a concurrent read cache the old progress again
+  private void evictGoalListsAfterCommit(String userId) {
+    Runnable evict = () -> {
+      for (String name : List.of(CacheConfig.USER_GOALS, CacheConfig.USER_GOALS_VERSION)) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+          cache.evict(userId);
+        }
+      }
+    };
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          evict.run();
+        }
+      });
+    } else {
+      evict.run();
+    }
+  }
+
+  private static String normalize(String unit) {
+    return unit == null ? "" : unit.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private static double orZero(Number value) {
+    return value == null ? 0 : value.doubleValue();
+  }
+}
@@ -1,5 +1,8 @@
 package com.project.fitness.service;
 
+import com.project.fitness.config.CacheConfig;
+import com.project.fitness.config.ReadFromPrimary;
+import com.project.fitness.dto.CursorPage;
 import com.project.fitness.dto.GoalRequest;
 import com.project.fitness.dto.GoalResponse;
 import com.project.fitness.dto.MilestoneRequest;
@@ -12,10 +15,16 @@ import com.project.fitness.model.User;
 import com.project.fitness.repository.GoalRepository;
 import com.project.fitness.repository.MilestoneRepository;
 import com.project.fitness.repository.UserRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,6 +42,8 @@ public class GoalService {
     this.userRepository = userRepository;
   }
 
+  @Transactional
+  @CacheEvict(cacheNames = {CacheConfig.USER_GOALS, CacheConfig.USER_GOALS_VERSION}, key = "#userId")
   public GoalResponse createGoal(GoalRequest request, String userId) {
     User user = userRepository.findById(userId)
         .orElseThrow(() -> new ResourceNotFoundException("User not found"));
@@ -58,6 +69,8 @@ public class GoalService {
     return mapToResponse(saved);
   }
 
+  @Transactional
+  @CacheEvict(cacheNames = {CacheConfig.USER_GOALS, CacheConfig.USER_GOALS_VERSION}, key = "#userId")
   public GoalResponse updateGoal(String goalId, GoalRequest request, String userId) {
     Goal goal = goalRepository.findById(goalId)
         .orElseThrow(() -> new ResourceNotFoundException("Goal not found"));
@@ -83,6 +96,7 @@ public class GoalService {
     return mapToResponse(updated);
   }
 
+  @Transactional(readOnly = true)
   public GoalResponse getGoalById(String goalId, String userId) {
     Goal goal = goalRepository.findById(goalId)
         .orElseThrow(() -> new ResourceNotFoundException("Goal not found"));
@@ -94,12 +108,32 @@ public class GoalService {
     return mapToResponse(goal);
   }
 
-  public List<GoalResponse> getUserGoals(String userId) {
-    return goalRepository.findByUser_IdOrderByCreatedAtDesc(userId).stream()
-        .map(this::mapToResponse)
-        .collect(Collectors.toList());
+  /**
+   * The user's goals as projected rows. The full list is cached; a {@code fields} selection without
+   * milestones skips the milestone query and the cache.
+   */
+  @Transactional(readOnly = true)
+  @ReadFromPrimary
+  @Cacheable(cacheNames = CacheConfig.USER_GOALS, key = "#userId", condition = "#fields.includes('milestones')")
+  public List<GoalResponse> getUserGoals(String userId, FieldSet fields) {
+    return withMilestones(goalRepository.findResponsesByUserId(userId), fields);
+  }
+
+  @Transactional(readOnly = true)
+  public CursorPage<GoalResponse> getUserGoalsPage(String userId, String cursor, Integer limit, FieldSet fields) {
+    PageCursor after = PageCursor.decode(cursor);
+    int size = PageCursor.clampLimit(limit);
+    Limit fetch = Limit.of(size + 1);
+    List<GoalResponse> rows = after == null
+        ? goalRepository.findResponsePage(userId, fetch)
+        : goalRepository.findResponsePageAfter(userId, after.keyAsDateTime(), after.id(), fetch);
+    CursorPage<GoalResponse> page = PageCursor.toPage(rows, size,
+        g -> new PageCursor(g.getCreatedAt().toString(), g.getId()), g -> g);
+    return new CursorPage<>(withMilestones(page.getItems(), fields), page.getNextCursor(), page.isHasMore());
   }
 
+  @Transactional
+  @CacheEvict(cacheNames = {CacheConfig.USER_GOALS, CacheConfig.USER_GOALS_VERSION}, key = "#userId")
   public void deleteGoal(String goalId, String userId) {
     Goal goal = goalRepository.findById(goalId)
         .orElseThrow(() -> new ResourceNotFoundException("Goal not found"));
@@ -112,6 +146,8 @@ public class GoalService {
   }
 
   // Milestone operations
+  @Transactional
+  @CacheEvict(cacheNames = {CacheConfig.USER_GOALS, CacheConfig.USER_GOALS_VERSION}, key = "#userId")
   public MilestoneResponse addMilestone(String goalId, MilestoneRequest request, String userId) {
     Goal goal = goalRepository.findById(goalId)
         .orElseThrow(() -> new ResourceNotFoundException("Goal not found"));
@@ -132,8 +168,11 @@ public class GoalService {
     return mapMilestoneToResponse(saved);
   }
 
+  @Transactional
+  @CacheEvict(cacheNames = {CacheConfig.USER_GOALS, CacheConfig.USER_GOALS_VERSION}, key = "#userId")
   public MilestoneResponse achieveMilestone(String milestoneId, String userId) {
-    Milestone milestone = milestoneRepository.findById(milestoneId)
+    // Goal is fetched with the milestone: the ownership check needs goal.user
+    Milestone milestone = milestoneRepository.findWithGoalById(milestoneId)
         .orElseThrow(() -> new ResourceNotFoundException("Milestone not found"));
 
     if (!milestone.getGoal().getUser().getId().equals(userId)) {
@@ -148,20 +187,30 @@ public class GoalService {
   }
 
   private GoalResponse mapToResponse(Goal goal) {
-    // Calculate progress percentage
-    Double progress = 0.0;
-    if (goal.getTargetValue() != null && goal.getTargetValue() > 0) {
-      progress = (goal.getCurrentValue() / goal.getTargetValue()) * 100;
-      progress = Math.min(progress, 100.0);
-    }
-
-    // Get milestones
     List<MilestoneResponse> milestones = milestoneRepository.findByGoal_IdOrderByTargetValueAsc(goal.getId())
         .stream()
         .map(this::mapMilestoneToResponse)
         .collect(Collectors.toList());
+    return mapToResponse(goal, milestones);
+  }
+
+  // Attaches milestones to a page of goals with one IN (...) query, or none when they are not requested
+  private List<GoalResponse> withMilestones(List<GoalResponse> goals, FieldSet fields) {
+    if (goals.isEmpty() || !fields.includes("milestones")) {
+      return goals;
+    }
+    List<String> goalIds = goals.stream().map(GoalResponse::getId).collect(Collectors.toList());
+    Map<String, List<MilestoneResponse>> milestonesByGoal =
+        milestoneRepository.findByGoal_IdInOrderByTargetValueAsc(goalIds).stream()
+            .map(this::mapMilestoneToResponse)
+            .collect(Collectors.groupingBy(MilestoneResponse::getGoalId));
+
+    goals.forEach(goal -> goal.setMilestones(milestonesByGoal.getOrDefault(goal.getId(), new ArrayList<>())));
+    return goals;
+  }
 
-    return new GoalResponse(
+  GoalResponse mapToResponse(Goal goal, List<MilestoneResponse> milestones) {
+    GoalResponse response = new GoalResponse(
         goal.getId(),
         goal.getUser().getId(),
         goal.getTitle(),
@@ -173,14 +222,14 @@ public class GoalService {
         goal.getStartDate(),
         goal.getDeadline(),
         goal.getStatus(),
-        progress,
-        milestones,
         goal.getCreatedAt(),
         goal.getUpdatedAt()
     );
+    response.setMilestones(milestones);
+    return response;
   }
 
-  private MilestoneResponse mapMilestoneToResponse(Milestone milestone) {
+  MilestoneResponse mapMilestoneToResponse(Milestone milestone) {
     return new MilestoneResponse(
         milestone.getId(),
         milestone.getGoal().getId(),
@@ -0,0 +1,204 @@
+package com.project.fitness.service;
+
+import com.project.fitness.dto.ActivityRequest;
+import com.project.fitness.model.ActivityType;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Streaming (StAX) GPX reader: each {@code <trk>} becomes one activity. Only running totals are kept
+ * per track (never the point list), so memory does not grow with the file. Distance is the haversine
+ * sum between consecutive points; duration spans the first to the last timestamp.
+ */
+final class GpxActivityParser {
+
+  private static final double EARTH_RADIUS_KM = 6371.0088;
+
+  private final ActivityType defaultType;
+  private final XMLInputFactory factory;
+
+  GpxActivityParser(ActivityType defaultType) {
+    this.defaultType = defaultType;
+    this.factory = XMLInputFactory.newFactory();
+    // Uploaded XML is untrusted: no DTDs, no external entities
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+  }
+
+  void parse(InputStream in, Consumer<ImportRecord> sink) throws XMLStreamException {
+    XMLStreamReader xml = factory.createXMLStreamReader(in);
+    try {
+      long number = 0;
+      Track track = null;
+      boolean inPoint = false;
+      while (xml.hasNext()) {
+        int event = xml.next();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          String name = xml.getLocalName();
+          if (name.equals("trk")) {
+            track = new Track();
+          } else if (track == null) {
+            continue;
+          } else if (name.equals("trkpt")) {
+            inPoint = true;
+            track.beginPoint(xml.getAttributeValue(null, "lat"), xml.getAttributeValue(null, "lon"));
+          } else if (inPoint) {
+            switch (name) {
+              case "ele" -> track.pointElevation = parseDouble(xml.getElementText());
+              case "time" -> track.pointTime = parseTime(xml.getElementText());
+              case "hr" -> track.addHeartRate(parseDouble(xml.getElementText()));
+              default -> {
+              }
+            }
+          } else if (name.equals("name")) {
+            track.name = xml.getElementText().trim();
+          } else if (name.equals("type")) {
+            track.type = xml.getElementText().trim();
+          }
+        } else if (event == XMLStreamConstants.END_ELEMENT && track != null) {
+          String name = xml.getLocalName();
+          if (name.equals("trkpt")) {
+            inPoint = false;
+            track.endPoint();
+          } else if (name.equals("trk")) {
+            number++;
+            sink.accept(track.toRecord(number));
+            track = null;
+          }
+        }
+      }
+    } finally {
+      xml.close();
+    }
+  }
+
+  private final class Track {
+    String name;
+    String type;
+    long points;
+    double distanceKm;
+    double elevationGain;
+    Instant firstTime;
+    Instant lastTime;
+    double heartRateSum;
+    long heartRateCount;
+    double maxHeartRate;
+
+    Double pointLat;
+    Double pointLon;
+    Double pointElevation;
+    Instant pointTime;
+    Double lastLat;
+    Double lastLon;
+    Double lastElevation;
+
+    void beginPoint(String lat, String lon) {
+      pointLat = parseDouble(lat);
+      pointLon = parseDouble(lon);
+      pointElevation = null;
+      pointTime = null;
+    }
+
+    void addHeartRate(Double heartRate) {
+      if (heartRate != null) {
+        heartRateSum += heartRate;
+        heartRateCount++;
+        maxHeartRate = Math.max(maxHeartRate, heartRate);
+      }
+    }
+
+    void endPoint() {
+      if (pointLat == null || pointLon == null) {
+        return;
+      }
+      points++;
+      if (lastLat != null) {
+        distanceKm += haversineKm(lastLat, lastLon, pointLat, pointLon);
+      }
+      if (pointElevation != null && lastElevation != null && pointElevation > lastElevation) {
+        elevationGain += pointElevation - lastElevation;
+      }
+      if (pointTime != null) {
+        if (firstTime == null) {
+          firstTime = pointTime;
+        }
+        lastTime = pointTime;
+      }
+      lastLat = pointLat;
+      lastLon = pointLon;
+      if (pointElevation != null) {
+        lastElevation = pointElevation;
+      }
+    }
+
+    ImportRecord toRecord(long number) {
+      if (points == 0) {
+        return ImportRecord.rejected(number, "Track has no points");
+      }
+      if (firstTime == null) {
+        return ImportRecord.rejected(number, "Track has no timestamps");
+      }
+      long seconds = Duration.between(firstTime, lastTime).getSeconds();
+      Map<String, Object> metrics = new LinkedHashMap<>();
+      metrics.put("source", "gpx");
+      metrics.put("trackPoints", points);
+      metrics.put("elevationGain", Math.round(elevationGain * 10) / 10.0); // metres
+      if (heartRateCount > 0) {
+        metrics.put("avgHeartRate", Math.round(heartRateSum / heartRateCount));
+        metrics.put("maxHeartRate", Math.round(maxHeartRate));
+      }
+
+      ActivityRequest request = new ActivityRequest();
+      request.setType(type != null && !type.isEmpty() ? CsvActivityParser.mapType(type) : defaultType);
+      request.setStartTime(LocalDateTime.ofInstant(firstTime, ZoneId.systemDefault()));
+      request.setDuration((int) Math.max(1, Math.round(seconds / 60.0)));
+      request.setCaloriesBurned(0); // GPX carries no energy data
+      request.setDistance(Math.round(distanceKm * 1000) / 1000.0);
+      request.setNotes(name);
+      request.setAdditionalMetrics(metrics);
+      return ImportRecord.of(number, request);
+    }
+  }
+
+  static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+    double dLat = Math.toRadians(lat2 - lat1);
+    double dLon = Math.toRadians(lon2 - lon1);
+    double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+    return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+  }
+
+  private static Double parseDouble(String value) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      return Double.parseDouble(value.trim());
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static Instant parseTime(String value) {
+    try {
+      return Instant.parse(value.trim());
+    } catch (DateTimeParseException e) {
+      try {
+        return CsvActivityParser.parseDateTime(value).atZone(ZoneId.systemDefault()).toInstant();
+      } catch (IllegalArgumentException ignored) {
+        return null;
+      }
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.project.fitness.service;
+
+import com.project.fitness.exceptions.BadRequestException;
+import java.nio.file.Path;
+
+/**
+ * Downscaled renditions of uploaded images, stored as JPEG siblings of the original blob.
+ */
+public enum ImageVariant {
+  THUMBNAIL("thumbnail", 200),
+  MEDIUM("medium", 800);
+
+  private final String key;
+  private final int maxDimension;
+
+  ImageVariant(String key, int maxDimension) {
+    this.key = key;
+    this.maxDimension = maxDimension;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public int getMaxDimension() {
+    return maxDimension;
+  }
+
+  public Path resolve(Path original) {
+    return original.resolveSibling(original.getFileName() + "." + key + ".jpg");
+  }
+
+  /** Maps the {@code size} request parameter; null or "original" means the original file. */
+  public static ImageVariant fromParam(String size) {
+    if (size == null || size.isBlank() || size.equalsIgnoreCase("original")) {
+      return null;
+    }
+    for (ImageVariant variant : values()) {
+      if (variant.key.equalsIgnoreCase(size.trim())) {
+        return variant;
+      }
+    }
+    throw new BadRequestException("Unknown size: " + size + " (expected original, thumbnail or medium)");
+  }
+}
@@ -0,0 +1,188 @@
+package com.project.fitness.service;
+
+import jakarta.annotation.PreDestroy;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Generates {@link ImageVariant}s for uploaded images in the background using only JDK imaging.
+ *
+ * <p>Work runs on a small fixed pool behind a bounded queue. An image already queued or being
+ * rendered is not queued again, and when the queue is full new work is dropped rather than run on the
+ * caller (often a request thread); a dropped image is queued again the next time a variant of it is
+ * requested. Uploads are untrusted, so the dimensions are read from the header first and images over
+ * {@code file.variants.max-pixels} are never decoded.
+ */
+@Service
+public class ImageVariantService {
+
+  private static final Logger log = LoggerFactory.getLogger(ImageVariantService.class);
+
+  private final boolean enabled;
+  private final long maxPixels;
+  private final ThreadPoolExecutor executor;
+  private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+
+  public ImageVariantService(
+      @Value("${file.variants.enabled:true}") boolean enabled,
+      @Value("${file.variants.workers:2}") int workers,
+      @Value("${file.variants.queue-capacity:100}") int queueCapacity,
+      @Value("${file.variants.max-pixels:40000000}") long maxPixels) {
+    this.enabled = enabled;
+    this.maxPixels = maxPixels;
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        runnable -> {
+          Thread thread = new Thread(runnable, "image-variants-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+    this.executor.allowCoreThreadTimeOut(true);
+  }
+
+  /** Queues variant generation for an image; non-images and already generated variants are skipped. */
+  public void generateAsync(Path original, String contentType) {
+    if (!enabled || contentType == null || !contentType.startsWith("image/")) {
+      return;
+    }
+    if (allVariantsExist(original)) {
+      return; // shared content-addressed blob already processed
+    }
+    if (!pending.add(original)) {
+      return; // already queued or being rendered
+    }
+    try {
+      executor.execute(() -> {
+        try {
+          generate(original);
+        } finally {
+          pending.remove(original);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      pending.remove(original);
+      log.debug("Image variant queue full, skipped {}", original);
+    }
+  }
+
+  public int queueDepth() {
+    return executor.getQueue().size();
+  }
+
+  void generate(Path original) {
+    try {
+      BufferedImage source = read(original);
+      if (source == null) {
+        return; // format not supported by ImageIO, or too large to decode
+      }
+      // Largest first; each smaller rendition is scaled from the previous one, which is cheaper
+      BufferedImage current = source;
+      ImageVariant[] variants = ImageVariant.values();
+      for (int i = variants.length - 1; i >= 0; i--) {
+        ImageVariant variant = variants[i];
+        current = scale(current, variant.getMaxDimension());
+        Path target = variant.resolve(original);
+        if (!Files.exists(target)) {
+          write(current, target);
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      log.warn("Could not generate image variants for {}: {}", original, e.getMessage());
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+  }
+
+  // Decodes only after the header's dimensions pass the pixel cap: a small compressed file can
+  // declare an image that takes gigabytes of heap once decoded
+  private BufferedImage read(Path original) throws IOException {
+    try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+      Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+      if (readers == null || !readers.hasNext()) {
+        return null;
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(input, true, true);
+        long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+        if (pixels > maxPixels) {
+          log.warn("Skipping image variants for {}: {} pixels exceeds the limit of {}", original, pixels, maxPixels);
+          return null;
+        }
+        return reader.read(0);
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  private boolean allVariantsExist(Path original) {
+    for (ImageVariant variant : ImageVariant.values()) {
+      if (!Files.exists(variant.resolve(original))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static BufferedImage scale(BufferedImage image, int maxDimension) {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    double factor = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+    int targetWidth = Math.max(1, (int) Math.round(width * factor));
+    int targetHeight = Math.max(1, (int) Math.round(height * factor));
+
+    // Always redraw into RGB: JPEG has no alpha channel
+    BufferedImage scaled = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = scaled.createGraphics();
+    try {
+      graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      graphics.drawImage(image, 0, 0, targetWidth, targetHeight, Color.WHITE, null);
+    } finally {
+      graphics.dispose();
+    }
+    return scaled;
+  }
+
+  private static void write(BufferedImage image, Path target) throws IOException {
+    Path temp = Files.createTempFile(target.getParent(), "variant-", ".part");
+    try {
+      ImageIO.write(image, "jpg", temp.toFile());
+      try {
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+}
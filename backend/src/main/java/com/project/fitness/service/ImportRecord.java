@@ -0,0 +1,18 @@
+package com.project.fitness.service;
+
+import com.project.fitness.dto.ActivityRequest;
+
+/**
+ * One parsed record of an import file: either a request to ingest or the reason it was rejected.
+ * {@code number} is 1-based (CSV data row, or GPX track).
+ */
+record ImportRecord(long number, ActivityRequest request, String error) {
+
+  static ImportRecord of(long number, ActivityRequest request) {
+    return new ImportRecord(number, request, null);
+  }
+
+  static ImportRecord rejected(long number, String error) {
+    return new ImportRecord(number, null, error);
+  }
+}
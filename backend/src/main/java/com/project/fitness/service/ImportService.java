@@ -0,0 +1,360 @@
+package com.project.fitness.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.fitness.dto.ActivityRequest;
+import com.project.fitness.dto.BulkActivityItemResult;
+import com.project.fitness.dto.BulkActivityResponse;
+import com.project.fitness.dto.FileUploadResponse;
+import com.project.fitness.dto.ImportJobResponse;
+import com.project.fitness.dto.StoredFile;
+import com.project.fitness.exceptions.BadRequestException;
+import com.project.fitness.exceptions.ConflictException;
+import com.project.fitness.exceptions.ResourceNotFoundException;
+import com.project.fitness.model.ActivityType;
+import com.project.fitness.model.ImportFormat;
+import com.project.fitness.model.ImportJob;
+import com.project.fitness.model.ImportStatus;
+import com.project.fitness.model.User;
+import com.project.fitness.repository.ImportJobRepository;
+import com.project.fitness.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.xml.stream.XMLStreamException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Imports historical workouts from an uploaded CSV or GPX file. The file is stored through
+ * {@link FileUploadService}; a background worker then parses it incrementally and hands records to
+ * {@link ActivityIngestService} in batches (validation, deduplication, JDBC batching and rollups
+ * included), updating the job's progress after every batch. Request threads only create the job.
+ */
+@Service
+public class ImportService {
+
+  private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+  private static final List<ImportStatus> ACTIVE = List.of(ImportStatus.QUEUED, ImportStatus.RUNNING);
+  private static final int MAX_ERRORS = 20;
+  private static final int MAX_ERRORS_LENGTH = 2000;
+  private static final int RECENT_JOBS = 20;
+
+  private final ImportJobRepository jobRepo;
+  private final UserRepository userRepo;
+  private final FileUploadService fileUploadService;
+  private final ActivityIngestService ingestService;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transaction;
+  private final int batchSize;
+  private final ThreadPoolExecutor executor;
+
+  public ImportService(ImportJobRepository jobRepo, UserRepository userRepo, FileUploadService fileUploadService,
+      ActivityIngestService ingestService, ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+      @Value("${app.imports.workers:2}") int workers,
+      @Value("${app.imports.queue-capacity:50}") int queueCapacity,
+      @Value("${app.imports.batch-size:500}") int batchSize) {
+    this.jobRepo = jobRepo;
+    this.userRepo = userRepo;
+    this.fileUploadService = fileUploadService;
+    this.ingestService = ingestService;
+    this.objectMapper = objectMapper;
+    this.transaction = new TransactionTemplate(transactionManager);
+    this.batchSize = batchSize;
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        runnable -> new Thread(runnable, "activity-import-" + threadCount.incrementAndGet()),
+        new ThreadPoolExecutor.AbortPolicy());
+    this.executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Queues an import of a new multipart upload, or of an already uploaded file ({@code fileId}, e.g.
+   * from the resumable upload API for files above the multipart limit).
+   */
+  public ImportJobResponse startImport(String userId, MultipartFile file, String fileId, String format,
+      ActivityType defaultType) {
+    if ((file == null) == (fileId == null)) {
+      throw new BadRequestException("Provide either a file or a fileId");
+    }
+    User user = userRepo.findById(userId)
+        .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    // Cheap early answer before storing an upload; queue() re-checks under a lock
+    checkNoActiveImport(userId);
+
+    if (file != null) {
+      ImportFormat importFormat = resolveFormat(format, file.getOriginalFilename(), file.getContentType());
+      FileUploadResponse uploaded = fileUploadService.uploadFile(file, userId);
+      try {
+        return queue(user, uploaded.getId(), uploaded.getFileName(), uploaded.getFileSize(), importFormat,
+            defaultType);
+      } catch (ConflictException e) {
+        fileUploadService.deleteFile(uploaded.getId(), userId);
+        throw e;
+      }
+    }
+    StoredFile stored = fileUploadService.getOwnedStoredFile(fileId, userId);
+    ImportFormat importFormat = resolveFormat(format, stored.getFileName(), stored.getFileType());
+    return queue(user, stored.getId(), stored.getFileName(), stored.getFileSize(), importFormat, defaultType);
+  }
+
+  public ImportJobResponse getJob(String jobId, String userId) {
+    ImportJob job = jobRepo.findById(jobId)
+        .orElseThrow(() -> new ResourceNotFoundException("Import not found"));
+    if (!job.getUser().getId().equals(userId)) {
+      throw new ResourceNotFoundException("Import not found");
+    }
+    return mapToResponse(job);
+  }
+
+  public List<ImportJobResponse> getUserJobs(String userId) {
+    return jobRepo.findByUser_IdOrderByCreatedAtDesc(userId, Limit.of(RECENT_JOBS)).stream()
+        .map(this::mapToResponse)
+        .toList();
+  }
+
+  // Workers do not survive a restart; mark their jobs so clients can re-submit
+  @EventListener(ApplicationReadyEvent.class)
+  void failInterruptedJobs() {
+    for (ImportJob job : jobRepo.findByStatusIn(ACTIVE)) {
+      job.setStatus(ImportStatus.FAILED);
+      job.setErrors("Interrupted by a server restart; start the import again");
+      job.setFinishedAt(LocalDateTime.now());
+      jobRepo.save(job);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private void checkNoActiveImport(String userId) {
+    if (jobRepo.existsByUser_IdAndStatusIn(userId, ACTIVE)) {
+      throw new ConflictException("An import is already in progress");
+    }
+  }
+
+  private ImportJobResponse queue(User user, String fileId, String fileName, Long size, ImportFormat format,
+      ActivityType defaultType) {
+    // The user row lock makes check and insert atomic: a concurrent request waits here, then sees this job
+    ImportJob job = transaction.execute(status -> {
+      userRepo.findForUpdate(user.getId())
+          .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+      checkNoActiveImport(user.getId());
+      return jobRepo.save(ImportJob.builder()
+          .user(user)
+          .fileId(fileId)
+          .fileName(fileName)
+          .format(format)
+          .totalBytes(size)
+          .build());
+    });
+    try {
+      executor.execute(() -> run(job.getId(), user.getId(), defaultType));
+    } catch (RejectedExecutionException e) {
+      jobRepo.delete(job);
+      throw new ConflictException("Too many imports queued; try again later");
+    }
+    return mapToResponse(job);
+  }
+
+  private void run(String jobId, String userId, ActivityType defaultType) {
+    ImportJob job = jobRepo.findById(jobId).orElse(null);
+    if (job == null) {
+      return;
+    }
+    job.setStatus(ImportStatus.RUNNING);
+    job.setStartedAt(LocalDateTime.now());
+    job = jobRepo.save(job);
+
+    Progress progress = new Progress(job, userId);
+    try {
+      StoredFile stored = fileUploadService.getStoredFile(job.getFileId(), null);
+      try (CountingInputStream in = new CountingInputStream(Files.newInputStream(stored.getPath()))) {
+        progress.input = in;
+        ActivityType type = defaultType != null ? defaultType : ActivityType.OTHER;
+        if (job.getFormat() == ImportFormat.GPX) {
+          new GpxActivityParser(type).parse(in, progress::accept);
+        } else {
+          BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+          new CsvActivityParser(objectMapper, type).parse(reader, progress::accept);
+        }
+        progress.flush();
+      }
+      progress.finish(ImportStatus.COMPLETED, null);
+    } catch (IOException | XMLStreamException | RuntimeException e) {
+      log.warn("Import {} failed: {}", jobId, e.getMessage());
+      progress.finish(ImportStatus.FAILED, "Import stopped: " + e.getMessage());
+    }
+  }
+
+  /** Batches records for the ingest path and writes progress back to the job after each batch. */
+  private final class Progress {
+    private ImportJob job;
+    private final String userId;
+    private final List<ActivityRequest> batch = new ArrayList<>();
+    private final List<Long> batchNumbers = new ArrayList<>();
+    private final List<String> errors = new ArrayList<>();
+    private int batchCount;
+    private CountingInputStream input;
+
+    Progress(ImportJob job, String userId) {
+      this.job = job;
+      this.userId = userId;
+    }
+
+    void accept(ImportRecord record) {
+      job.setRecordsRead(job.getRecordsRead() + 1);
+      if (record.error() != null) {
+        reject(record.number(), record.error());
+        return;
+      }
+      batch.add(record.request());
+      batchNumbers.add(record.number());
+      if (batch.size() >= batchSize) {
+        flush();
+      }
+    }
+
+    void flush() {
+      if (!batch.isEmpty()) {
+        // Keyed per file and batch, so re-running the same file resolves to DUPLICATE item by item
+        String idempotencyKey = "import:" + job.getFileId() + ":" + batchCount++;
+        BulkActivityResponse response = ingestService.ingest(userId, batch, idempotencyKey);
+        for (BulkActivityItemResult item : response.getItems()) {
+          switch (item.getStatus()) {
+            case CREATED -> job.setCreated(job.getCreated() + 1);
+            case DUPLICATE -> job.setDuplicates(job.getDuplicates() + 1);
+            default -> reject(batchNumbers.get(item.getIndex()), item.getError());
+          }
+        }
+        batch.clear();
+        batchNumbers.clear();
+      }
+      save();
+    }
+
+    void finish(ImportStatus status, String failure) {
+      if (failure != null) {
+        errors.add(0, failure);
+      }
+      job.setStatus(status);
+      job.setFinishedAt(LocalDateTime.now());
+      save();
+    }
+
+    private void reject(long number, String error) {
+      job.setRejected(job.getRejected() + 1);
+      if (errors.size() < MAX_ERRORS) {
+        errors.add("record " + number + ": " + error);
+      }
+    }
+
+    private void save() {
+      if (input != null) {
+        job.setBytesRead(input.count);
+      }
+      String joined = String.join("\n", errors);
+      job.setErrors(joined.isEmpty() ? null
+          : joined.length() > MAX_ERRORS_LENGTH ? joined.substring(0, MAX_ERRORS_LENGTH) : joined);
+      job = jobRepo.save(job);
+    }
+  }
+
+  private static final class CountingInputStream extends FilterInputStream {
+    private volatile long count;
+
+    CountingInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) {
+        count++;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      int n = super.read(buffer, offset, length);
+      if (n > 0) {
+        count += n;
+      }
+      return n;
+    }
+  }
+
+  private static ImportFormat resolveFormat(String format, String fileName, String contentType) {
+    if (format != null && !format.isBlank()) {
+      try {
+        return ImportFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+      } catch (IllegalArgumentException e) {
+        throw new BadRequestException("Unknown import format: " + format + " (expected csv or gpx)");
+      }
+    }
+    String name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+    if (name.endsWith(".gpx") || "application/gpx+xml".equals(contentType)) {
+      return ImportFormat.GPX;
+    }
+    if (name.endsWith(".csv") || "text/csv".equals(contentType)) {
+      return ImportFormat.CSV;
+    }
+    throw new BadRequestException("Cannot tell the import format from the file name; pass format=csv or gpx");
+  }
+
+  private ImportJobResponse mapToResponse(ImportJob job) {
+    Double progress = job.getTotalBytes() != null && job.getTotalBytes() > 0
+        ? Math.min(100.0, Math.round(job.getBytesRead() * 1000.0 / job.getTotalBytes()) / 10.0)
+        : null;
+    if (job.getStatus() == ImportStatus.COMPLETED) {
+      progress = 100.0;
+    }
+    List<String> errors = job.getErrors() != null ? Arrays.asList(job.getErrors().split("\n")) : List.of();
+    return new ImportJobResponse(
+        job.getId(),
+        job.getFileId(),
+        job.getFileName(),
+        job.getFormat(),
+        job.getStatus(),
+        job.getTotalBytes(),
+        job.getBytesRead(),
+        progress,
+        job.getRecordsRead(),
+        job.getCreated(),
+        job.getDuplicates(),
+        job.getRejected(),
+        errors,
+        job.getStartedAt(),
+        job.getFinishedAt(),
+        job.getCreatedAt()
+    );
+  }
+}
@@ -0,0 +1,84 @@
+package com.project.fitness.service;
+
+import com.project.fitness.dto.CursorPage;
+import com.project.fitness.exceptions.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque keyset cursor: the sort key and id of the last row of a page.
+ * The next page seeks past that row instead of using OFFSET, so every page costs the same.
+ */
+record PageCursor(String key, String id) {
+
+  static final int DEFAULT_LIMIT = 20;
+  static final int MAX_LIMIT = 100;
+
+  private static final char SEPARATOR = '|';
+
+  String encode() {
+    String raw = key + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** Returns null for a missing cursor, meaning "first page". */
+  static PageCursor decode(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int split = raw.lastIndexOf(SEPARATOR);
+      if (split <= 0 || split == raw.length() - 1) {
+        throw new BadRequestException("Invalid cursor");
+      }
+      return new PageCursor(raw.substring(0, split), raw.substring(split + 1));
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("Invalid cursor");
+    }
+  }
+
+  LocalDateTime keyAsDateTime() {
+    try {
+      return LocalDateTime.parse(key);
+    } catch (DateTimeParseException e) {
+      throw new BadRequestException("Invalid cursor");
+    }
+  }
+
+  LocalDate keyAsDate() {
+    try {
+      return LocalDate.parse(key);
+    } catch (DateTimeParseException e) {
+      throw new BadRequestException("Invalid cursor");
+    }
+  }
+
+  static int clampLimit(Integer limit) {
+    if (limit == null || limit <= 0) {
+      return DEFAULT_LIMIT;
+    }
+    return Math.min(limit, MAX_LIMIT);
+  }
+
+  /**
+   * Builds a page from rows fetched with {@code limit + 1}; the extra row only signals that more exist.
+   */
+  static <E, R> CursorPage<R> toPage(List<E> rows, int limit,
+      Function<E, PageCursor> cursorOf, Function<E, R> mapper) {
+    boolean hasMore = rows.size() > limit;
+    List<E> pageRows = hasMore ? rows.subList(0, limit) : rows;
+    List<R> items = new ArrayList<>(pageRows.size());
+    for (E row : pageRows) {
+      items.add(mapper.apply(row));
+    }
+    String nextCursor = hasMore ? cursorOf.apply(pageRows.get(pageRows.size() - 1)).encode() : null;
+    return new CursorPage<>(items, nextCursor, hasMore);
+  }
+}
@@ -9,6 +9,7 @@ import com.project.fitness.repository.ActivityRepository;
 import com.project.fitness.repository.RecommendationRepository;
 import com.project.fitness.repository.UserRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 
 @Service
@@ -26,6 +27,7 @@ public class RecommendationService {
     this.recommendationRepository = recommendationRepository;
   }
 
+  @Transactional
   public RecommendationResponse generateRecommendation(RecommendationRequest request) {
     User user = userRepository.findById(request.getUserId())
         .orElseThrow(() -> new IllegalArgumentException("User not found: " + request.getUserId()));
@@ -47,22 +49,30 @@ public class RecommendationService {
     return mapToResponse(saved);
   }
 
-  public List<RecommendationResponse> getUserRecommendations(String userId) {
-    return recommendationRepository.findByUser_IdOrderByCreatedAtDesc(userId)
-        .stream().map(this::mapToResponse).toList();
+  // List reads are projected rows; a fields selection without improvements, suggestions and safety
+  // skips those JSON columns
+  @Transactional(readOnly = true)
+  public List<RecommendationResponse> getUserRecommendations(String userId, FieldSet fields) {
+    return includesLists(fields)
+        ? recommendationRepository.findResponsesByUserId(userId)
+        : recommendationRepository.findSummariesByUserId(userId);
   }
 
-  public List<RecommendationResponse> getActivityRecommendations(String activityId) {
-    return recommendationRepository.findByActivity_IdOrderByCreatedAtDesc(activityId)
-        .stream().map(this::mapToResponse).toList();
+  @Transactional(readOnly = true)
+  public List<RecommendationResponse> getActivityRecommendations(String activityId, FieldSet fields) {
+    return includesLists(fields)
+        ? recommendationRepository.findResponsesByActivityId(activityId)
+        : recommendationRepository.findSummariesByActivityId(activityId);
   }
 
+  @Transactional(readOnly = true)
   public RecommendationResponse getRecommendationById(String id) {
     Recommendation rec = recommendationRepository.findById(id)
         .orElseThrow(() -> new IllegalArgumentException("Recommendation not found: " + id));
     return mapToResponse(rec);
   }
 
+  @Transactional
   public RecommendationResponse createRecommendation(RecommendationRequest request) {
     User user = userRepository.findById(request.getUserId())
         .orElseThrow(() -> new IllegalArgumentException("User not found: " + request.getUserId()));
@@ -87,6 +97,7 @@ public class RecommendationService {
     return mapToResponse(saved);
   }
 
+  @Transactional
   public void deleteRecommendation(String id) {
     if (!recommendationRepository.existsById(id)) {
       throw new IllegalArgumentException("Recommendation not found: " + id);
@@ -94,6 +105,10 @@ public class RecommendationService {
     recommendationRepository.deleteById(id);
   }
 
+  private boolean includesLists(FieldSet fields) {
+    return fields.includesAny("improvements", "suggestions", "safety");
+  }
+
   private RecommendationResponse mapToResponse(Recommendation rec) {
     return RecommendationResponse.builder()
         .id(rec.getId())
@@ -109,7 +124,7 @@ public class RecommendationService {
         .build();
   }
 
-  private List<String> cleanList(List<String> list) {
+  List<String> cleanList(List<String> list) {
     if (list == null) return List.of();
     return list.stream()
         .filter(s -> s != null && !s.trim().isEmpty())
@@ -8,18 +8,23 @@ import com.project.fitness.exceptions.UnauthorizedException;
 import com.project.fitness.model.User;
 import com.project.fitness.model.UserRole;
 import com.project.fitness.repository.UserRepository;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.project.fitness.security.PasswordHashingService;
+import java.util.Locale;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 @Service
 public class UserService {
 
+  static final int MIN_SUBSTRING_QUERY_LENGTH = 3;
+
   private final UserRepository userRepository;
-  private final PasswordEncoder passwordEncoder;
+  private final PasswordHashingService passwordHashing;
 
-  public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+  public UserService(UserRepository userRepository, PasswordHashingService passwordHashing) {
     this.userRepository = userRepository;
-    this.passwordEncoder = passwordEncoder;
+    this.passwordHashing = passwordHashing;
   }
 
   public UserResponse register(RegisterRequest request) {
@@ -32,7 +37,7 @@ public class UserService {
     user.setEmail(request.getEmail().trim().toLowerCase());
     user.setFirstName(request.getFirstName().trim());
     user.setLastName(request.getLastName().trim());
-    user.setPassword(passwordEncoder.encode(request.getPassword()));
+    user.setPassword(passwordHashing.encode(request.getPassword()));
     user.setRole(request.getRole() != null ? request.getRole() : UserRole.USER);
     user.setProvider("local"); // Set provider as 'local' for regular registration
     return MapToResponse(userRepository.save(user));
@@ -43,15 +48,27 @@ public class UserService {
     if (user == null) {
       throw new UnauthorizedException("Invalid email or password");
     }
-    if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
+    if (!passwordHashing.matches(loginRequest.getPassword(), user.getPassword())) {
       throw new UnauthorizedException("Invalid email or password");
     }
+    // Transparently move hashes made with an older (lower) cost factor to the current one
+    if (passwordHashing.needsRehash(user.getPassword())) {
+      user.setPassword(passwordHashing.encode(loginRequest.getPassword()));
+      user = userRepository.save(user);
+    }
     return user;
   }
 
-  public org.springframework.data.domain.Page<UserResponse> searchUsers(String query,
-      org.springframework.data.domain.Pageable pageable) {
-    return userRepository.searchUsers(query, pageable)
+  /**
+   * Case-insensitive search on email, first and last name. Queries shorter than
+   * {@value #MIN_SUBSTRING_QUERY_LENGTH} characters match by prefix only; trigram indexes can't serve
+   * shorter substrings and would fall back to a full scan.
+   */
+  public Slice<UserResponse> searchUsers(String query, Pageable pageable) {
+    String term = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+    String escaped = term.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    String pattern = term.length() < MIN_SUBSTRING_QUERY_LENGTH ? escaped + "%" : "%" + escaped + "%";
+    return userRepository.searchUsers(pattern, pageable)
         .map(this::MapToResponse);
   }
 
@@ -0,0 +1,150 @@
+package com.project.fitness.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.project.fitness.dto.ActivityRequest;
+import com.project.fitness.dto.ActivityResponse;
+import com.project.fitness.dto.GoalRequest;
+import com.project.fitness.dto.GoalResponse;
+import com.project.fitness.dto.MilestoneRequest;
+import com.project.fitness.model.ActivityType;
+import com.project.fitness.model.GoalType;
+import com.project.fitness.model.User;
+import com.project.fitness.repository.UserRepository;
+import com.project.fitness.service.ActivityService;
+import com.project.fitness.service.FieldSet;
+import com.project.fitness.service.GoalService;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+@SpringBootTest(properties =
+    "spring.datasource.url=jdbc:h2:mem:listcache;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class CacheConfigTest {
+
+  @Autowired
+  private GoalService goalService;
+
+  @Autowired
+  private ActivityService activityService;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private CacheManager cacheManager;
+
+  private String userId;
+
+  @BeforeEach
+  void setUp() {
+    userId = userRepository.save(User.builder()
+        .email("cache-" + System.nanoTime() + "@example.com").firstName("Ca").lastName("Che").build()).getId();
+  }
+
+  @Test
+  void goalListIsServedFromTheCacheUntilAWriteEvictsIt() {
+    GoalResponse goal = goalService.createGoal(goalRequest("Run 100 km", "km"), userId);
+
+    List<GoalResponse> first = goalService.getUserGoals(userId, FieldSet.ALL);
+    assertThat(goalService.getUserGoals(userId, FieldSet.ALL)).isSameAs(first);
+    assertThat(cached(CacheConfig.USER_GOALS)).isTrue();
+
+    goalService.addMilestone(goal.getId(), new MilestoneRequest("Halfway", null, 50.0), userId);
+
+    assertThat(cached(CacheConfig.USER_GOALS)).isFalse();
+    assertThat(goalService.getUserGoals(userId, FieldSet.ALL).get(0).getMilestones()).hasSize(1);
+  }
+
+  @Test
+  void everyGoalWriteEvictsTheListAndItsVersion() {
+    GoalResponse goal = goalService.createGoal(goalRequest("Run 100 km", "km"), userId);
+    GoalResponse other = goalService.createGoal(goalRequest("Ride 500 km", "km"), userId);
+
+    fillGoalCaches();
+    goalService.updateGoal(goal.getId(), goalRequest("Run 120 km", "km"), userId);
+    assertGoalCachesEvicted();
+
+    fillGoalCaches();
+    String milestoneId = goalService.addMilestone(goal.getId(), new MilestoneRequest("Start", null, 1.0), userId)
+        .getId();
+    assertGoalCachesEvicted();
+
+    fillGoalCaches();
+    goalService.achieveMilestone(milestoneId, userId);
+    assertGoalCachesEvicted();
+
+    fillGoalCaches();
+    goalService.deleteGoal(other.getId(), userId);
+    assertGoalCachesEvicted();
+    assertThat(goalService.getUserGoals(userId, FieldSet.ALL)).extracting(GoalResponse::getId)
+        .containsExactly(goal.getId());
+  }
+
+  @Test
+  void recordedActivityEvictsTheActivityListAndTheGoalsItAdvanced() {
+    goalService.createGoal(goalRequest("Run 100 km", "km"), userId);
+    List<ActivityResponse> before = activityService.getUserActivities(userId, FieldSet.ALL);
+    fillGoalCaches();
+    assertThat(cached(CacheConfig.USER_ACTIVITIES)).isTrue();
+
+    activityService.trackActivity(activityRequest());
+
+    assertThat(cached(CacheConfig.USER_ACTIVITIES)).isFalse();
+    assertThat(activityService.getUserActivities(userId, FieldSet.ALL)).hasSize(before.size() + 1);
+    // The run advanced the goal, so the goal list changed too
+    assertGoalCachesEvicted();
+    assertThat(goalService.getUserGoals(userId, FieldSet.ALL).get(0).getCurrentValue()).isEqualTo(5.0);
+  }
+
+  @Test
+  void fieldSelectionsBypassTheCache() {
+    goalService.createGoal(goalRequest("Run 100 km", "km"), userId);
+
+    goalService.getUserGoals(userId, FieldSet.parse("title", GoalResponse.class));
+    activityService.getUserActivities(userId, FieldSet.parse("type,duration", ActivityResponse.class));
+
+    assertThat(cached(CacheConfig.USER_GOALS)).isFalse();
+    assertThat(cached(CacheConfig.USER_ACTIVITIES)).isFalse();
+  }
+
+  private void fillGoalCaches() {
+    goalService.getUserGoals(userId, FieldSet.ALL);
+    cacheManager.getCache(CacheConfig.USER_GOALS_VERSION).put(userId, "v1");
+    assertThat(cached(CacheConfig.USER_GOALS)).isTrue();
+  }
+
+  private void assertGoalCachesEvicted() {
+    assertThat(cached(CacheConfig.USER_GOALS)).isFalse();
+    assertThat(cached(CacheConfig.USER_GOALS_VERSION)).isFalse();
+  }
+
+  private boolean cached(String cacheName) {
+    return cacheManager.getCache(cacheName).get(userId) != null;
+  }
+
+  private static GoalRequest goalRequest(String title, String unit) {
+    GoalRequest request = new GoalRequest();
+    request.setTitle(title);
+    request.setType(GoalType.ENDURANCE);
+    request.setTargetValue(100.0);
+    request.setCurrentValue(0.0);
+    request.setUnit(unit);
+    return request;
+  }
+
+  private ActivityRequest activityRequest() {
+    ActivityRequest request = new ActivityRequest();
+    request.setUserId(userId);
+    request.setType(ActivityType.RUNNING);
+    request.setDuration(30);
+    request.setCaloriesBurned(300);
+    request.setDistance(5.0);
+    request.setStartTime(LocalDateTime.now().minusHours(1));
+    return request;
+  }
+}
@@ -0,0 +1,153 @@
+package com.project.fitness.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.servlet.FilterChain;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ConcurrencyLimitFilterTest {
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void rejectsWith503WhenNoPermitFreesUpInTime() throws Exception {
+    ConcurrencyLimitFilter filter = filter(1, 50);
+    CountDownLatch release = new CountDownLatch(1);
+    Future<MockHttpServletResponse> holder = holdPermit(filter, release);
+
+    MockHttpServletResponse rejected = send(filter, "/api/activities", (req, res) -> { });
+
+    assertThat(rejected.getStatus()).isEqualTo(503);
+    assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    assertThat(rejected.getContentAsString()).contains("Server is busy");
+
+    release.countDown();
+    assertThat(holder.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+    assertThat(send(filter, "/api/activities", (req, res) -> { }).getStatus()).isEqualTo(200);
+  }
+
+  @Test
+  void queuedRequestProceedsOnceAPermitIsReleased() throws Exception {
+    ConcurrencyLimitFilter filter = filter(1, 5000);
+    CountDownLatch release = new CountDownLatch(1);
+    Future<MockHttpServletResponse> holder = holdPermit(filter, release);
+
+    Future<MockHttpServletResponse> queued = executor.submit(() -> send(filter, "/api/goals", (req, res) -> { }));
+    Thread.sleep(100);
+    assertThat(queued).isNotDone();
+
+    release.countDown();
+    assertThat(holder.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+    assertThat(queued.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+  }
+
+  @Test
+  void asyncRequestKeepsItsPermitUntilTheAsyncWorkCompletes() throws Exception {
+    ConcurrencyLimitFilter filter = filter(1, 50);
+    MockHttpServletRequest streaming = request("/api/activities/summary");
+    streaming.setAsyncSupported(true);
+
+    filter.doFilter(streaming, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+    // The initial dispatch has returned, but the export is still streaming
+    assertThat(send(filter, "/api/activities", (req, res) -> { }).getStatus()).isEqualTo(503);
+
+    streaming.getAsyncContext().complete();
+    assertThat(send(filter, "/api/activities", (req, res) -> { }).getStatus()).isEqualTo(200);
+  }
+
+  @Test
+  void nonApiRequestsAreNotLimited() throws Exception {
+    ConcurrencyLimitFilter filter = filter(1, 50);
+    CountDownLatch release = new CountDownLatch(1);
+    holdPermit(filter, release);
+
+    try {
+      assertThat(send(filter, "/actuator/health", (req, res) -> { }).getStatus()).isEqualTo(200);
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  void stalledDownloadDoesNotBlockOtherRequests() throws Exception {
+    ConcurrencyLimitFilter filter = filter(1, 50);
+    CountDownLatch stalled = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Future<MockHttpServletResponse> download = executor.submit(() -> send(filter, "/api/files/abc123", (req, res) -> {
+      stalled.countDown();
+      try {
+        release.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }));
+    assertThat(stalled.await(5, TimeUnit.SECONDS)).isTrue();
+
+    try {
+      assertThat(send(filter, "/api/activities", (req, res) -> { }).getStatus()).isEqualTo(200);
+      assertThat(send(filter, "/api/export/activities", (req, res) -> { }).getStatus()).isEqualTo(200);
+    } finally {
+      release.countDown();
+    }
+    assertThat(download.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+  }
+
+  @Test
+  void fileListingsStayLimited() throws Exception {
+    ConcurrencyLimitFilter filter = filter(1, 50);
+    CountDownLatch release = new CountDownLatch(1);
+    holdPermit(filter, release);
+
+    try {
+      assertThat(send(filter, "/api/files/user/me", (req, res) -> { }).getStatus()).isEqualTo(503);
+    } finally {
+      release.countDown();
+    }
+  }
+
+  private ConcurrencyLimitFilter filter(int maxInFlight, long acquireTimeoutMs) {
+    return new ConcurrencyLimitFilter(true, maxInFlight, 4, 10, acquireTimeoutMs);
+  }
+
+  // Occupies a permit until release is counted down; returns once the permit is taken
+  private Future<MockHttpServletResponse> holdPermit(ConcurrencyLimitFilter filter, CountDownLatch release)
+      throws InterruptedException {
+    CountDownLatch entered = new CountDownLatch(1);
+    Future<MockHttpServletResponse> holder = executor.submit(() -> send(filter, "/api/activities", (req, res) -> {
+      entered.countDown();
+      try {
+        release.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }));
+    assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+    return holder;
+  }
+
+  private static MockHttpServletResponse send(ConcurrencyLimitFilter filter, String uri, FilterChain chain)
+      throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request(uri), response, chain);
+    return response;
+  }
+
+  private static MockHttpServletRequest request(String uri) {
+    return new MockHttpServletRequest("GET", uri);
+  }
+}
@@ -0,0 +1,140 @@
+package com.project.fitness.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.project.fitness.config.ReplicaRoutingDataSource.Route;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ReplicaRoutingDataSourceTest {
+
+  private static final String SERVICE_READ = "com.project.fitness.service.ActivityService.getUserActivitiesPage";
+  private static final String CACHED_READ = "com.project.fitness.service.ActivityService.getUserActivities";
+  private static final String REPOSITORY_READ =
+      "org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById";
+  private static final String SERVICE_WRITE = "com.project.fitness.service.GoalService.createGoal";
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void readOnlyServiceTransactionGoesToTheReplica() {
+    ReplicaRoutingDataSource routing = routing(Duration.ofMinutes(1));
+    signIn("user-1");
+
+    assertThat(route(routing, SERVICE_READ, true)).isEqualTo(Route.REPLICA);
+    assertThat(meterRegistry.get("datasource.routing").tag("target", "replica").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void repositoryAndWriteTransactionsStayOnThePrimary() {
+    ReplicaRoutingDataSource routing = routing(Duration.ofMinutes(1));
+
+    assertThat(route(routing, REPOSITORY_READ, true)).isEqualTo(Route.PRIMARY);
+    assertThat(route(routing, SERVICE_WRITE, false)).isEqualTo(Route.PRIMARY);
+    assertThat(routing.determineCurrentLookupKey()).isEqualTo(Route.PRIMARY); // no transaction at all
+    assertThat(meterRegistry.get("datasource.routing").tag("target", "primary").counter().count()).isEqualTo(3);
+  }
+
+  @Test
+  void readsMarkedReadFromPrimaryStayOnThePrimary() {
+    ReplicaRoutingDataSource routing = routing(Duration.ofMinutes(1));
+    signIn("user-1");
+
+    assertThat(route(routing, CACHED_READ, true)).isEqualTo(Route.PRIMARY);
+    assertThat(route(routing, "com.project.fitness.service.GoalService.getUserGoals", true))
+        .isEqualTo(Route.PRIMARY);
+    assertThat(route(routing, "com.project.fitness.service.Missing.read", true)).isEqualTo(Route.REPLICA);
+  }
+
+  @Test
+  void committedWriteKeepsThatUsersReadsOnThePrimaryForTheWindow() throws Exception {
+    ReplicaRoutingDataSource routing = routing(Duration.ofMillis(300));
+    signIn("writer");
+    write(routing, TransactionSynchronization::afterCommit);
+
+    assertThat(route(routing, SERVICE_READ, true)).isEqualTo(Route.PRIMARY);
+    signIn("someone-else");
+    assertThat(route(routing, SERVICE_READ, true)).isEqualTo(Route.REPLICA);
+
+    Thread.sleep(600);
+    signIn("writer");
+    assertThat(route(routing, SERVICE_READ, true)).isEqualTo(Route.REPLICA);
+  }
+
+  @Test
+  void rolledBackWriteOpensNoWindow() {
+    ReplicaRoutingDataSource routing = routing(Duration.ofMinutes(1));
+    signIn("writer");
+    write(routing, sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+    assertThat(route(routing, SERVICE_READ, true)).isEqualTo(Route.REPLICA);
+  }
+
+  @Test
+  void writeWithoutASignedInUserOpensNoWindow() {
+    ReplicaRoutingDataSource routing = routing(Duration.ofMinutes(1));
+    SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken("key", "anonymousUser",
+        AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+
+    // Anonymous: nothing to register, so no synchronization is added
+    assertThat(inTransaction(SERVICE_WRITE, false, () -> {
+      routing.determineCurrentLookupKey();
+      return TransactionSynchronizationManager.getSynchronizations();
+    })).isEmpty();
+    assertThat(route(routing, SERVICE_READ, true)).isEqualTo(Route.REPLICA);
+  }
+
+  private ReplicaRoutingDataSource routing(Duration window) {
+    ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(new JdbcDataSource(), new JdbcDataSource(),
+        window, meterRegistry);
+    routing.afterPropertiesSet();
+    return routing;
+  }
+
+  private static Object route(ReplicaRoutingDataSource routing, String transactionName, boolean readOnly) {
+    return inTransaction(transactionName, readOnly, routing::determineCurrentLookupKey);
+  }
+
+  // A write transaction that ends by handing its synchronizations to completion
+  private static void write(ReplicaRoutingDataSource routing, Consumer<TransactionSynchronization> completion) {
+    List<TransactionSynchronization> synchronizations = inTransaction(SERVICE_WRITE, false, () -> {
+      assertThat(routing.determineCurrentLookupKey()).isEqualTo(Route.PRIMARY);
+      return TransactionSynchronizationManager.getSynchronizations();
+    });
+    synchronizations.forEach(completion);
+  }
+
+  private static <T> T inTransaction(String name, boolean readOnly, Supplier<T> body) {
+    TransactionSynchronizationManager.initSynchronization();
+    TransactionSynchronizationManager.setCurrentTransactionName(name);
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+    try {
+      return body.get();
+    } finally {
+      TransactionSynchronizationManager.clear();
+    }
+  }
+
+  private static void signIn(String userId) {
+    SecurityContextHolder.getContext().setAuthentication(
+        new UsernamePasswordAuthenticationToken(userId, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+  }
+}
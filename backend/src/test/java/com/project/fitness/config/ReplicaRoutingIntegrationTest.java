@@ -0,0 +1,152 @@
+package com.project.fitness.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.project.fitness.dto.ActivityRequest;
+import com.project.fitness.dto.ActivityResponse;
+import com.project.fitness.dto.GoalRequest;
+import com.project.fitness.dto.GoalResponse;
+import com.project.fitness.model.ActivityType;
+import com.project.fitness.model.Goal;
+import com.project.fitness.model.GoalType;
+import com.project.fitness.model.User;
+import com.project.fitness.repository.GoalRepository;
+import com.project.fitness.repository.UserRepository;
+import com.project.fitness.service.ActivityService;
+import com.project.fitness.service.FieldSet;
+import com.project.fitness.service.GoalService;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Primary and replica as two H2 databases. The replica only changes when a test calls
+ * {@link #replicate()}, so anything written since then stands for replication lag.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=" + ReplicaRoutingIntegrationTest.PRIMARY_URL,
+    "app.datasource.replica.url=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+    "app.datasource.replica.read-your-writes-window=500ms"})
+class ReplicaRoutingIntegrationTest {
+
+  static final String PRIMARY_URL =
+      "jdbc:h2:mem:routing-primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+  static final String REPLICA_URL =
+      "jdbc:h2:mem:routing-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Autowired
+  private ActivityService activityService;
+
+  @Autowired
+  private GoalService goalService;
+
+  @Autowired
+  private GoalRepository goalRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    user = userRepository.save(User.builder()
+        .email("routing-" + System.nanoTime() + "@example.com")
+        .firstName("Route")
+        .lastName("Tester")
+        .build());
+    replicate();
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void readsSeeTheUsersWriteInsideTheWindowAndGoToTheReplicaAfterIt() throws Exception {
+    signIn(user.getId());
+    activityService.trackActivity(activity(LocalDateTime.of(2024, 5, 6, 7, 30)));
+
+    assertThat(page()).hasSize(1);
+
+    Thread.sleep(700);
+    assertThat(page()).isEmpty(); // the replica has not caught up yet
+    assertThat(activityService.getUserActivities(user.getId(), FieldSet.ALL)).hasSize(1);
+
+    replicate();
+    assertThat(page()).hasSize(1);
+  }
+
+  @Test
+  void staleReplicaRowsDoNotReachTheCaches() {
+    GoalResponse created = goalService.createGoal(goal(), user.getId());
+    replicate();
+    // A background write (no signed-in user, so no read-your-writes window) the replica hasn't seen
+    new JdbcTemplate(dataSource).update("UPDATE goals SET current_value = 50 WHERE id = ?", created.getId());
+    entityManagerFactory.getCache().evictAll();
+
+    assertThat(goalService.getGoalById(created.getId(), user.getId()).getCurrentValue()).isZero();
+    assertThat(entityManagerFactory.getCache().contains(Goal.class, created.getId())).isFalse();
+
+    List<GoalResponse> cached = goalService.getUserGoals(user.getId(), FieldSet.ALL);
+    assertThat(cached).extracting(GoalResponse::getCurrentValue).containsExactly(50.0);
+
+    assertThat(goalRepository.findById(created.getId())).get().extracting(Goal::getCurrentValue).isEqualTo(50.0);
+    assertThat(entityManagerFactory.getCache().contains(Goal.class, created.getId())).isTrue();
+  }
+
+  // Copies the primary onto the replica, like a replica that has just caught up
+  private void replicate() {
+    List<String> script = new JdbcTemplate(dataSource).queryForList("SCRIPT NOPASSWORDS", String.class);
+    JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+    replica.execute("DROP ALL OBJECTS");
+    script.forEach(replica::execute);
+  }
+
+  private List<ActivityResponse> page() {
+    return activityService.getUserActivitiesPage(user.getId(), null, null, FieldSet.ALL).getItems();
+  }
+
+  private ActivityRequest activity(LocalDateTime start) {
+    ActivityRequest request = new ActivityRequest();
+    request.setUserId(user.getId());
+    request.setType(ActivityType.RUNNING);
+    request.setDuration(30);
+    request.setCaloriesBurned(300);
+    request.setStartTime(start);
+    return request;
+  }
+
+  private static GoalRequest goal() {
+    GoalRequest request = new GoalRequest();
+    request.setTitle("Run 100 km");
+    request.setType(GoalType.ENDURANCE);
+    request.setTargetValue(100.0);
+    request.setCurrentValue(0.0);
+    request.setUnit("km");
+    return request;
+  }
+
+  private static void signIn(String userId) {
+    SecurityContextHolder.getContext().setAuthentication(
+        new UsernamePasswordAuthenticationToken(userId, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+  }
+}
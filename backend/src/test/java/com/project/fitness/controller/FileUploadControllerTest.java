@@ -0,0 +1,153 @@
+package com.project.fitness.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.fitness.model.User;
+import com.project.fitness.repository.FileUploadRepository;
+import com.project.fitness.repository.UserRepository;
+import com.project.fitness.security.JwtUtils;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:files;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "file.upload-dir=./target/test-uploads/files"
+})
+@AutoConfigureMockMvc
+class FileUploadControllerTest {
+
+  private static final String RANGE_TEXT = "0123456789abcdef";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private FileUploadRepository fileUploadRepository;
+
+  @Autowired
+  private JwtUtils jwtUtils;
+
+  private String bearer;
+
+  @BeforeEach
+  void setUp() {
+    User user = userRepository.save(User.builder()
+        .email("files-" + System.nanoTime() + "@example.com").firstName("File").lastName("Owner").build());
+    bearer = "Bearer " + jwtUtils.generateToken(user.getId(), "USER");
+  }
+
+  @Test
+  void sharedBlobSurvivesUntilItsLastUploadIsDeleted() throws Exception {
+    // Unique per run so an earlier run's blob cannot satisfy the assertions
+    String text = "shared content " + System.nanoTime();
+    String first = upload("first.txt", text);
+    String second = upload("second.txt", text);
+    Path blob = Paths.get(fileUploadRepository.findById(first).orElseThrow().getFilePath());
+    assertThat(fileUploadRepository.findById(second).orElseThrow().getFilePath()).isEqualTo(blob.toString());
+
+    mockMvc.perform(delete("/api/files/" + first).header(HttpHeaders.AUTHORIZATION, bearer))
+        .andExpect(status().isNoContent());
+
+    assertThat(blob).exists();
+    mockMvc.perform(get("/api/files/" + second).header(HttpHeaders.AUTHORIZATION, bearer))
+        .andExpect(status().isOk())
+        .andExpect(content().string(text));
+
+    mockMvc.perform(delete("/api/files/" + second).header(HttpHeaders.AUTHORIZATION, bearer))
+        .andExpect(status().isNoContent());
+
+    assertThat(blob).doesNotExist();
+  }
+
+  @Test
+  void firstByteRangeReturnsPartialContent() throws Exception {
+    String id = upload("range.txt", RANGE_TEXT);
+
+    mockMvc.perform(get("/api/files/" + id).header(HttpHeaders.AUTHORIZATION, bearer)
+            .header(HttpHeaders.RANGE, "bytes=0-0"))
+        .andExpect(status().isPartialContent())
+        .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-0/16"))
+        .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 1))
+        .andExpect(content().string("0"));
+  }
+
+  @Test
+  void suffixRangeReturnsTheLastBytes() throws Exception {
+    String id = upload("suffix.txt", RANGE_TEXT);
+
+    mockMvc.perform(get("/api/files/" + id).header(HttpHeaders.AUTHORIZATION, bearer)
+            .header(HttpHeaders.RANGE, "bytes=-4"))
+        .andExpect(status().isPartialContent())
+        .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 12-15/16"))
+        .andExpect(content().string("cdef"));
+  }
+
+  @Test
+  void rangeBeyondTheEndIsNotSatisfiable() throws Exception {
+    String id = upload("beyond.txt", RANGE_TEXT);
+
+    mockMvc.perform(get("/api/files/" + id).header(HttpHeaders.AUTHORIZATION, bearer)
+            .header(HttpHeaders.RANGE, "bytes=100-200"))
+        .andExpect(status().isRequestedRangeNotSatisfiable())
+        .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */16"))
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  void staleIfRangeReturnsTheWholeFile() throws Exception {
+    String id = upload("if-range.txt", RANGE_TEXT);
+
+    mockMvc.perform(get("/api/files/" + id).header(HttpHeaders.AUTHORIZATION, bearer)
+            .header(HttpHeaders.RANGE, "bytes=0-0").header(HttpHeaders.IF_RANGE, "\"stale\""))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+        .andExpect(content().string(RANGE_TEXT));
+  }
+
+  @Test
+  void matchingIfNoneMatchReturnsNotModified() throws Exception {
+    String id = upload("etag.txt", RANGE_TEXT);
+    String etag = mockMvc.perform(get("/api/files/" + id).header(HttpHeaders.AUTHORIZATION, bearer))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    assertThat(etag).isEqualTo("\"" + id + "\"");
+
+    mockMvc.perform(get("/api/files/" + id).header(HttpHeaders.AUTHORIZATION, bearer)
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, etag))
+        .andExpect(content().string(""));
+  }
+
+  private String upload(String name, String text) throws Exception {
+    MockMultipartFile file = new MockMultipartFile("file", name, "text/plain", text.getBytes(StandardCharsets.UTF_8));
+    String body = mockMvc.perform(multipart("/api/files/upload").file(file).header(HttpHeaders.AUTHORIZATION, bearer))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    JsonNode json = objectMapper.readTree(body);
+    return json.get("id").asText();
+  }
+}
@@ -0,0 +1,153 @@
+package com.project.fitness.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.fitness.model.User;
+import com.project.fitness.repository.UserRepository;
+import com.project.fitness.security.JwtUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@SpringBootTest(properties =
+    "spring.datasource.url=jdbc:h2:mem:etags;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class ListEtagTest {
+
+  private static final String ACTIVITY = "{\"type\":\"RUNNING\",\"duration\":30,\"caloriesBurned\":300,"
+      + "\"distance\":5.0,\"startTime\":\"%s\"}";
+  private static final String GOAL = "{\"title\":\"%s\",\"type\":\"ENDURANCE\",\"targetValue\":100,"
+      + "\"currentValue\":0,\"unit\":\"km\"}";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private JwtUtils jwtUtils;
+
+  private String bearer;
+  private String otherBearer;
+
+  @BeforeEach
+  void setUp() {
+    bearer = bearer("etag-");
+    otherBearer = bearer("etag-other-");
+  }
+
+  @Test
+  void unchangedActivityListIsNotModified() throws Exception {
+    send(post("/api/activities"), bearer, ACTIVITY.formatted("2024-05-06T07:30:00"));
+    String etag = listEtag("/api/activities", bearer);
+    assertThat(etag).startsWith("W/\"");
+
+    mockMvc.perform(get("/api/activities").header(HttpHeaders.AUTHORIZATION, bearer)
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, etag))
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  void trackedAndBulkActivitiesChangeTheTag() throws Exception {
+    String initial = listEtag("/api/activities", bearer);
+
+    send(post("/api/activities"), bearer, ACTIVITY.formatted("2024-05-06T07:30:00"));
+    String afterTrack = assertModified("/api/activities", bearer, initial);
+
+    send(post("/api/activities/bulk"), bearer, "[" + ACTIVITY.formatted("2024-05-07T07:30:00") + "]");
+    assertModified("/api/activities", bearer, afterTrack);
+  }
+
+  @Test
+  void anotherUsersWriteKeepsTheTag() throws Exception {
+    String etag = listEtag("/api/activities", bearer);
+
+    send(post("/api/activities"), otherBearer, ACTIVITY.formatted("2024-05-06T07:30:00"));
+
+    mockMvc.perform(get("/api/activities").header(HttpHeaders.AUTHORIZATION, bearer)
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+  }
+
+  @Test
+  void goalWritesChangeTheTag() throws Exception {
+    String etag = listEtag("/api/goals", bearer);
+
+    String id = objectMapper.readTree(send(post("/api/goals"), bearer, GOAL.formatted("Run 100 km")))
+        .get("id").asText();
+    etag = assertModified("/api/goals", bearer, etag);
+
+    send(put("/api/goals/" + id), bearer, GOAL.formatted("Run 120 km"));
+    etag = assertModified("/api/goals", bearer, etag);
+
+    send(post("/api/goals/" + id + "/milestones"), bearer, "{\"title\":\"Halfway\",\"targetValue\":50}");
+    etag = assertModified("/api/goals", bearer, etag);
+
+    // The run advances the goal, so its list changes as well
+    send(post("/api/activities"), bearer, ACTIVITY.formatted("2024-05-06T07:30:00"));
+    assertModified("/api/goals", bearer, etag);
+  }
+
+  @Test
+  void measurementWritesChangeTheTag() throws Exception {
+    String etag = listEtag("/api/measurements", bearer);
+
+    String id = objectMapper.readTree(send(post("/api/measurements"), bearer,
+        "{\"measurementDate\":\"2024-05-06\",\"weight\":70.5}")).get("id").asText();
+    etag = assertModified("/api/measurements", bearer, etag);
+
+    mockMvc.perform(delete("/api/measurements/" + id).header(HttpHeaders.AUTHORIZATION, bearer))
+        .andExpect(status().is2xxSuccessful());
+    assertModified("/api/measurements", bearer, etag);
+  }
+
+  // Revalidates with the old tag: a full 200 with a different tag; returns the new one
+  private String assertModified(String uri, String auth, String oldEtag) throws Exception {
+    String etag = mockMvc.perform(get(uri).header(HttpHeaders.AUTHORIZATION, auth)
+            .header(HttpHeaders.IF_NONE_MATCH, oldEtag))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    assertThat(etag).isNotNull().isNotEqualTo(oldEtag);
+    return etag;
+  }
+
+  private String listEtag(String uri, String auth) throws Exception {
+    return mockMvc.perform(get(uri).header(HttpHeaders.AUTHORIZATION, auth))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+  }
+
+  private String send(MockHttpServletRequestBuilder request, String auth, String json) throws Exception {
+    return mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, auth)
+            .contentType(MediaType.APPLICATION_JSON).content(json))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+  }
+
+  private String bearer(String prefix) {
+    User user = userRepository.save(User.builder()
+        .email(prefix + System.nanoTime() + "@example.com").firstName("E").lastName("Tag").build());
+    return "Bearer " + jwtUtils.generateToken(user.getId(), "USER");
+  }
+}
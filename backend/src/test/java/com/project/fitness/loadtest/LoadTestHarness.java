@@ -0,0 +1,371 @@
+package com.project.fitness.loadtest;
+
+import com.project.fitness.FitnessManagementSystemApplication;
+import com.project.fitness.model.Activity;
+import com.project.fitness.model.ActivityType;
+import com.project.fitness.model.BodyMeasurement;
+import com.project.fitness.model.Goal;
+import com.project.fitness.model.GoalType;
+import com.project.fitness.model.Milestone;
+import com.project.fitness.model.User;
+import com.project.fitness.repository.ActivityRepository;
+import com.project.fitness.repository.BodyMeasurementRepository;
+import com.project.fitness.repository.GoalRepository;
+import com.project.fitness.repository.MilestoneRepository;
+import com.project.fitness.repository.UserRepository;
+import com.project.fitness.security.JwtUtils;
+import com.project.fitness.service.ActivityRollupService;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Self-contained load test: boots the backend on a random port against the embedded H2 database of
+ * the test profile, seeds users with activities, goals and measurements, then replays a weighted mix
+ * of {@code /api/**} calls from concurrent virtual-thread clients and prints throughput and latency
+ * percentiles per endpoint.
+ *
+ * <p>Clients behave like the frontend: they send a Bearer token and revalidate list endpoints with
+ * {@code If-None-Match}, and a share of the traffic records new activities (which changes the list
+ * versions). Each client waits for its response before the next call (closed model), so throughput
+ * is what the server sustains at the given concurrency. Run with
+ * {@code mvn -Pload-test test-compile exec:exec}; options go in {@code -Dload.args="--users=100 ..."}:
+ *
+ * <ul>
+ *   <li>{@code --users} (50), {@code --activities} (200), {@code --goals} (5) and
+ *       {@code --measurements} (30): seeded data, the last three per user</li>
+ *   <li>{@code --clients} (64): concurrent clients</li>
+ *   <li>{@code --warmup} (10) and {@code --duration} (30): seconds; warm-up calls are not reported</li>
+ * </ul>
+ *
+ * <p>H2 is not PostgreSQL, so absolute numbers only say something relative to another run of the same
+ * harness (before/after a change, virtual threads on/off, ...).
+ */
+public class LoadTestHarness {
+
+  private static final String PASSWORD = "load-test-password";
+
+  /** One kind of call in the mix, chosen with probability {@code weight / total weight}. */
+  private record Endpoint(String name, int weight, Call call) {
+  }
+
+  @FunctionalInterface
+  private interface Call {
+    Request build(SeededUser user, ThreadLocalRandom random);
+  }
+
+  /** Method, path and JSON body (null for GET) of one call. */
+  private record Request(String method, String path, String json) {
+  }
+
+  private record SeededUser(String id, String token, List<String> activityIds) {
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, Integer> options = parseOptions(args);
+    int users = options.getOrDefault("users", 50);
+    int activities = options.getOrDefault("activities", 200);
+    int goals = options.getOrDefault("goals", 5);
+    int measurements = options.getOrDefault("measurements", 30);
+    int clients = options.getOrDefault("clients", 64);
+    Duration warmup = Duration.ofSeconds(options.getOrDefault("warmup", 10));
+    Duration duration = Duration.ofSeconds(options.getOrDefault("duration", 30));
+
+    // devtools is on the test classpath; its restarter would boot the app a second time
+    System.setProperty("spring.devtools.restart.enabled", "false");
+    ConfigurableApplicationContext context = new SpringApplicationBuilder(FitnessManagementSystemApplication.class)
+        .properties(
+            "server.port=0",
+            "spring.main.banner-mode=off",
+            "logging.level.root=WARN",
+            // Same caches as production rather than the plain map the tests use
+            "spring.cache.type=caffeine",
+            "spring.cache.caffeine.spec=maximumSize=10000,expireAfterWrite=10m")
+        .run();
+    try {
+      int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+      long seedStarted = System.nanoTime();
+      List<SeededUser> seeded = seed(context, users, activities, goals, measurements);
+      System.out.printf("Seeded %d users (%d activities, %d goals, %d measurements each) in %d ms%n",
+          users, activities, goals, measurements, (System.nanoTime() - seedStarted) / 1_000_000);
+
+      LoadRun run = new LoadRun("http://localhost:" + port, seeded, endpoints());
+      System.out.printf("Warming up for %ds with %d clients%n", warmup.toSeconds(), clients);
+      run.execute(clients, warmup);
+      System.out.printf("Measuring for %ds with %d clients%n", duration.toSeconds(), clients);
+      Map<String, LatencyRecorder> results = run.execute(clients, duration);
+      report(results, duration);
+    } finally {
+      context.close();
+    }
+  }
+
+  // Weights approximate the frontend: mostly list reads (dashboard), some detail views and writes
+  private static List<Endpoint> endpoints() {
+    return List.of(
+        new Endpoint("GET /api/activities", 25, (user, random) -> get("/api/activities")),
+        new Endpoint("GET /api/activities/page", 10, (user, random) -> get("/api/activities/page?limit=20")),
+        new Endpoint("GET /api/activities/{id}", 10, (user, random) ->
+            get("/api/activities/" + user.activityIds().get(random.nextInt(user.activityIds().size())))),
+        new Endpoint("GET /api/activities/stats", 5, (user, random) -> get("/api/activities/stats")),
+        new Endpoint("POST /api/activities", 10, (user, random) -> post("/api/activities", """
+            {"type":"%s","duration":%d,"caloriesBurned":%d,"startTime":"%s","distance":%.1f,"intensity":"MEDIUM"}"""
+            .formatted(ActivityType.values()[random.nextInt(ActivityType.values().length)],
+                20 + random.nextInt(90), 150 + random.nextInt(600),
+                LocalDateTime.now().minusMinutes(random.nextInt(7 * 24 * 60)).withNano(0),
+                random.nextDouble(1, 20)))),
+        new Endpoint("GET /api/goals", 15, (user, random) -> get("/api/goals")),
+        new Endpoint("GET /api/measurements", 10, (user, random) -> get("/api/measurements")),
+        new Endpoint("GET /api/users/profile", 10, (user, random) -> get("/api/users/profile")),
+        new Endpoint("GET /api/recommendations/user/{id}", 5, (user, random) ->
+            get("/api/recommendations/user/" + user.id())));
+  }
+
+  private static Request get(String path) {
+    return new Request("GET", path, null);
+  }
+
+  private static Request post(String path, String json) {
+    return new Request("POST", path, json);
+  }
+
+  // Straight through the repositories: going through the API would spend the seeding time in BCrypt
+  private static List<SeededUser> seed(ConfigurableApplicationContext context, int users, int activities,
+      int goals, int measurements) {
+    UserRepository userRepository = context.getBean(UserRepository.class);
+    ActivityRepository activityRepository = context.getBean(ActivityRepository.class);
+    GoalRepository goalRepository = context.getBean(GoalRepository.class);
+    MilestoneRepository milestoneRepository = context.getBean(MilestoneRepository.class);
+    BodyMeasurementRepository measurementRepository = context.getBean(BodyMeasurementRepository.class);
+    JwtUtils jwtUtils = context.getBean(JwtUtils.class);
+    String password = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    LocalDateTime now = LocalDateTime.now().withNano(0);
+    List<SeededUser> seeded = new ArrayList<>(users);
+    for (int u = 0; u < users; u++) {
+      User user = userRepository.save(User.builder()
+          .email("load-" + u + "@example.com")
+          .password(password)
+          .firstName("Load")
+          .lastName("User " + u)
+          .build());
+
+      List<Activity> userActivities = new ArrayList<>(activities);
+      for (int a = 0; a < activities; a++) {
+        LocalDateTime start = now.minusHours(a * 13L + random.nextInt(12));
+        userActivities.add(Activity.builder()
+            .user(user)
+            .type(ActivityType.values()[random.nextInt(ActivityType.values().length)])
+            .additionalMetrics(Map.of("avgHeartRate", 110 + random.nextInt(60)))
+            .duration(20 + random.nextInt(90))
+            .caloriesBurned(150 + random.nextInt(600))
+            .startTime(start)
+            .date(start)
+            .distance(random.nextDouble(1, 20))
+            .intensity("MEDIUM")
+            .build());
+      }
+      List<String> activityIds = activityRepository.saveAll(userActivities).stream().map(Activity::getId).toList();
+
+      for (int g = 0; g < goals; g++) {
+        Goal goal = goalRepository.save(Goal.builder()
+            .user(user)
+            .title("Goal " + g)
+            .type(GoalType.values()[random.nextInt(GoalType.values().length)])
+            .targetValue(100.0)
+            .currentValue((double) random.nextInt(100))
+            .unit("km")
+            .startDate(LocalDate.now().minusMonths(1))
+            .deadline(LocalDate.now().plusMonths(2))
+            .build());
+        List<Milestone> milestones = new ArrayList<>(3);
+        for (int m = 1; m <= 3; m++) {
+          milestones.add(Milestone.builder().goal(goal).title("Milestone " + m).targetValue(25.0 * m).build());
+        }
+        milestoneRepository.saveAll(milestones);
+      }
+
+      List<BodyMeasurement> userMeasurements = new ArrayList<>(measurements);
+      for (int m = 0; m < measurements; m++) {
+        userMeasurements.add(BodyMeasurement.builder()
+            .user(user)
+            .measurementDate(LocalDate.now().minusWeeks(m))
+            .weight(85.0 - m * 0.2)
+            .height(180.0)
+            .bodyFat(20.0 - m * 0.1)
+            .bmi(26.0 - m * 0.06)
+            .measurements(Map.of("waist", 90.0 - m * 0.2))
+            .build());
+      }
+      measurementRepository.saveAll(userMeasurements);
+
+      seeded.add(new SeededUser(user.getId(), jwtUtils.generateToken(user.getId(), "USER"), activityIds));
+    }
+    context.getBean(ActivityRollupService.class).rebuildAll();
+    return seeded;
+  }
+
+  /** Drives the mix from {@code clients} virtual threads until the time is up. */
+  private static final class LoadRun {
+
+    private final String baseUrl;
+    private final List<SeededUser> users;
+    private final List<Endpoint> endpoints;
+    private final int totalWeight;
+    private final HttpClient httpClient;
+    // Last ETag seen per user and list path, sent back as If-None-Match like a browser would
+    private final Map<String, String> etags = new ConcurrentHashMap<>();
+
+    LoadRun(String baseUrl, List<SeededUser> users, List<Endpoint> endpoints) {
+      this.baseUrl = baseUrl;
+      this.users = users;
+      this.endpoints = endpoints;
+      this.totalWeight = endpoints.stream().mapToInt(Endpoint::weight).sum();
+      this.httpClient = HttpClient.newBuilder()
+          .executor(Executors.newVirtualThreadPerTaskExecutor())
+          .connectTimeout(Duration.ofSeconds(5))
+          .build();
+    }
+
+    Map<String, LatencyRecorder> execute(int clients, Duration duration) throws InterruptedException {
+      Map<String, LatencyRecorder> recorders = new HashMap<>();
+      endpoints.forEach(endpoint -> recorders.put(endpoint.name(), new LatencyRecorder()));
+      long deadline = System.nanoTime() + duration.toNanos();
+      try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+        for (int c = 0; c < clients; c++) {
+          executor.submit(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+              Endpoint endpoint = pick(random.nextInt(totalWeight));
+              call(endpoint, users.get(random.nextInt(users.size())), random, recorders.get(endpoint.name()));
+            }
+            return null;
+          });
+        }
+      }
+      return recorders;
+    }
+
+    private Endpoint pick(int roll) {
+      for (Endpoint endpoint : endpoints) {
+        roll -= endpoint.weight();
+        if (roll < 0) {
+          return endpoint;
+        }
+      }
+      throw new IllegalStateException("Weights do not add up");
+    }
+
+    private void call(Endpoint endpoint, SeededUser user, ThreadLocalRandom random, LatencyRecorder recorder) {
+      Request request = endpoint.call().build(user, random);
+      HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + request.path()))
+          .timeout(Duration.ofSeconds(30))
+          .header("Authorization", "Bearer " + user.token());
+      String etagKey = user.id() + " " + request.path();
+      if (request.json() != null) {
+        builder.header("Content-Type", "application/json")
+            .method(request.method(), HttpRequest.BodyPublishers.ofString(request.json()));
+      } else {
+        builder.method(request.method(), HttpRequest.BodyPublishers.noBody());
+        String etag = etags.get(etagKey);
+        if (etag != null) {
+          builder.header("If-None-Match", etag);
+        }
+      }
+
+      long started = System.nanoTime();
+      int status;
+      try {
+        HttpResponse<Void> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.discarding());
+        status = response.statusCode();
+        response.headers().firstValue("ETag").ifPresent(value -> etags.put(etagKey, value));
+      } catch (Exception e) {
+        if (e instanceof InterruptedException) {
+          Thread.currentThread().interrupt();
+        }
+        status = -1;
+      }
+      recorder.record(System.nanoTime() - started, status);
+    }
+  }
+
+  /** Latencies of one endpoint; a plain synchronized array, cheap next to an HTTP round trip. */
+  private static final class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private final Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+
+    synchronized void record(long nanos, int status) {
+      if (count == latencies.length) {
+        latencies = Arrays.copyOf(latencies, count * 2);
+      }
+      latencies[count++] = nanos;
+      statuses.computeIfAbsent(status, s -> new AtomicInteger()).incrementAndGet();
+    }
+
+    synchronized long[] sorted() {
+      long[] copy = Arrays.copyOf(latencies, count);
+      Arrays.sort(copy);
+      return copy;
+    }
+  }
+
+  private static void report(Map<String, LatencyRecorder> results, Duration duration) {
+    double seconds = duration.toMillis() / 1000.0;
+    System.out.printf("%n%-36s %8s %9s %9s %9s %9s  %s%n",
+        "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "status codes");
+    List<long[]> all = new ArrayList<>();
+    results.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+      long[] latencies = entry.getValue().sorted();
+      all.add(latencies);
+      System.out.printf("%-36s %8d %9.1f %9.2f %9.2f %9.2f  %s%n", entry.getKey(), latencies.length,
+          latencies.length / seconds, percentile(latencies, 50), percentile(latencies, 99),
+          percentile(latencies, 100), new TreeMap<>(entry.getValue().statuses));
+    });
+    long[] merged = all.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+    System.out.printf("%-36s %8d %9.1f %9.2f %9.2f %9.2f%n", "TOTAL", merged.length, merged.length / seconds,
+        percentile(merged, 50), percentile(merged, 99), percentile(merged, 100));
+  }
+
+  // Nearest-rank percentile in milliseconds
+  private static double percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+    return sorted[Math.max(rank - 1, 0)] / 1_000_000.0;
+  }
+
+  private static Map<String, Integer> parseOptions(String[] args) {
+    Map<String, Integer> options = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Expected --name=value, got " + arg);
+      }
+      String[] pair = arg.substring(2).split("=", 2);
+      options.put(pair[0], Integer.parseInt(pair[1]));
+    }
+    return options;
+  }
+}
@@ -0,0 +1,88 @@
+package com.project.fitness.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.project.fitness.security.JwtAuthenticationCache.VerifiedToken;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+class JwtAuthenticationCacheTest {
+
+  private static final long HOUR = 3_600_000;
+
+  @Test
+  void returnsTheVerifiedTokenForTheSameToken() {
+    JwtAuthenticationCache cache = new JwtAuthenticationCache(100);
+    VerifiedToken verified = token("user-1", HOUR);
+
+    cache.put("header.payload.signature", verified);
+
+    assertThat(cache.get("header.payload.signature")).isEqualTo(verified);
+    assertThat(cache.get("header.payload.other")).isNull();
+  }
+
+  @Test
+  void expiredEntriesAreNotReturnedAndAreRemoved() {
+    JwtAuthenticationCache cache = new JwtAuthenticationCache(100);
+    cache.put("expired", token("user-1", -1));
+
+    assertThat(cache.get("expired")).isNull();
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void fullCacheMakesRoomFromExpiredEntriesBeforeLiveOnes() {
+    JwtAuthenticationCache cache = new JwtAuthenticationCache(100);
+    for (int i = 0; i < 95; i++) {
+      cache.put("live-" + i, token("user-" + i, HOUR));
+    }
+    for (int i = 0; i < 5; i++) {
+      cache.put("expired-" + i, token("gone-" + i, -1));
+    }
+
+    cache.put("new", token("new-user", HOUR));
+
+    assertThat(cache.size()).isEqualTo(96);
+    for (int i = 0; i < 95; i++) {
+      assertThat(cache.get("live-" + i)).as("live-" + i).isNotNull();
+    }
+    assertThat(cache.get("new")).isNotNull();
+  }
+
+  @Test
+  void fullCacheOfLiveEntriesShedsATenth() {
+    JwtAuthenticationCache cache = new JwtAuthenticationCache(100);
+    for (int i = 0; i < 100; i++) {
+      cache.put("live-" + i, token("user-" + i, HOUR));
+    }
+
+    cache.put("new", token("new-user", HOUR));
+
+    assertThat(cache.size()).isEqualTo(91);
+    assertThat(cache.get("new")).isNotNull();
+  }
+
+  @Test
+  void nonAsciiTokensDoNotCollide() {
+    JwtAuthenticationCache cache = new JwtAuthenticationCache(100);
+    cache.put("token-é", token("user-1", HOUR));
+
+    // US-ASCII encoding mapped both to "token-?"
+    assertThat(cache.get("token-è")).isNull();
+    assertThat(cache.get("token-é")).isNotNull();
+  }
+
+  @Test
+  void disabledCacheStoresNothing() {
+    JwtAuthenticationCache cache = new JwtAuthenticationCache(0);
+    cache.put("token", token("user-1", HOUR));
+
+    assertThat(cache.get("token")).isNull();
+  }
+
+  private static VerifiedToken token(String userId, long ttlMillis) {
+    return new VerifiedToken(userId, List.of(new SimpleGrantedAuthority("ROLE_USER")),
+        System.currentTimeMillis() + ttlMillis);
+  }
+}
@@ -0,0 +1,81 @@
+package com.project.fitness.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.project.fitness.model.Activity;
+import com.project.fitness.model.ActivityType;
+import com.project.fitness.model.Recommendation;
+import com.project.fitness.model.User;
+import com.project.fitness.repository.ActivityRepository;
+import com.project.fitness.repository.RecommendationRepository;
+import com.project.fitness.repository.UserRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:dedup;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "app.activities.dedup.cleanup-on-startup=true"
+})
+class ActivityDuplicateCleanupTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2024, 5, 6, 7, 30);
+
+  @Autowired
+  private ActivityDuplicateCleanup cleanup;
+
+  @Autowired
+  private ActivityRepository activityRepository;
+
+  @Autowired
+  private RecommendationRepository recommendationRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void removesDuplicatesOfADatabaseWithoutTheConstraintAndAddsIt() {
+    // A database from before the natural key: the schema update could not add the constraint
+    jdbcTemplate.execute("ALTER TABLE activity DROP CONSTRAINT " + ActivityDuplicateCleanup.CONSTRAINT);
+    assertThat(cleanup.constraintExists()).isFalse();
+
+    User user = userRepository.save(User.builder().email("dedup@example.com").firstName("De").lastName("Dup").build());
+    for (int i = 0; i < 3; i++) {
+      activityRepository.save(activity(user, START));
+    }
+    Activity other = activityRepository.save(activity(user, START.plusDays(1)));
+    List<Activity> group = activityRepository.findByUser_IdAndTypeAndStartTimeAndDurationOrderByCreatedAtAscIdAsc(
+        user.getId(), ActivityType.RUNNING, START, 30);
+    Activity kept = group.get(0);
+    Recommendation recommendation = recommendationRepository.save(Recommendation.builder()
+        .user(user).activity(group.get(2)).type("PACE").recommendation("Slow down").build());
+
+    cleanup.checkOnStartup();
+
+    assertThat(activityRepository.findByUser_Id(user.getId())).extracting(Activity::getId)
+        .containsExactlyInAnyOrder(kept.getId(), other.getId());
+    assertThat(recommendationRepository.findResponsesByActivityId(kept.getId()))
+        .extracting("id").containsExactly(recommendation.getId());
+    assertThat(cleanup.constraintExists()).isTrue();
+    assertThatThrownBy(() -> activityRepository.saveAndFlush(activity(user, START)))
+        .isInstanceOf(DataIntegrityViolationException.class);
+  }
+
+  private static Activity activity(User user, LocalDateTime start) {
+    return Activity.builder()
+        .user(user)
+        .type(ActivityType.RUNNING)
+        .duration(30)
+        .caloriesBurned(300)
+        .startTime(start)
+        .build();
+  }
+}
@@ -0,0 +1,116 @@
+package com.project.fitness.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.project.fitness.dto.ActivityRequest;
+import com.project.fitness.dto.BulkActivityItemResult;
+import com.project.fitness.dto.BulkActivityItemResult.Status;
+import com.project.fitness.dto.BulkActivityResponse;
+import com.project.fitness.model.ActivityType;
+import com.project.fitness.model.User;
+import com.project.fitness.repository.ActivityRepository;
+import com.project.fitness.repository.UserRepository;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:ingest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "app.activities.bulk.chunk-size=2"
+})
+class ActivityIngestServiceTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2024, 5, 6, 7, 30);
+
+  @Autowired
+  private ActivityIngestService ingestService;
+
+  @Autowired
+  private ActivityRepository activityRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    user = userRepository.save(User.builder()
+        .email("ingest-" + System.nanoTime() + "@example.com").firstName("Bulk").lastName("Loader").build());
+  }
+
+  @Test
+  void ndjsonReportsEveryItemByPosition() {
+    String ndjson = line(START) + "\n"
+        + "{not json\n"
+        + "{\"type\":\"RUNNING\",\"caloriesBurned\":100}\n"
+        + "\n" // blank lines are not items
+        + line(START) + "\n"
+        + line(START.plusDays(1)) + "\n";
+
+    BulkActivityResponse response = ingestService.ingestNdjson(user.getId(),
+        new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), null);
+
+    assertThat(response.getItems()).extracting(BulkActivityItemResult::getIndex).containsExactly(0, 1, 2, 3, 4);
+    assertThat(response.getItems()).extracting(BulkActivityItemResult::getStatus)
+        .containsExactly(Status.CREATED, Status.INVALID, Status.INVALID, Status.DUPLICATE, Status.CREATED);
+    assertThat(response.getItems().get(1).getError()).startsWith("Malformed JSON");
+    assertThat(response.getItems().get(2).getError()).isEqualTo("Duration is required");
+    assertThat(response.getItems().get(3).getError()).isEqualTo("Same workout as item 0");
+    assertThat(response.getReceived()).isEqualTo(5);
+    assertThat(response.getCreated()).isEqualTo(2);
+    assertThat(response.getDuplicates()).isEqualTo(1);
+    assertThat(response.getRejected()).isEqualTo(2);
+    assertThat(activityRepository.findByUser_Id(user.getId())).hasSize(2);
+  }
+
+  @Test
+  void failingChunkIsReportedWithoutAffectingTheOtherChunks() {
+    ActivityRequest tooLong = request(START.plusHours(1));
+    tooLong.setNotes("x".repeat(300)); // longer than the notes column
+
+    // Chunks of two: [0, 1] fails as a unit, [2] is written
+    BulkActivityResponse response = ingestService.ingest(user.getId(),
+        List.of(request(START), tooLong, request(START.plusHours(2))), null);
+
+    assertThat(response.getItems()).extracting(BulkActivityItemResult::getStatus)
+        .containsExactly(Status.FAILED, Status.FAILED, Status.CREATED);
+    assertThat(response.getItems().get(0).getError()).isEqualTo("Could not be stored; retry this item");
+    assertThat(response.getItems().get(0).getId()).isNull();
+    assertThat(response.getCreated()).isEqualTo(1);
+    assertThat(response.getRejected()).isEqualTo(2);
+    assertThat(activityRepository.findByUser_Id(user.getId())).extracting("id")
+        .containsExactly(response.getItems().get(2).getId());
+  }
+
+  @Test
+  void replayedBatchResolvesItemForItemToTheStoredActivities() {
+    List<ActivityRequest> batch = List.of(request(START), request(START.plusHours(1)), request(START.plusHours(2)));
+    BulkActivityResponse first = ingestService.ingest(user.getId(), batch, "batch-1");
+
+    BulkActivityResponse replay = ingestService.ingest(user.getId(), batch, "batch-1");
+
+    assertThat(replay.getItems()).extracting(BulkActivityItemResult::getStatus).containsOnly(Status.DUPLICATE);
+    assertThat(replay.getItems()).extracting(BulkActivityItemResult::getId)
+        .containsExactlyElementsOf(first.getItems().stream().map(BulkActivityItemResult::getId).toList());
+    assertThat(activityRepository.findByUser_Id(user.getId())).hasSize(3);
+  }
+
+  private static String line(LocalDateTime start) {
+    return "{\"type\":\"RUNNING\",\"duration\":30,\"caloriesBurned\":300,\"startTime\":\"" + start + "\"}";
+  }
+
+  private ActivityRequest request(LocalDateTime start) {
+    ActivityRequest request = new ActivityRequest();
+    request.setType(ActivityType.RUNNING);
+    request.setDuration(30);
+    request.setCaloriesBurned(300);
+    request.setStartTime(start);
+    return request;
+  }
+}
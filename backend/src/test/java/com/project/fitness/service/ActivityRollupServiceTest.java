@@ -0,0 +1,147 @@
+package com.project.fitness.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.project.fitness.dto.ActivityRequest;
+import com.project.fitness.exceptions.ServiceUnavailableException;
+import com.project.fitness.model.Activity;
+import com.project.fitness.model.ActivityRollup;
+import com.project.fitness.model.ActivityType;
+import com.project.fitness.model.RollupPeriod;
+import com.project.fitness.model.User;
+import com.project.fitness.repository.ActivityRepository;
+import com.project.fitness.repository.ActivityRollupRepository;
+import com.project.fitness.repository.UserRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// A single pooled connection: any write that needs a second one while holding the first times out
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:rollups;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.datasource.hikari.maximum-pool-size=1",
+    "spring.datasource.hikari.connection-timeout=5000"
+})
+class ActivityRollupServiceTest {
+
+  private static final LocalDate MONDAY = LocalDate.of(2024, 3, 4);
+
+  @Autowired
+  private ActivityService activityService;
+
+  @Autowired
+  private ActivityRollupService rollupService;
+
+  @Autowired
+  private ActivityRollupRepository rollupRepository;
+
+  @Autowired
+  private ActivityRepository activityRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    user = userRepository.save(User.builder()
+        .email("rollups-" + System.nanoTime() + "@example.com").firstName("Roll").lastName("Up").build());
+  }
+
+  @Test
+  void concurrentInsertsIntoNewBucketsDoNotStarveThePool() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> inserts = new ArrayList<>();
+      for (int i = 0; i < 16; i++) {
+        // Two activities per day, so writers also race to create the same bucket
+        LocalDateTime start = MONDAY.plusDays(i / 2).atTime(7, i);
+        inserts.add(executor.submit(() -> activityService.trackActivity(request(start))));
+      }
+      for (Future<?> insert : inserts) {
+        insert.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    List<ActivityRollup> days = rollupRepository.findByUser_IdAndPeriodAndPeriodStartBetweenOrderByPeriodStartAsc(
+        user.getId(), RollupPeriod.DAY, MONDAY, MONDAY.plusDays(7));
+    assertThat(days).hasSize(8).allSatisfy(day -> assertThat(day.getActivityCount()).isEqualTo(2));
+    List<ActivityRollup> weeks = rollupRepository.findByUser_IdAndPeriodAndPeriodStartBetweenOrderByPeriodStartAsc(
+        user.getId(), RollupPeriod.WEEK, MONDAY, MONDAY.plusDays(7));
+    assertThat(weeks).extracting(ActivityRollup::getActivityCount).containsExactly(14L, 2L);
+  }
+
+  @Test
+  void recordingIntoMissingBucketFailsFastInsteadOfOpeningSecondConnection() {
+    Activity activity = Activity.builder()
+        .user(user)
+        .type(ActivityType.RUNNING)
+        .duration(30)
+        .caloriesBurned(300)
+        .startTime(MONDAY.minusYears(1).atTime(7, 0))
+        .build();
+
+    // Holds the only connection; creating the bucket in a nested transaction would time out instead
+    assertThatThrownBy(() -> new TransactionTemplate(transactionManager)
+        .executeWithoutResult(status -> rollupService.record(activity)))
+        .isInstanceOf(ServiceUnavailableException.class);
+  }
+
+  @Test
+  void createMissingBucketsRefusesToRunInsideTransaction() {
+    Activity activity = Activity.builder().user(user).type(ActivityType.YOGA).startTime(MONDAY.atTime(7, 0)).build();
+
+    assertThatThrownBy(() -> new TransactionTemplate(transactionManager)
+        .executeWithoutResult(status -> rollupService.createMissingBuckets(List.of(activity))))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void activityWithoutStartTimeOrDateCountsOnTheDayItWasRecorded() {
+    // Recorded just before midnight: the bucket and the increment must agree on the day
+    LocalDateTime recordedAt = MONDAY.minusDays(1).atTime(23, 59, 59);
+    Activity activity = ActivityService.toEntity(request(null), user, null, recordedAt);
+    rollupService.createMissingBuckets(List.of(activity));
+
+    Activity saved = new TransactionTemplate(transactionManager).execute(status -> {
+      Activity row = activityRepository.saveAndFlush(activity);
+      rollupService.record(row);
+      return row;
+    });
+
+    assertThat(saved.getCreatedAt()).isEqualTo(recordedAt);
+    assertThat(rollupRepository.findByUser_IdAndPeriodAndPeriodStartBetweenOrderByPeriodStartAsc(
+            user.getId(), RollupPeriod.DAY, recordedAt.toLocalDate(), recordedAt.toLocalDate()))
+        .extracting(ActivityRollup::getActivityCount)
+        .containsExactly(1L);
+  }
+
+  private ActivityRequest request(LocalDateTime start) {
+    ActivityRequest request = new ActivityRequest();
+    request.setUserId(user.getId());
+    request.setType(ActivityType.RUNNING);
+    request.setDuration(30);
+    request.setCaloriesBurned(300);
+    request.setDistance(5.0);
+    request.setStartTime(start);
+    return request;
+  }
+}
@@ -0,0 +1,162 @@
+package com.project.fitness.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.project.fitness.dto.ActivityRequest;
+import com.project.fitness.dto.ActivityResponse;
+import com.project.fitness.dto.ActivitySearchCriteria;
+import com.project.fitness.model.Activity;
+import com.project.fitness.model.ActivityRollup;
+import com.project.fitness.model.ActivityType;
+import com.project.fitness.model.RollupPeriod;
+import com.project.fitness.model.User;
+import com.project.fitness.repository.ActivityRepository;
+import com.project.fitness.repository.ActivityRollupRepository;
+import com.project.fitness.repository.UserRepository;
+import com.project.fitness.service.ActivityService.TrackResult;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:activities;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "app.activities.intensity.normalize-on-startup=true"
+})
+class ActivityServiceTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2024, 5, 6, 7, 30);
+
+  @Autowired
+  private ActivityService activityService;
+
+  @Autowired
+  private ActivityRepository activityRepository;
+
+  @Autowired
+  private ActivityRollupRepository rollupRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    user = userRepository.save(User.builder()
+        .email("activities-" + System.nanoTime() + "@example.com").firstName("Act").lastName("Ive").build());
+  }
+
+  @Test
+  void replayedIdempotencyKeyReturnsTheStoredActivity() {
+    TrackResult first = activityService.trackActivity(request(START), "key-1");
+    TrackResult replay = activityService.trackActivity(request(START.plusHours(1)), "key-1");
+
+    assertThat(first.duplicate()).isFalse();
+    assertThat(replay.duplicate()).isTrue();
+    assertThat(replay.activity().getId()).isEqualTo(first.activity().getId());
+    assertThat(activityRepository.findByUser_Id(user.getId())).hasSize(1);
+    assertThat(dayCount(START.toLocalDate())).isEqualTo(1);
+  }
+
+  @Test
+  void idempotencyKeyCollisionIsResolvedFromTheDatabase() {
+    // Stored without going through the service, so the in-memory key cache has never seen it
+    Activity stored = activityRepository.save(entity(START.minusDays(1), "key-2"));
+
+    TrackResult result = activityService.trackActivity(request(START), "key-2");
+
+    assertThat(result.duplicate()).isTrue();
+    assertThat(result.activity().getId()).isEqualTo(stored.getId());
+    assertThat(activityRepository.findByUser_Id(user.getId())).hasSize(1);
+    assertThat(dayCount(START.toLocalDate())).isZero();
+  }
+
+  @Test
+  void naturalKeyCollisionIsResolvedFromTheDatabase() {
+    Activity stored = activityRepository.save(entity(START, null));
+
+    TrackResult result = activityService.trackActivity(request(START), null);
+
+    assertThat(result.duplicate()).isTrue();
+    assertThat(result.activity().getId()).isEqualTo(stored.getId());
+    assertThat(activityRepository.findByUser_Id(user.getId())).hasSize(1);
+    // The insert rolled back together with its rollup increment
+    assertThat(dayCount(START.toLocalDate())).isZero();
+  }
+
+  @Test
+  void sameWorkoutWithDifferentDurationIsNotADuplicate() {
+    activityService.trackActivity(request(START), null);
+    ActivityRequest longer = request(START);
+    longer.setDuration(45);
+
+    TrackResult result = activityService.trackActivity(longer, null);
+
+    assertThat(result.duplicate()).isFalse();
+    assertThat(activityRepository.findByUser_Id(user.getId())).hasSize(2);
+  }
+
+  @Test
+  void intensityIsStoredNormalizedAndSearchedInAnyCase() {
+    ActivityRequest request = request(START);
+    request.setIntensity(" high ");
+    String id = activityService.trackActivity(request, null).activity().getId();
+
+    assertThat(activityRepository.findById(id).orElseThrow().getIntensity()).isEqualTo("HIGH");
+    assertThat(searchByIntensity("High")).extracting(ActivityResponse::getId).containsExactly(id);
+    assertThat(searchByIntensity("low")).isEmpty();
+  }
+
+  @Test
+  void intensitiesStoredBeforeNormalizationAreFixedAtStartup() {
+    Activity legacy = entity(START, null);
+    legacy.setIntensity("medium ");
+    legacy = activityRepository.save(legacy);
+    Activity blank = entity(START.plusHours(1), null);
+    blank.setIntensity("");
+    blank = activityRepository.save(blank);
+
+    activityService.normalizeStoredIntensities();
+
+    assertThat(activityRepository.findById(legacy.getId()).orElseThrow().getIntensity()).isEqualTo("MEDIUM");
+    assertThat(activityRepository.findById(blank.getId()).orElseThrow().getIntensity()).isNull();
+    assertThat(searchByIntensity("medium")).extracting(ActivityResponse::getId).containsExactly(legacy.getId());
+  }
+
+  private List<ActivityResponse> searchByIntensity(String intensity) {
+    return activityService.searchActivities(user.getId(),
+        new ActivitySearchCriteria(null, null, null, intensity, null, null, null, null), FieldSet.ALL);
+  }
+
+  private long dayCount(LocalDate day) {
+    return rollupRepository.findByUser_IdAndPeriodAndPeriodStartBetweenOrderByPeriodStartAsc(
+            user.getId(), RollupPeriod.DAY, day, day).stream()
+        .mapToLong(ActivityRollup::getActivityCount)
+        .sum();
+  }
+
+  private ActivityRequest request(LocalDateTime start) {
+    ActivityRequest request = new ActivityRequest();
+    request.setUserId(user.getId());
+    request.setType(ActivityType.RUNNING);
+    request.setDuration(30);
+    request.setCaloriesBurned(300);
+    request.setStartTime(start);
+    return request;
+  }
+
+  private Activity entity(LocalDateTime start, String idempotencyKey) {
+    return Activity.builder()
+        .user(user)
+        .type(ActivityType.RUNNING)
+        .duration(30)
+        .caloriesBurned(300)
+        .startTime(start)
+        .idempotencyKey(idempotencyKey)
+        .build();
+  }
+}
@@ -0,0 +1,185 @@
+package com.project.fitness.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.project.fitness.dto.FileUploadResponse;
+import com.project.fitness.dto.UploadSessionRequest;
+import com.project.fitness.dto.UploadSessionResponse;
+import com.project.fitness.exceptions.ConflictException;
+import com.project.fitness.model.User;
+import com.project.fitness.repository.FileUploadRepository;
+import com.project.fitness.repository.UploadSessionRepository;
+import com.project.fitness.repository.UserRepository;
+import java.io.ByteArrayInputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:chunked;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "file.upload-dir=./target/test-uploads/chunked",
+    "file.variants.enabled=false"
+})
+class ChunkedUploadServiceTest {
+
+  private static final byte[] CONTENT = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+  @Autowired
+  private ChunkedUploadService chunkedUploadService;
+
+  @Autowired
+  private UploadSessionRepository sessionRepository;
+
+  @Autowired
+  private FileUploadRepository fileUploadRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    user = userRepository.save(User.builder()
+        .email("chunked-" + System.nanoTime() + "@example.com").firstName("Chunk").lastName("Ed").build());
+  }
+
+  @Test
+  void resumesFromReportedOffsetAndAssemblesFile() throws Exception {
+    UploadSessionResponse session = start();
+
+    append(session, 0, 0, 6);
+    // Connection dropped: the client asks where to resume
+    long offset = chunkedUploadService.getSession(session.getId(), user.getId()).getReceivedBytes();
+    assertThat(offset).isEqualTo(6);
+    append(session, offset, 6, CONTENT.length);
+
+    FileUploadResponse file = chunkedUploadService.complete(session.getId(), user.getId());
+
+    assertThat(file.getFileSize()).isEqualTo(CONTENT.length);
+    Path stored = Paths.get(fileUploadRepository.findById(file.getId()).orElseThrow().getFilePath());
+    assertThat(Files.readAllBytes(stored)).isEqualTo(CONTENT);
+  }
+
+  @Test
+  void chunkAtStaleOffsetIsRejectedWithoutTouchingReceivedBytes() throws Exception {
+    UploadSessionResponse session = start();
+    append(session, 0, 0, 6);
+
+    // A retry of the first chunk after it was already committed
+    assertThatThrownBy(() -> chunkedUploadService.appendChunk(session.getId(), user.getId(), 0,
+        new ByteArrayInputStream("XXXXXX".getBytes(StandardCharsets.US_ASCII))))
+        .isInstanceOf(ConflictException.class);
+
+    assertThat(Files.readAllBytes(tempPath(session))).isEqualTo(slice(0, 6));
+    assertThat(chunkedUploadService.getSession(session.getId(), user.getId()).getReceivedBytes()).isEqualTo(6);
+  }
+
+  @Test
+  void chunkWhileAnotherRequestHoldsTheSessionIsRejected() throws Exception {
+    UploadSessionResponse session = start();
+    append(session, 0, 0, 6);
+
+    // Stands in for a concurrent PUT at the same offset that is still writing
+    try (FileChannel channel = FileChannel.open(tempPath(session), StandardOpenOption.WRITE);
+         FileLock lock = channel.lock()) {
+      assertThatThrownBy(() -> append(session, 6, 6, CONTENT.length))
+          .isInstanceOf(ConflictException.class);
+      assertThatThrownBy(() -> chunkedUploadService.complete(session.getId(), user.getId()))
+          .isInstanceOf(ConflictException.class);
+    }
+
+    assertThat(Files.readAllBytes(tempPath(session))).isEqualTo(slice(0, 6));
+    append(session, 6, 6, CONTENT.length);
+    assertThat(Files.readAllBytes(tempPath(session))).isEqualTo(CONTENT);
+  }
+
+  @Test
+  void secondCompleteIsAConflict() throws Exception {
+    UploadSessionResponse session = start();
+    append(session, 0, 0, CONTENT.length);
+
+    FileUploadResponse file = chunkedUploadService.complete(session.getId(), user.getId());
+
+    assertThatThrownBy(() -> chunkedUploadService.complete(session.getId(), user.getId()))
+        .isInstanceOf(ConflictException.class)
+        .hasMessageContaining(file.getId());
+    assertThatThrownBy(() -> append(session, CONTENT.length, 0, 1))
+        .isInstanceOf(ConflictException.class);
+    assertThat(fileUploadRepository.findByUser_Id(user.getId())).hasSize(1);
+  }
+
+  @Test
+  void purgeSkipsAnExpiredSessionWhileARequestHoldsIt() throws Exception {
+    UploadSessionResponse session = start();
+    append(session, 0, 0, 6);
+    Path temp = tempPath(session);
+    expire(session);
+
+    // Stands in for a late chunk PUT still writing to the session
+    try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+         FileLock lock = channel.lock()) {
+      chunkedUploadService.purgeExpiredSessions();
+    }
+    assertThat(sessionRepository.findById(session.getId())).isPresent();
+    assertThat(temp).exists();
+
+    chunkedUploadService.purgeExpiredSessions();
+    assertThat(sessionRepository.findById(session.getId())).isEmpty();
+    assertThat(temp).doesNotExist();
+  }
+
+  @Test
+  void purgeRemovesExpiredCompletedSessions() throws Exception {
+    UploadSessionResponse session = start();
+    append(session, 0, 0, CONTENT.length);
+    FileUploadResponse file = chunkedUploadService.complete(session.getId(), user.getId());
+    expire(session);
+
+    chunkedUploadService.purgeExpiredSessions();
+
+    assertThat(sessionRepository.findById(session.getId())).isEmpty();
+    assertThat(fileUploadRepository.findById(file.getId())).isPresent();
+  }
+
+  private void expire(UploadSessionResponse session) {
+    jdbcTemplate.update("UPDATE upload_sessions SET updated_at = DATEADD('DAY', -2, CURRENT_TIMESTAMP) WHERE id = ?",
+        session.getId());
+  }
+
+  private UploadSessionResponse start() throws Exception {
+    String checksum = HexFormat.of().formatHex(FileStorageService.sha256().digest(CONTENT));
+    return chunkedUploadService.createSession(
+        new UploadSessionRequest("data.bin", "application/octet-stream", (long) CONTENT.length, checksum),
+        user.getId());
+  }
+
+  private void append(UploadSessionResponse session, long offset, int from, int to) {
+    chunkedUploadService.appendChunk(session.getId(), user.getId(), offset,
+        new ByteArrayInputStream(slice(from, to)));
+  }
+
+  private Path tempPath(UploadSessionResponse session) {
+    return Paths.get(sessionRepository.findById(session.getId()).orElseThrow().getTempPath());
+  }
+
+  private static byte[] slice(int from, int to) {
+    byte[] part = new byte[to - from];
+    System.arraycopy(CONTENT, from, part, 0, part.length);
+    return part;
+  }
+}
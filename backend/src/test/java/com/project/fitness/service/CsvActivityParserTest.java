@@ -0,0 +1,83 @@
+package com.project.fitness.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.fitness.dto.ActivityRequest;
+import com.project.fitness.model.ActivityType;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class CsvActivityParserTest {
+
+  private final CsvActivityParser parser = new CsvActivityParser(new ObjectMapper(), ActivityType.OTHER);
+
+  @Test
+  void parsesTrackerExportFixture() throws Exception {
+    List<ImportRecord> records = parse(new BufferedReader(new InputStreamReader(
+        getClass().getResourceAsStream("/imports/activities.csv"), StandardCharsets.UTF_8)));
+
+    // The blank line is skipped without using up a record number
+    assertThat(records).extracting(ImportRecord::number).containsExactly(1L, 2L, 3L, 4L);
+
+    ActivityRequest run = records.get(0).request();
+    assertThat(run.getType()).isEqualTo(ActivityType.RUNNING);
+    assertThat(run.getStartTime()).isEqualTo(LocalDateTime.of(2024, 5, 6, 7, 30));
+    assertThat(run.getDuration()).isEqualTo(30);
+    assertThat(run.getDistance()).isEqualTo(5.2);
+    assertThat(run.getCaloriesBurned()).isEqualTo(320);
+    assertThat(run.getNotes()).isEqualTo("Morning run, easy");
+    assertThat(run.getAdditionalMetrics()).isEqualTo(Map.of("Avg HR", 148.0));
+
+    ActivityRequest ride = records.get(1).request();
+    assertThat(ride.getType()).isEqualTo(ActivityType.CYCLING);
+    assertThat(ride.getDuration()).isEqualTo(60);
+    assertThat(ride.getDistance()).isEqualTo(20.5);
+    assertThat(ride.getCaloriesBurned()).isZero();
+    assertThat(ride.getNotes()).isEqualTo("Line one\nLine two \"hilly\"");
+    assertThat(ride.getAdditionalMetrics()).isNull();
+
+    assertThat(records.get(2).request()).isNull();
+    assertThat(records.get(2).error()).isEqualTo("Invalid date/time: not-a-date");
+
+    ActivityRequest other = records.get(3).request();
+    assertThat(other.getType()).isEqualTo(ActivityType.OTHER);
+    assertThat(other.getStartTime()).isEqualTo(LocalDateTime.of(2024, 5, 8, 0, 0));
+    assertThat(other.getDuration()).isEqualTo(45);
+    assertThat(other.getNotes()).isEqualTo("=SUM(A1)");
+  }
+
+  @Test
+  void readsItsOwnExportColumns() throws Exception {
+    String csv = "id,userId,type,startTime,duration,caloriesBurned,intensity,additionalMetrics,createdAt\n"
+        + "a1,u1,YOGA,2024-01-02T08:00,40,120,low,\"{\"\"mood\"\":\"\"calm\"\"}\",2024-01-02T09:00\n";
+
+    List<ImportRecord> records = parse(new BufferedReader(new StringReader(csv)));
+
+    assertThat(records).hasSize(1);
+    ActivityRequest yoga = records.get(0).request();
+    assertThat(yoga.getType()).isEqualTo(ActivityType.YOGA);
+    assertThat(yoga.getDuration()).isEqualTo(40);
+    assertThat(yoga.getIntensity()).isEqualTo("LOW");
+    assertThat(yoga.getAdditionalMetrics()).isEqualTo(Map.of("mood", "calm"));
+  }
+
+  @Test
+  void headerOnlyFileHasNoRecords() throws Exception {
+    assertThat(parse(new BufferedReader(new StringReader("type,startTime,duration\n")))).isEmpty();
+    assertThat(parse(new BufferedReader(new StringReader("")))).isEmpty();
+  }
+
+  private List<ImportRecord> parse(BufferedReader reader) throws Exception {
+    List<ImportRecord> records = new ArrayList<>();
+    parser.parse(reader, records::add);
+    return records;
+  }
+}
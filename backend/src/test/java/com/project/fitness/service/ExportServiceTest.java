@@ -0,0 +1,128 @@
+package com.project.fitness.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.fitness.model.Activity;
+import com.project.fitness.model.ActivityType;
+import com.project.fitness.model.User;
+import com.project.fitness.repository.ActivityRepository;
+import com.project.fitness.repository.UserRepository;
+import com.project.fitness.service.ExportService.Format;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties =
+    "spring.datasource.url=jdbc:h2:mem:exports;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class ExportServiceTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2024, 5, 6, 7, 30);
+
+  @Autowired
+  private ExportService exportService;
+
+  @Autowired
+  private ActivityRepository activityRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    user = userRepository.save(User.builder()
+        .email("exports-" + System.nanoTime() + "@example.com").firstName("Ex").lastName("Port").build());
+  }
+
+  @Test
+  void plainFieldsAreWrittenAsIs() throws Exception {
+    Activity activity = save("Easy run", null);
+
+    assertThat(exportCsv()).matches(
+        "id,type,startTime,date,duration,caloriesBurned,distance,intensity,notes,additionalMetrics,createdAt\r\n"
+        + activity.getId() + ",RUNNING,2024-05-06T07:30:00,,30,300,5.0,,Easy run,,[0-9T:.-]+\r\n");
+  }
+
+  @Test
+  void commasQuotesAndLineBreaksAreQuoted() throws Exception {
+    save("Tempo, then \"strides\"\nfelt good", null);
+
+    assertThat(exportCsv()).contains(",\"Tempo, then \"\"strides\"\"\nfelt good\",");
+  }
+
+  @Test
+  void formulaLikeTextIsDefused() throws Exception {
+    save("=HYPERLINK(\"http://example.com\")", null);
+    save("-5 min warmup", null, START.plusDays(1));
+    save("@home", null, START.plusDays(2));
+
+    String csv = exportCsv();
+
+    assertThat(csv).contains(",\"'=HYPERLINK(\"\"http://example.com\"\")\",");
+    assertThat(csv).contains(",'-5 min warmup,");
+    assertThat(csv).contains(",'@home,");
+  }
+
+  @Test
+  void metricsAreEmbeddedAsQuotedJson() throws Exception {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("avgHeartRate", 148);
+    metrics.put("route", "Park, north loop");
+    save(null, metrics);
+
+    assertThat(exportCsv()).contains(",\"{\"\"avgHeartRate\"\":148,\"\"route\"\":\"\"Park, north loop\"\"}\",");
+  }
+
+  @Test
+  void exportedCsvImportsBackUnchanged() throws Exception {
+    String notes = "=1+1, \"quoted\"\nsecond line";
+    save(notes, Map.of("route", "Park, north loop"));
+
+    List<ImportRecord> records = new ArrayList<>();
+    new CsvActivityParser(objectMapper, ActivityType.OTHER)
+        .parse(new BufferedReader(new StringReader(exportCsv())), records::add);
+
+    assertThat(records).hasSize(1);
+    assertThat(records.get(0).request().getNotes()).isEqualTo(notes);
+    assertThat(records.get(0).request().getAdditionalMetrics()).isEqualTo(Map.of("route", "Park, north loop"));
+    assertThat(records.get(0).request().getStartTime()).isEqualTo(START);
+  }
+
+  private String exportCsv() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    exportService.export(user.getId(), "activities", Format.CSV).writeTo(out);
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  private Activity save(String notes, Map<String, Object> metrics) {
+    return save(notes, metrics, START);
+  }
+
+  private Activity save(String notes, Map<String, Object> metrics, LocalDateTime start) {
+    return activityRepository.save(Activity.builder()
+        .user(user)
+        .type(ActivityType.RUNNING)
+        .startTime(start)
+        .duration(30)
+        .caloriesBurned(300)
+        .distance(5.0)
+        .notes(notes)
+        .additionalMetrics(metrics)
+        .build());
+  }
+}
@@ -0,0 +1,104 @@
+package com.project.fitness.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.project.fitness.service.FileStorageService.StoredBlob;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileStorageServiceTest {
+
+  private static final Function<StoredBlob, StoredBlob> FAILING_INSERT = blob -> {
+    throw new IllegalStateException("insert failed");
+  };
+
+  @TempDir
+  Path root;
+
+  @Test
+  void identicalContentIsStoredOnce() throws Exception {
+    FileStorageService storage = new FileStorageService(root.toString(), FileStorageService.MODE_CONTENT_ADDRESSED);
+
+    StoredBlob first = storage.store(content("same"), ".txt", blob -> blob, path -> true);
+    StoredBlob second = storage.store(content("same"), ".txt", blob -> blob, path -> true);
+
+    assertThat(second.path()).isEqualTo(first.path());
+    assertThat(blobs()).containsExactly(first.path());
+    assertThat(temps()).isEmpty();
+  }
+
+  @Test
+  void failedInsertDeletesNewBlob() throws Exception {
+    FileStorageService storage = new FileStorageService(root.toString(), FileStorageService.MODE_CONTENT_ADDRESSED);
+
+    assertThatThrownBy(() -> storage.store(content("orphan"), ".txt", FAILING_INSERT, path -> true))
+        .hasMessage("insert failed");
+
+    assertThat(blobs()).isEmpty();
+    assertThat(temps()).isEmpty();
+  }
+
+  @Test
+  void failedInsertKeepsBlobUsedByAnotherRow() throws Exception {
+    FileStorageService storage = new FileStorageService(root.toString(), FileStorageService.MODE_CONTENT_ADDRESSED);
+    StoredBlob existing = storage.store(content("shared"), ".txt", blob -> blob, path -> true);
+
+    assertThatThrownBy(() -> storage.store(content("shared"), ".txt", FAILING_INSERT, path -> false))
+        .hasMessage("insert failed");
+
+    assertThat(existing.path()).exists();
+  }
+
+  @Test
+  void failedInsertDeletesUniqueFile() throws Exception {
+    FileStorageService storage = new FileStorageService(root.toString(), "unique");
+
+    assertThatThrownBy(() -> storage.store(content("unique"), ".txt", FAILING_INSERT, path -> false))
+        .hasMessage("insert failed");
+
+    try (Stream<Path> files = Files.list(root)) {
+      assertThat(files.filter(Files::isRegularFile)).isEmpty();
+    }
+  }
+
+  @Test
+  void releaseKeepsBlobWhileReferenced() throws Exception {
+    FileStorageService storage = new FileStorageService(root.toString(), FileStorageService.MODE_CONTENT_ADDRESSED);
+    StoredBlob blob = storage.store(content("release"), ".txt", b -> b, path -> true);
+
+    storage.release(blob.path(), blob.contentHash(), () -> false);
+    assertThat(blob.path()).exists();
+
+    storage.release(blob.path(), blob.contentHash(), () -> true);
+    assertThat(blob.path()).doesNotExist();
+  }
+
+  private static InputStream content(String text) {
+    return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private List<Path> blobs() throws Exception {
+    Path blobs = root.resolve("blobs");
+    if (!Files.exists(blobs)) {
+      return List.of();
+    }
+    try (Stream<Path> files = Files.walk(blobs)) {
+      return files.filter(Files::isRegularFile).toList();
+    }
+  }
+
+  private List<Path> temps() throws Exception {
+    try (Stream<Path> files = Files.list(root.resolve("tmp"))) {
+      return files.toList();
+    }
+  }
+}
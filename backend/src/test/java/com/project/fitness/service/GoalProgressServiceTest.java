@@ -0,0 +1,154 @@
+package com.project.fitness.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.project.fitness.model.Activity;
+import com.project.fitness.model.ActivityType;
+import com.project.fitness.model.Goal;
+import com.project.fitness.model.GoalStatus;
+import com.project.fitness.model.GoalType;
+import com.project.fitness.model.Milestone;
+import com.project.fitness.model.User;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Import;
+
+@DataJpaTest
+@Import({GoalProgressService.class, ConcurrentMapCacheManager.class})
+class GoalProgressServiceTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2024, 5, 6, 7, 30);
+
+  @Autowired
+  private GoalProgressService goalProgressService;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  // A 5 km, 90 minute, 450 kcal run
+  @ParameterizedTest
+  @CsvSource({
+      "km, 5", "kilometers, 5", "m, 5000", "meters, 5000", "mi, 3.106856", "miles, 3.106856",
+      "min, 90", "minutes, 90", "h, 1.5", "hours, 1.5", "kcal, 450", "calories, 450",
+      "sessions, 1", "workouts, 1", "count, 1", "' KM ', 5"
+  })
+  void convertsTheActivityIntoTheGoalUnit(String unit, double expected) {
+    User user = persistUser();
+    Goal goal = persistGoal(user, GoalType.HABIT_BUILDING, unit, 0.0, 10_000.0);
+
+    record(user, activity(ActivityType.RUNNING, START));
+
+    assertThat(reload(goal).getCurrentValue()).isCloseTo(expected, within(1e-6));
+  }
+
+  @Test
+  void goalsInUnknownUnitsAreLeftAlone() {
+    User user = persistUser();
+    Goal weight = persistGoal(user, GoalType.ENDURANCE, "kg", 70.0, 65.0);
+    Goal bodyFat = persistGoal(user, GoalType.ENDURANCE, "%", 20.0, 15.0);
+
+    record(user, activity(ActivityType.RUNNING, START));
+
+    assertThat(reload(weight).getCurrentValue()).isEqualTo(70.0);
+    assertThat(reload(bodyFat).getCurrentValue()).isEqualTo(20.0);
+  }
+
+  @Test
+  void activitiesOfOtherTypesOrOutsideTheGoalPeriodAreIgnored() {
+    User user = persistUser();
+    Goal flexibility = persistGoal(user, GoalType.FLEXIBILITY, "sessions", 0.0, 10.0);
+    Goal endurance = persistGoal(user, GoalType.ENDURANCE, "km", 0.0, 100.0);
+    endurance.setStartDate(START.toLocalDate());
+    endurance.setDeadline(START.toLocalDate().plusDays(7));
+    entityManager.flush();
+
+    record(user, activity(ActivityType.RUNNING, START.minusDays(1)), activity(ActivityType.RUNNING,
+        START.plusDays(8)), activity(ActivityType.RUNNING, START.plusDays(7)));
+
+    assertThat(reload(flexibility).getCurrentValue()).isZero();
+    // Only the run on the deadline counts
+    assertThat(reload(endurance).getCurrentValue()).isEqualTo(5.0);
+  }
+
+  @Test
+  void reachingTheTargetCompletesTheGoalAndItsMilestones() {
+    User user = persistUser();
+    Goal goal = persistGoal(user, GoalType.ENDURANCE, "km", 8.0, 10.0);
+    Milestone reached = persistMilestone(goal, 12.0);
+    Milestone ahead = persistMilestone(goal, 20.0);
+
+    record(user, activity(ActivityType.RUNNING, START));
+
+    Goal completed = reload(goal);
+    assertThat(completed.getCurrentValue()).isEqualTo(13.0);
+    assertThat(completed.getStatus()).isEqualTo(GoalStatus.COMPLETED);
+    assertThat(entityManager.find(Milestone.class, reached.getId()).getAchieved()).isTrue();
+    assertThat(entityManager.find(Milestone.class, reached.getId()).getAchievedAt()).isNotNull();
+    assertThat(entityManager.find(Milestone.class, ahead.getId()).getAchieved()).isFalse();
+  }
+
+  @Test
+  void goalBelowItsTargetStaysActive() {
+    User user = persistUser();
+    Goal goal = persistGoal(user, GoalType.ENDURANCE, "km", 0.0, 10.0);
+
+    record(user, activity(ActivityType.RUNNING, START));
+
+    assertThat(reload(goal).getStatus()).isEqualTo(GoalStatus.ACTIVE);
+  }
+
+  private void record(User user, Activity... activities) {
+    goalProgressService.onActivityRecorded(new ActivityRecordedEvent(user.getId(), List.of(activities)));
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  private Goal reload(Goal goal) {
+    return entityManager.find(Goal.class, goal.getId());
+  }
+
+  private User persistUser() {
+    return entityManager.persist(User.builder()
+        .email("progress-" + System.nanoTime() + "@example.com").firstName("Goal").lastName("Getter").build());
+  }
+
+  private Goal persistGoal(User user, GoalType type, String unit, double current, double target) {
+    Goal goal = entityManager.persist(Goal.builder()
+        .user(user)
+        .title("Goal in " + unit)
+        .type(type)
+        .unit(unit)
+        .currentValue(current)
+        .targetValue(target)
+        .startDate(LocalDate.of(2024, 1, 1))
+        .build());
+    entityManager.flush();
+    return goal;
+  }
+
+  private Milestone persistMilestone(Goal goal, double target) {
+    Milestone milestone = entityManager.persist(
+        Milestone.builder().goal(goal).title("At " + target).targetValue(target).build());
+    entityManager.flush();
+    return milestone;
+  }
+
+  private static Activity activity(ActivityType type, LocalDateTime start) {
+    return Activity.builder()
+        .type(type)
+        .startTime(start)
+        .distance(5.0)
+        .duration(90)
+        .caloriesBurned(450)
+        .build();
+  }
+}
@@ -0,0 +1,96 @@
+package com.project.fitness.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.project.fitness.dto.GoalResponse;
+import com.project.fitness.model.Goal;
+import com.project.fitness.model.GoalType;
+import com.project.fitness.model.Milestone;
+import com.project.fitness.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(GoalService.class)
+class GoalServiceTest {
+
+  @Autowired
+  private GoalService goalService;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @Test
+  void getUserGoalsIssuesConstantNumberOfStatements() {
+    User fewGoals = persistUserWithGoals("few@example.com", 2);
+    User manyGoals = persistUserWithGoals("many@example.com", 25);
+
+    long fewStatements = countStatements(fewGoals.getId(), 2);
+    long manyStatements = countStatements(manyGoals.getId(), 25);
+
+    // One query for the goals, one IN (...) query for all of their milestones
+    assertThat(fewStatements).isEqualTo(2);
+    assertThat(manyStatements).isEqualTo(fewStatements);
+  }
+
+  @Test
+  void getUserGoalsKeepsMilestonesGroupedAndOrdered() {
+    User user = persistUserWithGoals("order@example.com", 3);
+
+    List<GoalResponse> goals = goalService.getUserGoals(user.getId(), FieldSet.ALL);
+
+    assertThat(goals).hasSize(3).allSatisfy(goal -> {
+      assertThat(goal.getMilestones()).hasSize(3)
+          .allSatisfy(m -> assertThat(m.getGoalId()).isEqualTo(goal.getId()));
+      assertThat(goal.getMilestones()).extracting("targetValue").containsExactly(10.0, 20.0, 30.0);
+    });
+  }
+
+  private long countStatements(String userId, int expectedGoals) {
+    entityManager.clear();
+    statistics.clear();
+    List<GoalResponse> goals = goalService.getUserGoals(userId, FieldSet.ALL);
+    assertThat(goals).hasSize(expectedGoals);
+    return statistics.getPrepareStatementCount();
+  }
+
+  private User persistUserWithGoals(String email, int goalCount) {
+    User user = User.builder().email(email).firstName("Test").lastName("User").build();
+    entityManager.persist(user);
+    for (int i = 0; i < goalCount; i++) {
+      Goal goal = Goal.builder()
+          .user(user)
+          .title("Goal " + i)
+          .type(GoalType.ENDURANCE)
+          .targetValue(100.0)
+          .currentValue(25.0)
+          .unit("km")
+          .build();
+      entityManager.persist(goal);
+      // Persisted out of order to check the milestone ordering survives grouping
+      for (double target : new double[] {30.0, 10.0, 20.0}) {
+        entityManager.persist(Milestone.builder().goal(goal).title("At " + target).targetValue(target).build());
+      }
+    }
+    entityManager.flush();
+    return user;
+  }
+}
@@ -0,0 +1,79 @@
+package com.project.fitness.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.project.fitness.dto.ActivityRequest;
+import com.project.fitness.model.ActivityType;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import javax.xml.stream.XMLStreamException;
+import org.junit.jupiter.api.Test;
+
+class GpxActivityParserTest {
+
+  private final GpxActivityParser parser = new GpxActivityParser(ActivityType.WALKING);
+
+  @Test
+  void parsesEachTrackOfTheFixture() throws Exception {
+    List<ImportRecord> records = parse(getClass().getResourceAsStream("/imports/track.gpx"));
+
+    assertThat(records).extracting(ImportRecord::number).containsExactly(1L, 2L, 3L);
+
+    ActivityRequest run = records.get(0).request();
+    assertThat(run.getType()).isEqualTo(ActivityType.RUNNING);
+    assertThat(run.getNotes()).isEqualTo("Evening run");
+    assertThat(run.getStartTime())
+        .isEqualTo(LocalDateTime.ofInstant(Instant.parse("2024-05-06T17:00:00Z"), ZoneId.systemDefault()));
+    assertThat(run.getDuration()).isEqualTo(20);
+    assertThat(run.getDistance()).isEqualTo(1.369);
+    assertThat(run.getCaloriesBurned()).isZero();
+    assertThat(run.getAdditionalMetrics())
+        .containsEntry("source", "gpx")
+        .containsEntry("trackPoints", 3L)
+        .containsEntry("elevationGain", 5.0)
+        .containsEntry("avgHeartRate", 150L)
+        .containsEntry("maxHeartRate", 160L);
+
+    assertThat(records.get(1).error()).isEqualTo("Track has no timestamps");
+    assertThat(records.get(2).error()).isEqualTo("Track has no points");
+  }
+
+  @Test
+  void trackWithoutTypeUsesTheDefault() throws Exception {
+    String gpx = "<gpx><trk><trkseg>"
+        + "<trkpt lat=\"1\" lon=\"1\"><time>2024-01-01T10:00:00Z</time></trkpt>"
+        + "<trkpt lat=\"1\" lon=\"1\"><time>2024-01-01T10:00:20Z</time></trkpt>"
+        + "</trkseg></trk></gpx>";
+
+    ActivityRequest walk = parse(stream(gpx)).get(0).request();
+
+    assertThat(walk.getType()).isEqualTo(ActivityType.WALKING);
+    assertThat(walk.getDuration()).isEqualTo(1); // rounded up to a minute, never zero
+    assertThat(walk.getDistance()).isZero();
+  }
+
+  @Test
+  void rejectsDocumentTypeDeclarations() {
+    String gpx = "<?xml version=\"1.0\"?><!DOCTYPE gpx [<!ENTITY x SYSTEM \"file:///etc/passwd\">]>"
+        + "<gpx><trk><name>&x;</name></trk></gpx>";
+
+    assertThatThrownBy(() -> parse(stream(gpx))).isInstanceOf(XMLStreamException.class);
+  }
+
+  private List<ImportRecord> parse(InputStream in) throws Exception {
+    List<ImportRecord> records = new ArrayList<>();
+    parser.parse(in, records::add);
+    return records;
+  }
+
+  private static InputStream stream(String xml) {
+    return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,90 @@
+package com.project.fitness.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ImageVariantServiceTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void generatesEveryVariantWithinItsMaxDimension() throws Exception {
+    Path original = png("photo.png", 1600, 1200);
+
+    new ImageVariantService(true, 1, 10, 10_000_000).generate(original);
+
+    for (ImageVariant variant : ImageVariant.values()) {
+      BufferedImage rendered = ImageIO.read(variant.resolve(original).toFile());
+      assertThat(Math.max(rendered.getWidth(), rendered.getHeight())).isEqualTo(variant.getMaxDimension());
+    }
+  }
+
+  @Test
+  void imagesOverThePixelCapAreNotDecoded() throws Exception {
+    Path original = png("huge.png", 2000, 1000);
+
+    new ImageVariantService(true, 1, 10, 1_000_000).generate(original);
+
+    for (ImageVariant variant : ImageVariant.values()) {
+      assertThat(variant.resolve(original)).doesNotExist();
+    }
+  }
+
+  @Test
+  void pendingImagesAreNotQueuedTwiceAndFullQueueDropsWork() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    List<String> rendered = new CopyOnWriteArrayList<>();
+    ImageVariantService service = new ImageVariantService(true, 1, 1, 10_000_000) {
+      @Override
+      void generate(Path original) {
+        rendered.add(original.getFileName() + "@" + Thread.currentThread().getName());
+        started.countDown();
+        try {
+          release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    };
+    try {
+      service.generateAsync(dir.resolve("a.png"), "image/png");
+      assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+      service.generateAsync(dir.resolve("a.png"), "image/png"); // being rendered
+      service.generateAsync(dir.resolve("b.png"), "image/png"); // fills the queue
+      service.generateAsync(dir.resolve("b.png"), "image/png"); // already queued
+      service.generateAsync(dir.resolve("c.png"), "image/png"); // queue full: dropped, not run here
+      assertThat(service.queueDepth()).isEqualTo(1);
+      assertThat(rendered).hasSize(1);
+
+      release.countDown();
+      for (int i = 0; i < 100 && (rendered.size() < 2 || service.queueDepth() > 0); i++) {
+        Thread.sleep(50);
+      }
+      assertThat(rendered).hasSize(2).allMatch(call -> call.contains("@image-variants-"));
+      assertThat(rendered.get(0)).startsWith("a.png@");
+      assertThat(rendered.get(1)).startsWith("b.png@");
+    } finally {
+      release.countDown();
+      service.shutdown();
+    }
+  }
+
+  private Path png(String name, int width, int height) throws Exception {
+    Path file = dir.resolve(name);
+    ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", file.toFile());
+    assertThat(Files.size(file)).isPositive();
+    return file;
+  }
+}
@@ -0,0 +1,66 @@
+package com.project.fitness.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.project.fitness.exceptions.ConflictException;
+import com.project.fitness.model.ImportFormat;
+import com.project.fitness.model.ImportJob;
+import com.project.fitness.model.User;
+import com.project.fitness.repository.ImportJobRepository;
+import com.project.fitness.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:imports;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "file.upload-dir=./target/test-uploads/imports"
+})
+class ImportServiceTest {
+
+  @Autowired
+  private ImportService importService;
+
+  @Autowired
+  private FileUploadService fileUploadService;
+
+  @Autowired
+  private ImportJobRepository jobRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    user = userRepository.save(User.builder()
+        .email("imports-" + System.nanoTime() + "@example.com").firstName("Im").lastName("Port").build());
+  }
+
+  @Test
+  void secondImportIsRejectedWhileOneIsActive() {
+    jobRepository.save(ImportJob.builder().user(user).fileId("earlier").format(ImportFormat.CSV).build());
+
+    assertThatThrownBy(() -> importService.startImport(user.getId(), csv(), null, null, null))
+        .isInstanceOf(ConflictException.class)
+        .hasMessage("An import is already in progress");
+    // Rejected before the upload was stored
+    assertThat(fileUploadService.getUserFiles(user.getId())).isEmpty();
+  }
+
+  @Test
+  void importIsQueuedWhenNoneIsActive() {
+    assertThat(importService.startImport(user.getId(), csv(), null, null, null).getFileName())
+        .isEqualTo("workouts.csv");
+    assertThat(jobRepository.existsById(importService.getUserJobs(user.getId()).get(0).getId())).isTrue();
+  }
+
+  private static MockMultipartFile csv() {
+    return new MockMultipartFile("file", "workouts.csv", "text/csv",
+        "type,startTime,duration\nRUNNING,2024-05-06T07:30,30\n".getBytes());
+  }
+}
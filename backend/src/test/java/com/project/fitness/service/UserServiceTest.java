@@ -0,0 +1,71 @@
+package com.project.fitness.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.project.fitness.dto.LoginRequest;
+import com.project.fitness.exceptions.UnauthorizedException;
+import com.project.fitness.model.User;
+import com.project.fitness.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:users;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "app.security.bcrypt-strength=5"
+})
+class UserServiceTest {
+
+  private static final String PASSWORD = "correct horse battery staple";
+
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Test
+  void weakerHashIsReplacedOnSuccessfulLogin() {
+    User user = saveUser(new BCryptPasswordEncoder(4).encode(PASSWORD));
+
+    userService.authenticate(new LoginRequest(user.getEmail(), PASSWORD));
+
+    String stored = userRepository.findById(user.getId()).orElseThrow().getPassword();
+    assertThat(stored).startsWith("$2a$05$");
+    assertThat(new BCryptPasswordEncoder().matches(PASSWORD, stored)).isTrue();
+    // The new hash keeps working
+    userService.authenticate(new LoginRequest(user.getEmail(), PASSWORD));
+  }
+
+  @Test
+  void currentHashIsLeftAsIs() {
+    String hash = new BCryptPasswordEncoder(5).encode(PASSWORD);
+    User user = saveUser(hash);
+
+    userService.authenticate(new LoginRequest(user.getEmail(), PASSWORD));
+
+    assertThat(userRepository.findById(user.getId()).orElseThrow().getPassword()).isEqualTo(hash);
+  }
+
+  @Test
+  void failedLoginDoesNotRehash() {
+    String hash = new BCryptPasswordEncoder(4).encode(PASSWORD);
+    User user = saveUser(hash);
+
+    assertThatThrownBy(() -> userService.authenticate(new LoginRequest(user.getEmail(), "wrong password")))
+        .isInstanceOf(UnauthorizedException.class);
+
+    assertThat(userRepository.findById(user.getId()).orElseThrow().getPassword()).isEqualTo(hash);
+  }
+
+  private User saveUser(String passwordHash) {
+    return userRepository.save(User.builder()
+        .email("login-" + System.nanoTime() + "@example.com")
+        .firstName("Log")
+        .lastName("In")
+        .password(passwordHash)
+        .build());
+  }
+}
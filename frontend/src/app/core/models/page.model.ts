@@ -8,3 +8,14 @@ export interface Page<T> {
   last: boolean;
   empty: boolean;
 }
+
+/** A page without totals: `last` tells whether another page exists (no count query on the server). */
+export interface Slice<T> {
+  content: T[];
+  size: number;
+  number: number;
+  numberOfElements: number;
+  first: boolean;
+  last: boolean;
+  empty: boolean;
+}
@@ -2,7 +2,7 @@ import { Injectable, inject } from '@angular/core';
 import { Observable } from 'rxjs';
 import { ApiService } from './api.service';
 import { User } from '../models/user.model';
-import { Page } from '../models/page.model';
+import { Page, Slice } from '../models/page.model';
 
 @Injectable({
   providedIn: 'root',
@@ -52,9 +52,9 @@ export class UserService {
   /**
    * Search users by name or email
    */
-  searchUsers(query: string, page: number = 0, size: number = 10): Observable<Page<User>> {
+  searchUsers(query: string, page: number = 0, size: number = 10): Observable<Slice<User>> {
     const params = { query, page: page.toString(), size: size.toString() };
-    return this.api.get<Page<User>>('users/search', params);
+    return this.api.get<Slice<User>>('users/search', params);
   }
 
   /**
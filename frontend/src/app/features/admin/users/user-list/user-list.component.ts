@@ -2,9 +2,11 @@ import { Component, OnInit, inject, signal, computed } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { Router } from '@angular/router';
 import { FormsModule } from '@angular/forms';
+import { Observable } from 'rxjs';
 import { ToastService } from '../../../../core/services/toast.service';
 import { UserService } from '../../../../core/services/user.service';
 import { User, UserRole } from '../../../../core/models/user.model';
+import { Page, Slice } from '../../../../core/models/page.model';
 
 @Component({
   selector: 'app-user-list',
@@ -26,6 +28,8 @@ export class UserListComponent implements OnInit {
   pageSize = signal(10);
   totalElements = signal(0);
   totalPages = signal(0);
+  // Search results are slices: the total is unknown while more pages remain
+  hasMore = signal(false);
 
   // Filters
   searchQuery = signal('');
@@ -46,15 +50,23 @@ export class UserListComponent implements OnInit {
     const page = this.currentPage();
     const size = this.pageSize();
 
-    const request$ = query
+    const request$: Observable<Page<User> | Slice<User>> = query
       ? this.userService.searchUsers(query, page, size)
       : this.userService.getAllUsers(page, size);
 
       request$.subscribe({
         next: (pageData) => {
           this.users.set(pageData.content);
-          this.totalElements.set(pageData.totalElements);
-          this.totalPages.set(pageData.totalPages);
+          if ('totalElements' in pageData) {
+            this.totalElements.set(pageData.totalElements);
+            this.totalPages.set(pageData.totalPages);
+            this.hasMore.set(false);
+          } else {
+            // Count what has been seen so far and offer one more page while the slice says there is one
+            this.totalElements.set(pageData.number * pageData.size + pageData.content.length);
+            this.totalPages.set(pageData.last ? pageData.number + 1 : pageData.number + 2);
+            this.hasMore.set(!pageData.last);
+          }
           this.isLoading.set(false);
         },
         error: (error) => {